@@ -0,0 +1,104 @@
+import java.text.Normalizer;
+
+/**
+ * A class using CodePointComparator to check whether two code points are the same letter
+ * regardless of accents (e.g. 'e' and 'e' with an acute accent), optionally regardless of case too.
+ * A precomposed letter is matched by its base letter, the first code point of its canonical
+ * decomposition (Unicode NFD) when all the rest are combining marks. The base letters of the whole
+ * Basic Multilingual Plane are computed once, on first use, into a 128 KB table, so comparing
+ * costs two array loads instead of normalizing and copying the word; the rare letters outside
+ * of it are decomposed while comparing. Combining marks themselves, which follow their letter
+ * in decomposed text, are ignorable and skipped by the mirrored checks.
+ * Letters without a canonical decomposition, such as the Danish o with stroke, keep their identity.
+ */
+public class AccentInsensitiveComparator implements CodePointComparator {
+    private final boolean ignoreCase;
+
+    /** A class holding the table of base letters, built the first time it is used */
+    private static final class BaseLetters {
+        private static final char[] TABLE = new char[Character.MAX_VALUE + 1];
+
+        static {
+            for (int c = 0; c <= Character.MAX_VALUE; c++)
+                TABLE[c] = Character.isSurrogate((char) c) ? (char) c : (char) decompose(c);
+        }
+    }
+
+    /**
+     * Constructor creating a comparator matching letters regardless of accents only
+     */
+    public AccentInsensitiveComparator() {
+        this(false);
+    }
+
+    /**
+     * Constructor creating a comparator matching letters regardless of accents
+     * @param ignoreCase boolean, true to match letters regardless of case as well
+     */
+    public AccentInsensitiveComparator(boolean ignoreCase) {
+        this.ignoreCase = ignoreCase;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param x int, Unicode code point
+     * @param y int, Unicode code point
+     * @return true if code points x and y are the same letter regardless of accents, false otherwise
+     */
+    @Override
+    public boolean equalCodePoints(int x, int y) {
+        if (x == y)
+            return true;
+        int a = base(x);
+        int b = base(y);
+        return a == b || ignoreCase && CaseInsensitiveComparator.fold(a) == CaseInsensitiveComparator.fold(b);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Combining marks, such as a combining acute accent, are ignorable.
+     * @param codePoint int, Unicode code point
+     * @return true if the code point is a combining mark, false otherwise
+     */
+    @Override
+    public boolean isIgnorable(int codePoint) {
+        int type = Character.getType(codePoint);
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK
+                || type == Character.ENCLOSING_MARK;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Mapping every code point to its base letter is an equivalence relation.
+     * @return true
+     */
+    @Override
+    public boolean isEquivalence() {
+        return true;
+    }
+
+    /**
+     * Finds the base letter of a code point
+     * @param codePoint int, Unicode code point
+     * @return int, the base letter, or the code point itself if it has no accent
+     */
+    private static int base(int codePoint) {
+        return codePoint <= Character.MAX_VALUE ? BaseLetters.TABLE[codePoint] : decompose(codePoint);
+    }
+
+    /**
+     * Decomposes a code point and returns its first part if all the other parts are combining marks
+     * @param codePoint int, Unicode code point
+     * @return int, the base letter, or the code point itself if it does not decompose into one
+     */
+    private static int decompose(int codePoint) {
+        String decomposed = Normalizer.normalize(new String(Character.toChars(codePoint)), Normalizer.Form.NFD);
+        int base = decomposed.codePointAt(0);
+        if (codePoint <= Character.MAX_VALUE && base > Character.MAX_VALUE)
+            return codePoint;
+        for (int i = Character.charCount(base); i < decomposed.length(); i++)
+            if (Character.getType(decomposed.charAt(i)) != Character.NON_SPACING_MARK)
+                return codePoint;
+        return base;
+    }
+}
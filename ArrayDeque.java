@@ -1,27 +1,51 @@
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
 /**
  * A class representing an circular array implementation of double-ended queue.
  * If the front pointer is at position zero invoking addFirst() method loops the pointer
  * back around to the end of the array. Similarly if the end pointer is at the last position
- * invoking addLast() method loops the pointer to position zero. Starting length of the array is 8,
- * if calling addFirst() or addLast() method requires resizing the new length is set to double the previous one.
- * Usage ratio of the array (size/array.length) is calculated with every call to removeFirst()
- * and removeLast(), if it falls beneath 0.25 array is resized to half its current length.
+ * invoking addLast() method loops the pointer to position zero. Starting length of the array is 8.
+ * The length of the array is always a power of two, so pointers are wrapped around with a bit mask
+ * (index & (items.length - 1)) instead of comparisons and the modulo operator.
+ * When and how the array is resized is decided by a ResizePolicy: by default, if calling addFirst()
+ * or addLast() method requires resizing the new length is set to double the previous one, and
+ * if removeFirst() or removeLast() leaves less than a quarter of an array longer than 16 in use
+ * the array is resized to half its current length. The size below which the array shrinks is
+ * computed once per resize, so removals only compare two ints.
+ * Iterators are fail-fast: adding or removing an element while iterating makes the iterator
+ * throw ConcurrentModificationException. The spliterator splits the circular array in halves
+ * by index, so parallel streams divide it evenly between workers.
+ * Bulk operations resize the array at most once and copy each range of items with at most
+ * two System.arraycopy() calls, one on each side of the end of the array.
+ * snapshot() returns a read-only view sharing the array copy-on-write: the array is copied
+ * only by the first modification of the deque after a snapshot was taken, if at all.
+ * A ResizeListener set with setResizeListener() is told about every resize; without one
+ * resizing only checks a field for null.
  * @param <T> generic type of stored data
  */
 public class ArrayDeque<T> implements Deque<T> {
     private T[] items;
     private int size;
-    private int nextFirst = 4;
-    private int nextLast = 5;
-    private static final int RFACTOR = 2;
+    private int nextFirst;
+    private int nextLast;
+    private final ResizePolicy policy;
+    private int shrinkThreshold;
+    private int modCount;
+    private boolean shared;
+    private ResizeListener resizeListener;
     private static final int STARTING_SIZE = 8;
+    private static final int MAX_CAPACITY = 1 << 30;
 
     /**
      * Constructor creating an empty ArrayDeque
      */
     public ArrayDeque() {
-        items = (T[]) new Object[STARTING_SIZE];
-        size = 0;
+        this(STARTING_SIZE, ResizePolicy.doubling());
     }
 
     /**
@@ -29,36 +53,73 @@ public class ArrayDeque<T> implements Deque<T> {
      * @param x item of a generic type to be stored as the first element
      */
     public ArrayDeque(T x) {
-        items = (T[]) new Object[STARTING_SIZE];
+        this();
         items[nextFirst] = x;
         nextFirst = moveBackwards(nextFirst);
         size = 1;
     }
 
     /**
-     * Moves a pointer one position to the left
+     * Constructor creating an empty ArrayDeque resized according to a given policy
+     * @param policy ResizePolicy deciding when and how the array is resized
+     */
+    public ArrayDeque(ResizePolicy policy) {
+        this(STARTING_SIZE, policy);
+    }
+
+    /**
+     * Constructor creating an empty ArrayDeque able to hold a given number of elements before
+     * its first resize, resized according to a given policy. The capacity is rounded up to
+     * a power of two, not smaller than 8.
+     * @param initialCapacity int, number of elements the array holds up front
+     * @param policy ResizePolicy deciding when and how the array is resized
+     */
+    public ArrayDeque(int initialCapacity, ResizePolicy policy) {
+        if (initialCapacity < 0)
+            throw new IllegalArgumentException("Initial capacity must not be negative: " + initialCapacity);
+        if (policy == null)
+            throw new NullPointerException("Resize policy must not be null");
+        this.policy = policy;
+        int capacity = powerOfTwoCapacity(initialCapacity);
+        items = (T[]) new Object[capacity];
+        size = 0;
+        nextFirst = capacity / 2;
+        nextLast = capacity / 2 + 1;
+        shrinkThreshold = policy.shrinkThreshold(capacity);
+    }
+
+    /**
+     * Calculates the smallest power of two length of the array, not smaller than STARTING_SIZE,
+     * able to hold a given number of elements
+     * @param elements int, number of elements
+     * @return int, length of the array
+     * @throws IllegalStateException if no array can hold that many elements
+     */
+    private static int powerOfTwoCapacity(int elements) {
+        if (elements > MAX_CAPACITY)
+            throw new IllegalStateException("ArrayDeque cannot hold more than " + MAX_CAPACITY + " elements");
+        int capacity = STARTING_SIZE;
+        while (capacity < elements)
+            capacity <<= 1;
+        return capacity;
+    }
+
+    /**
+     * Moves a pointer one position to the left, from position zero to the end of the array
      * @param thisFirst int, index of an array
      * @return int, index of an array one place to the left
      */
     private int moveBackwards(int thisFirst) {
-        if (thisFirst - 1 < 0)
-            thisFirst = items.length - 1;
-        else
-            thisFirst--;
-        return thisFirst;
+        return (thisFirst - 1) & (items.length - 1);
     }
 
     /**
-     * Moves a pointer one position to the right
+     * Moves a pointer one position to the right, from the end of the array to position zero
      * @param thisLast int, index of an array
      * @return int, index of an array one place to the right
      */
     private int moveForward(int thisLast) {
-        if (thisLast + 1 > items.length - 1)
-            thisLast = 0;
-        else
-            thisLast++;
-        return thisLast;
+        return (thisLast + 1) & (items.length - 1);
     }
 
     /**
@@ -72,67 +133,185 @@ public class ArrayDeque<T> implements Deque<T> {
     }
 
     /**
-     * Calculates the array usage ratio, if the ratio of elements stored in the array to its capacity
-     * drops below 0.25 shrinks the array by resizing it to a half of its current length. Executes
-     * only for arrays of length smaller than 16.
+     * Checks whether the number of stored elements dropped below the shrink threshold of the array,
+     * computed by the resize policy at the last resize, and if so calls shrinkArray() function
      * @see #shrinkArray()
      */
     private void checkForShrink() {
-        double usageRatio = (double) size / items.length;
-        if (items.length > 16 && usageRatio < 0.25)
+        if (size < shrinkThreshold)
             shrinkArray();
     }
 
+    /**
+     * Checks whether the array has room for a given number of additional elements, if not
+     * expands it once to the capacity given by the resize policy for all of them
+     * @param count int, number of elements to be added
+     */
+    private void checkForBulkExpand(int count) {
+        if (count > items.length - size)
+            resize(powerOfTwoCapacity(policy.expandedCapacity(items.length, size + count)));
+    }
+
+    /**
+     * Shrinks the array after removing many elements at once. Asks the resize policy for
+     * capacities one after another until the number of elements is above the shrink threshold
+     * of the next capacity, then resizes the array once to the last capacity.
+     */
+    private void checkForBulkShrink() {
+        int capacity = items.length;
+        while (size < policy.shrinkThreshold(capacity)) {
+            int newCapacity = powerOfTwoCapacity(Math.max(policy.shrunkCapacity(capacity, size), size));
+            if (newCapacity >= capacity)
+                break;
+            capacity = newCapacity;
+        }
+        if (capacity < items.length)
+            resize(capacity);
+    }
+
+    /**
+     * Copies count elements of the deque, starting at a given position of the circular array,
+     * into an array, in deque order
+     * @param position int, position of the array holding the first copied element
+     * @param dest Object[], array the elements are copied to, starting at position zero
+     * @param count int, number of copied elements
+     */
+    private void copyOut(int position, Object[] dest, int count) {
+        int firstPart = Math.min(count, items.length - position);
+        System.arraycopy(items, position, dest, 0, firstPart);
+        System.arraycopy(items, 0, dest, firstPart, count - firstPart);
+    }
+
+    /**
+     * Copies all elements of an array into the circular array, starting at a given position
+     * @param src Object[], array the elements are copied from
+     * @param position int, position of the circular array receiving the first element
+     */
+    private void copyIn(Object[] src, int position) {
+        int firstPart = Math.min(src.length, items.length - position);
+        System.arraycopy(src, 0, items, position, firstPart);
+        System.arraycopy(src, firstPart, items, 0, src.length - firstPart);
+    }
+
+    /**
+     * Clears count positions of the circular array, starting at a given position
+     * @param position int, first cleared position
+     * @param count int, number of cleared positions
+     */
+    private void clear(int position, int count) {
+        int firstPart = Math.min(count, items.length - position);
+        Arrays.fill(items, position, position + firstPart, null);
+        Arrays.fill(items, 0, count - firstPart, null);
+    }
+
+    /**
+     * Copies the array before it is modified if it is shared with a snapshot, so the snapshot
+     * never sees the modification. Resizing replaces the array anyway and needs no copy.
+     * @see #snapshot()
+     */
+    private void checkForCopyOnWrite() {
+        if (shared) {
+            items = Arrays.copyOf(items, items.length);
+            shared = false;
+        }
+    }
+
+    /**
+     * Expands a full array to the capacity given by the resize policy, rounded up to a power of two
+     * @throws IllegalStateException if the policy does not allow the array to grow
+     * @see #resize(int)
+     */
+    private void expandArray() {
+        resize(powerOfTwoCapacity(policy.expandedCapacity(items.length, size + 1)));
+    }
+
+    /**
+     * Shrinks the array to the capacity given by the resize policy, rounded up to a power of two
+     * and never smaller than the number of stored elements
+     * @see #resize(int)
+     */
+    private void shrinkArray() {
+        int newCapacity = powerOfTwoCapacity(Math.max(policy.shrunkCapacity(items.length, size), size));
+        if (newCapacity < items.length)
+            resize(newCapacity);
+    }
+
     /**
      * Performs an operation of resizing the array by:
-     * 1. creating a new array of a capacity equal to the size of the current array multiplied
-     *    by a factor equal to RFACTOR
-     * 2. calculating the starting index of a new array
-     * 3. copying the part of the previous array from the first element to the end of array length
-     * 4. copying the part of the previous array from the 0th index up to the last element
+     * 1. creating a new array of a given capacity
+     * 2. calculating the starting index of a new array, which centers the elements in it
+     * 3. copying the part of the previous array from the first element up to the last element
+     *    or the end of array length, whichever comes first
+     * 4. copying the wrapped part of the previous array from the 0th index up to the last element
      * 5. reassigning the variable to the resized array
      * 6. updating the pointers for next first and last values to be inserted
-     * @see #moveBackwards(int), #moveForward(int)
+     * 7. asking the resize policy for the shrink threshold of the new array
+     * 8. telling the resize listener, if there is one
+     * @param capacity int, power of two length of the new array, not smaller than size
      */
-    private void expandArray() {
+    private void resize(int capacity) {
+        ResizeListener listener = resizeListener;
+        long start = listener == null ? 0 : System.nanoTime();
+        int oldCapacity = items.length;
 
         // create a new array and calculate a new starting index
-        T[] newArray = (T[]) new Object[size * RFACTOR];
-        int newStartingIndex = newArray.length / 4;
-        int oldArrayLength = items.length;
+        T[] newArray = (T[]) new Object[capacity];
+        int newStartingIndex = (capacity - size) / 2;
 
         int indexFirstValue = moveForward(nextFirst);
-        // copy the part from items[nextFirst + 1] to items.length
-        System.arraycopy(items, indexFirstValue, newArray, newStartingIndex, oldArrayLength - indexFirstValue);
+        int firstPart = Math.min(size, items.length - indexFirstValue);
+        // copy the part from items[nextFirst + 1] to items.length or items[nextLast - 1]
+        System.arraycopy(items, indexFirstValue, newArray, newStartingIndex, firstPart);
         // copy the part from items[0] to items[nextLast - 1]
-        System.arraycopy(items, 0, newArray, newStartingIndex + (oldArrayLength - indexFirstValue), indexFirstValue);
+        System.arraycopy(items, 0, newArray, newStartingIndex + firstPart, size - firstPart);
 
         // update nextFirst and nextLast
         items = newArray;
-        nextFirst = newStartingIndex - 1;
-        nextLast = newStartingIndex + oldArrayLength;
+        shared = false;
+        nextFirst = moveBackwards(newStartingIndex);
+        nextLast = (newStartingIndex + size) & (capacity - 1);
+        shrinkThreshold = policy.shrinkThreshold(capacity);
+        modCount++;
+
+        if (listener != null)
+            listener.resized(oldCapacity, capacity, size, System.nanoTime() - start);
     }
 
     /**
-     * Performs an operation of shrinking an array by:
-     * 1. creating a new array of a capacity equal to the length of the current array divided by 2
-     * 2. calculating the starting index of a new array
-     * 3. copying the shrank array into the new array
-     * 4. reassigning the variable to the resized array
-     * 5. updating the pointers for next first and last values to be inserted
-     * @see #moveForward(int)
+     * Sets the listener told about every resize of the array, replacing the previous one
+     * @param listener ResizeListener, null to stop listening
      */
-    private void shrinkArray() {
+    public void setResizeListener(ResizeListener listener) {
+        resizeListener = listener;
+    }
 
-        // create a new array and calculate a new starting index
-        T[] newArray = (T[]) new Object[items.length / 2];
-        int newStartingIndex = newArray.length / 4;
+    /**
+     * Returns the number of elements the array can hold before it has to be expanded
+     * @return int, length of the array
+     */
+    public int capacity() {
+        return items.length;
+    }
 
-        System.arraycopy(items, moveForward(nextFirst), newArray, newStartingIndex, size);
+    /**
+     * Expands the array up front, so that a given number of elements fits in it without
+     * further resizing. Capacity is rounded up to a power of two. Does not consult the resize
+     * policy, so it can also be used to grow a deque of fixed capacity.
+     * @param minCapacity int, number of elements the array has to hold
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > items.length)
+            resize(powerOfTwoCapacity(minCapacity));
+    }
 
-        items = newArray;
-        nextFirst = newStartingIndex - 1;
-        nextLast = newStartingIndex + size;
+    /**
+     * Shrinks the array to the smallest power of two length, not smaller than 8, able to hold
+     * the stored elements, releasing the memory left over by a deque which is not going to grow again
+     */
+    public void trimToSize() {
+        int newCapacity = powerOfTwoCapacity(size);
+        if (newCapacity < items.length)
+            resize(newCapacity);
     }
 
     /**
@@ -142,8 +321,10 @@ public class ArrayDeque<T> implements Deque<T> {
     @Override
     public void addFirst(T item) {
         checkForExpand();
+        checkForCopyOnWrite();
         items[nextFirst] = item;
         size++;
+        modCount++;
         nextFirst = moveBackwards(nextFirst);
     }
 
@@ -154,8 +335,10 @@ public class ArrayDeque<T> implements Deque<T> {
     @Override
     public void addLast(T item) {
         checkForExpand();
+        checkForCopyOnWrite();
         items[nextLast] = item;
         size++;
+        modCount++;
         nextLast = moveForward(nextLast);
     }
 
@@ -174,12 +357,9 @@ public class ArrayDeque<T> implements Deque<T> {
     @Override
     public void printDeque() {
         int follower = moveForward(nextFirst);
-        while (follower != nextLast) {
+        for (int i = 0; i < size; i++) {
             System.out.print(items[follower] + " ");
-            if (follower + 1 > items.length - 1)
-                follower = 0;
-            else
-                follower++;
+            follower = moveForward(follower);
         }
         System.out.println();
     }
@@ -190,6 +370,10 @@ public class ArrayDeque<T> implements Deque<T> {
      */
     @Override
     public T removeFirst() {
+        if (size == 0)
+            return null;
+        checkForCopyOnWrite();
+
         // copy removed value into placeholder and free the space at removed index
         T valuePlaceholder = items[moveForward(nextFirst)];
         items[moveForward(nextFirst)] = null;
@@ -197,6 +381,7 @@ public class ArrayDeque<T> implements Deque<T> {
         // move nextFirst forward
         nextFirst = moveForward(nextFirst);
         size--;
+        modCount++;
 
         // check for shrinkArray
         checkForShrink();
@@ -210,6 +395,10 @@ public class ArrayDeque<T> implements Deque<T> {
      */
     @Override
     public T removeLast() {
+        if (size == 0)
+            return null;
+        checkForCopyOnWrite();
+
         // copy removed value into placeholder and free the space at removed index
         T valuePlaceholder = items[moveBackwards(nextLast)];
         items[moveBackwards(nextLast)] = null;
@@ -217,6 +406,7 @@ public class ArrayDeque<T> implements Deque<T> {
         // move nextFirst forward
         nextLast = moveBackwards(nextLast);
         size--;
+        modCount++;
 
         // check for shrinkArray
         checkForShrink();
@@ -231,23 +421,373 @@ public class ArrayDeque<T> implements Deque<T> {
      */
     @Override
     public T get(int index) {
-        if (size == 0 || index > size - 1)
+        if (index < 0 || index > size - 1)
             return null;
-        else if (moveForward(nextFirst) + index > items.length)
-            return items[(index + moveForward(nextFirst)) % items.length];
-        return items[moveForward(nextFirst) + index];
+        return items[(nextFirst + 1 + index) & (items.length - 1)];
+    }
+
+    /**
+     * {@inheritDoc}
+     * Expands the array at most once and copies the items with at most two System.arraycopy() calls.
+     * @param items T[], items added to the front of the deque
+     */
+    @Override
+    public void addAllFirst(T[] items) {
+        if (items.length == 0)
+            return;
+        checkForBulkExpand(items.length);
+        checkForCopyOnWrite();
+        int start = (nextFirst - items.length + 1) & (this.items.length - 1);
+        copyIn(items, start);
+        nextFirst = moveBackwards(start);
+        size += items.length;
+        modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Expands the array at most once and copies the items with at most two System.arraycopy() calls.
+     * @param items T[], items added to the end of the deque
+     */
+    @Override
+    public void addAllLast(T[] items) {
+        if (items.length == 0)
+            return;
+        checkForBulkExpand(items.length);
+        checkForCopyOnWrite();
+        copyIn(items, nextLast);
+        nextLast = (nextLast + items.length) & (this.items.length - 1);
+        size += items.length;
+        modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Copies the items with at most two System.arraycopy() calls and shrinks the array at most once.
+     * @param n int, maximum number of items to remove, not greater than the length of dest
+     * @param dest T[], array the removed items are stored in
+     * @return int, number of removed items, smaller than n if the deque held fewer items
+     */
+    @Override
+    public int removeFirst(int n, T[] dest) {
+        if (n < 0 || n > dest.length)
+            throw new IllegalArgumentException("Cannot remove " + n + " items into an array of length " + dest.length);
+        int count = Math.min(n, size);
+        if (count == 0)
+            return 0;
+        int start = moveForward(nextFirst);
+        copyOut(start, dest, count);
+        checkForCopyOnWrite();
+        clear(start, count);
+        nextFirst = (nextFirst + count) & (items.length - 1);
+        size -= count;
+        modCount++;
+        checkForBulkShrink();
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Copies the items with at most two System.arraycopy() calls and shrinks the array at most once.
+     * @param n int, maximum number of items to remove, not greater than the length of dest
+     * @param dest T[], array the removed items are stored in
+     * @return int, number of removed items, smaller than n if the deque held fewer items
+     */
+    @Override
+    public int removeLast(int n, T[] dest) {
+        if (n < 0 || n > dest.length)
+            throw new IllegalArgumentException("Cannot remove " + n + " items into an array of length " + dest.length);
+        int count = Math.min(n, size);
+        if (count == 0)
+            return 0;
+        int start = (nextLast - count) & (items.length - 1);
+        copyOut(start, dest, count);
+        checkForCopyOnWrite();
+        clear(start, count);
+        nextLast = start;
+        size -= count;
+        modCount++;
+        checkForBulkShrink();
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Copies the items with at most two System.arraycopy() calls.
+     * @return Object[] of the items of the deque
+     */
+    @Override
+    public Object[] toArray() {
+        Object[] result = new Object[size];
+        copyOut(moveForward(nextFirst), result, size);
+        return result;
+    }
+
+    /**
+     * Returns a read-only view of the current contents of the deque in O(1). The view shares
+     * the array of the deque, the next modification of the deque copies the array first,
+     * so the view never changes. A snapshot has to be taken by the thread modifying the deque,
+     * or under the same lock; the returned view can then be read by any thread.
+     * @return Deque, read-only view whose addition and removal methods throw UnsupportedOperationException
+     */
+    public Deque<T> snapshot() {
+        shared = true;
+        return new Snapshot<>(items, moveForward(nextFirst), size);
+    }
+
+    /**
+     * A class representing an immutable view of the elements of an ArrayDeque, in an array
+     * that the deque no longer modifies
+     * @param <T> generic type of stored data
+     */
+    private static final class Snapshot<T> implements Deque<T> {
+        private final T[] items;
+        private final int first;
+        private final int size;
+
+        private Snapshot(T[] items, int first, int size) {
+            this.items = items;
+            this.first = first;
+            this.size = size;
+        }
+
+        @Override
+        public void addFirst(T item) {
+            throw new UnsupportedOperationException("ArrayDeque snapshot is read-only");
+        }
+
+        @Override
+        public void addLast(T item) {
+            throw new UnsupportedOperationException("ArrayDeque snapshot is read-only");
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void printDeque() {
+            for (int i = 0; i < size; i++)
+                System.out.print(get(i) + " ");
+            System.out.println();
+        }
+
+        @Override
+        public T removeFirst() {
+            throw new UnsupportedOperationException("ArrayDeque snapshot is read-only");
+        }
+
+        @Override
+        public T removeLast() {
+            throw new UnsupportedOperationException("ArrayDeque snapshot is read-only");
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index > size - 1)
+                return null;
+            return items[(first + index) & (items.length - 1)];
+        }
+
+        @Override
+        public Object[] toArray() {
+            Object[] result = new Object[size];
+            int firstPart = Math.min(size, items.length - first);
+            System.arraycopy(items, first, result, 0, firstPart);
+            System.arraycopy(items, 0, result, firstPart, size - firstPart);
+            return result;
+        }
+
+        @Override
+        public Spliterator<T> spliterator() {
+            return new SnapshotSpliterator(0, size);
+        }
+
+        /**
+         * A class representing a spliterator over a range of indices of the snapshot, [index, fence),
+         * splitting the range in halves without copying the array
+         */
+        private final class SnapshotSpliterator implements Spliterator<T> {
+            private int index;
+            private final int fence;
+
+            private SnapshotSpliterator(int index, int fence) {
+                this.index = index;
+                this.fence = fence;
+            }
+
+            @Override
+            public Spliterator<T> trySplit() {
+                int middle = (index + fence) >>> 1;
+                if (middle <= index)
+                    return null;
+                Spliterator<T> prefix = new SnapshotSpliterator(index, middle);
+                index = middle;
+                return prefix;
+            }
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (action == null)
+                    throw new NullPointerException();
+                if (index >= fence)
+                    return false;
+                action.accept(items[(first + index++) & (items.length - 1)]);
+                return true;
+            }
+
+            @Override
+            public long estimateSize() {
+                return fence - index;
+            }
+
+            @Override
+            public int characteristics() {
+                return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.IMMUTABLE;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The iterator is fail-fast.
+     * @return Iterator over the deque, from the front to the back
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new DequeIterator(false);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The iterator is fail-fast.
+     * @return Iterator over the deque, from the back to the front
+     */
+    @Override
+    public Iterator<T> descendingIterator() {
+        return new DequeIterator(true);
     }
 
     /**
-     * Creates a deep copy of other
+     * {@inheritDoc}
+     * The spliterator is SIZED, SUBSIZED and ORDERED and splits the range of indices it covers in halves.
+     * @return Spliterator over the deque
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return new DequeSpliterator(0, size, modCount);
+    }
+
+    /**
+     * A class representing a fail-fast iterator walking the circular array in either direction
+     */
+    private final class DequeIterator implements Iterator<T> {
+        private final boolean descending;
+        private int remaining = size;
+        private int cursor;
+        private final int expectedModCount = modCount;
+
+        private DequeIterator(boolean descending) {
+            this.descending = descending;
+            cursor = descending ? moveBackwards(nextLast) : moveForward(nextFirst);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (remaining == 0)
+                throw new NoSuchElementException();
+            T item = items[cursor];
+            cursor = descending ? moveBackwards(cursor) : moveForward(cursor);
+            remaining--;
+            return item;
+        }
+    }
+
+    /**
+     * A class representing a spliterator over a range of indices of the deque, [index, fence).
+     * Splitting hands the first half of the range to a new spliterator. Modifications of the deque
+     * are detected after a traversal, like in the spliterators of the JDK collections.
+     */
+    private final class DequeSpliterator implements Spliterator<T> {
+        private int index;
+        private final int fence;
+        private final int expectedModCount;
+
+        private DequeSpliterator(int index, int fence, int expectedModCount) {
+            this.index = index;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            int middle = (index + fence) >>> 1;
+            if (middle <= index)
+                return null;
+            Spliterator<T> prefix = new DequeSpliterator(index, middle, expectedModCount);
+            index = middle;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (action == null)
+                throw new NullPointerException();
+            if (index >= fence)
+                return false;
+            T item = items[(nextFirst + 1 + index++) & (items.length - 1)];
+            action.accept(item);
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            if (action == null)
+                throw new NullPointerException();
+            T[] array = items;
+            int mask = array.length - 1;
+            int start = nextFirst + 1;
+            for (int i = index; i < fence; i++)
+                action.accept(array[(start + i) & mask]);
+            index = fence;
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+
+    /**
+     * Creates a deep copy of other, with the same capacity and resized according to the same policy
+     * as other, so a copy of a fixed-capacity deque holds as many elements as the original.
+     * Allocates one array and copies the elements straight from the array of other,
+     * with at most two System.arraycopy() calls.
      * @param other object to be copied
      */
     public ArrayDeque(ArrayDeque other) {
-        items = (T[]) new Object[other.size()];
-        size = 0;
-
-        for (int i = 0; i < other.size(); i++)
-            addLast((T) other.get(i));
+        this(other.capacity(), other.policy);
+        other.copyOut(other.moveForward(other.nextFirst), items, other.size);
+        size = other.size;
+        nextFirst = items.length - 1;
+        nextLast = size & (items.length - 1);
     }
 
 }
@@ -0,0 +1,697 @@
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A class representing a bounded, thread-safe circular array implementation of double-ended queue.
+ * The array is allocated once with a fixed capacity and never resized. Threads adding to a full
+ * deque with putFirst()/putLast() wait until there is space, threads removing from an empty deque
+ * with takeFirst()/takeLast() wait until there is an item, which gives back-pressure between
+ * producer and consumer threads. All operations are guarded by a single lock.
+ * The batch operations drainTo(), putAllLast(), addAllFirst(), addAllLast() and the bulk removeFirst()
+ * and removeLast() move many items with one lock acquisition and one or two System.arraycopy() calls,
+ * two when the items wrap around the end of the array. The batch adds are all-or-nothing.
+ * Iterators and spliterators work on a copy of the items taken with one lock acquisition,
+ * so they never block other threads and never see later modifications.
+ * Null items are not permitted.
+ * @param <T> generic type of stored data
+ */
+public class BlockingArrayDeque<T> implements Deque<T> {
+    private final T[] items;
+    private int first;
+    private int size;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    /**
+     * Constructor creating an empty BlockingArrayDeque of a fixed capacity
+     * @param capacity int, maximum number of items stored in the deque, at least 1
+     */
+    @SuppressWarnings("unchecked")
+    public BlockingArrayDeque(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        items = (T[]) new Object[capacity];
+    }
+
+    /**
+     * Translates an index of the deque into a position in the array
+     * @param index int, index of the deque, 0 is the front
+     * @return int, position of the item in the array
+     */
+    private int position(int index) {
+        int position = first + index;
+        return position >= items.length ? position - items.length : position;
+    }
+
+    /**
+     * Inserts an item at the front, the lock must be held and the deque must not be full
+     * @param item an item of type T
+     */
+    private void insertFirst(T item) {
+        first = first == 0 ? items.length - 1 : first - 1;
+        items[first] = item;
+        size++;
+        notEmpty.signal();
+    }
+
+    /**
+     * Inserts an item at the back, the lock must be held and the deque must not be full
+     * @param item an item of type T
+     */
+    private void insertLast(T item) {
+        items[position(size)] = item;
+        size++;
+        notEmpty.signal();
+    }
+
+    /**
+     * Extracts the item at the front, the lock must be held and the deque must not be empty
+     * @return removed element of a given generic type
+     */
+    private T extractFirst() {
+        T item = items[first];
+        items[first] = null;
+        first = position(1);
+        size--;
+        notFull.signal();
+        return item;
+    }
+
+    /**
+     * Extracts the item at the back, the lock must be held and the deque must not be empty
+     * @return removed element of a given generic type
+     */
+    private T extractLast() {
+        int last = position(size - 1);
+        T item = items[last];
+        items[last] = null;
+        size--;
+        notFull.signal();
+        return item;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param item an item of type T added to the front of the deque
+     * @throws IllegalStateException if the deque is full
+     * @throws NullPointerException if item is null
+     */
+    @Override
+    public void addFirst(T item) {
+        checkNotNull(item);
+        lock.lock();
+        try {
+            if (size == items.length)
+                throw new IllegalStateException("Deque full");
+            insertFirst(item);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param item an item of type T added to the end of the deque
+     * @throws IllegalStateException if the deque is full
+     * @throws NullPointerException if item is null
+     */
+    @Override
+    public void addLast(T item) {
+        checkNotNull(item);
+        lock.lock();
+        try {
+            if (size == items.length)
+                throw new IllegalStateException("Deque full");
+            insertLast(item);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds an item to the front of the deque, waiting for space if the deque is full
+     * @param item an item of type T added to the front of the deque
+     * @throws InterruptedException if interrupted while waiting
+     * @throws NullPointerException if item is null
+     */
+    public void putFirst(T item) throws InterruptedException {
+        checkNotNull(item);
+        lock.lockInterruptibly();
+        try {
+            while (size == items.length)
+                notFull.await();
+            insertFirst(item);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds an item to the back of the deque, waiting for space if the deque is full
+     * @param item an item of type T added to the end of the deque
+     * @throws InterruptedException if interrupted while waiting
+     * @throws NullPointerException if item is null
+     */
+    public void putLast(T item) throws InterruptedException {
+        checkNotNull(item);
+        lock.lockInterruptibly();
+        try {
+            while (size == items.length)
+                notFull.await();
+            insertLast(item);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds an item to the front of the deque, waiting up to a given time for space if the deque is full
+     * @param item an item of type T added to the front of the deque
+     * @param timeout long, maximum time to wait
+     * @param unit TimeUnit, unit of the timeout
+     * @return true if the item was added, false if the time elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     * @throws NullPointerException if item is null
+     */
+    public boolean offerFirst(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        checkNotNull(item);
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (size == items.length) {
+                if (nanos <= 0)
+                    return false;
+                nanos = notFull.awaitNanos(nanos);
+            }
+            insertFirst(item);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds an item to the back of the deque, waiting up to a given time for space if the deque is full
+     * @param item an item of type T added to the end of the deque
+     * @param timeout long, maximum time to wait
+     * @param unit TimeUnit, unit of the timeout
+     * @return true if the item was added, false if the time elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     * @throws NullPointerException if item is null
+     */
+    public boolean offerLast(T item, long timeout, TimeUnit unit) throws InterruptedException {
+        checkNotNull(item);
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (size == items.length) {
+                if (nanos <= 0)
+                    return false;
+                nanos = notFull.awaitNanos(nanos);
+            }
+            insertLast(item);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Does not wait for space: either all items are added with one lock acquisition and one or two
+     * System.arraycopy() calls, or none of them is.
+     * @param src T[], items added to the end of the deque, none of them null
+     * @throws IllegalStateException if the items do not fit in the remaining capacity
+     * @throws NullPointerException if src or any of its items is null
+     */
+    @Override
+    public void addAllLast(T[] src) {
+        for (T item : src)
+            checkNotNull(item);
+        lock.lock();
+        try {
+            if (src.length > items.length - size)
+                throw new IllegalStateException("Deque full, cannot add " + src.length + " items");
+            int start = position(size);
+            int firstPart = Math.min(src.length, items.length - start);
+            System.arraycopy(src, 0, items, start, firstPart);
+            System.arraycopy(src, firstPart, items, 0, src.length - firstPart);
+            size += src.length;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Does not wait for space: either all items are added with one lock acquisition and one or two
+     * System.arraycopy() calls, or none of them is.
+     * @param src T[], items added to the front of the deque, none of them null
+     * @throws IllegalStateException if the items do not fit in the remaining capacity
+     * @throws NullPointerException if src or any of its items is null
+     */
+    @Override
+    public void addAllFirst(T[] src) {
+        for (T item : src)
+            checkNotNull(item);
+        lock.lock();
+        try {
+            if (src.length > items.length - size)
+                throw new IllegalStateException("Deque full, cannot add " + src.length + " items");
+            int start = first - src.length;
+            if (start < 0)
+                start += items.length;
+            int firstPart = Math.min(src.length, items.length - start);
+            System.arraycopy(src, 0, items, start, firstPart);
+            System.arraycopy(src, firstPart, items, 0, src.length - firstPart);
+            first = start;
+            size += src.length;
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Copies the collection first, then adds all of its items with one lock acquisition or none of them.
+     * @param src Collection, items added to the front of the deque, none of them null
+     * @throws IllegalStateException if the items do not fit in the remaining capacity
+     * @throws NullPointerException if src or any of its items is null
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void addAllFirst(Collection<? extends T> src) {
+        addAllFirst((T[]) src.toArray());
+    }
+
+    /**
+     * {@inheritDoc}
+     * Copies the collection first, then adds all of its items with one lock acquisition or none of them.
+     * @param src Collection, items added to the end of the deque, none of them null
+     * @throws IllegalStateException if the items do not fit in the remaining capacity
+     * @throws NullPointerException if src or any of its items is null
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void addAllLast(Collection<? extends T> src) {
+        addAllLast((T[]) src.toArray());
+    }
+
+    /**
+     * Adds all items of an array to the back of the deque, in array order. Copies as many items
+     * as fit with one or two System.arraycopy() calls and waits for space only when the deque
+     * gets full, so a batch that fits is added with a single lock acquisition.
+     * @param src T[], items to be added, none of them null
+     * @throws InterruptedException if interrupted while waiting, some of the items may have been added
+     * @throws NullPointerException if src or any of its items is null
+     */
+    public void putAllLast(T[] src) throws InterruptedException {
+        for (T item : src)
+            checkNotNull(item);
+        int added = 0;
+        lock.lockInterruptibly();
+        try {
+            while (added < src.length) {
+                while (size == items.length)
+                    notFull.await();
+                int count = Math.min(src.length - added, items.length - size);
+                int start = position(size);
+                int firstPart = Math.min(count, items.length - start);
+                System.arraycopy(src, added, items, start, firstPart);
+                System.arraycopy(src, added + firstPart, items, 0, count - firstPart);
+                size += count;
+                added += count;
+                notEmpty.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all items from the deque and adds them to a given collection
+     * @param c Collection, collection the items are transferred to
+     * @return int, number of items transferred
+     * @see #drainTo(Collection, int)
+     */
+    public int drainTo(Collection<? super T> c) {
+        return drainTo(c, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Removes at most a given number of items from the front of the deque and adds them to
+     * a given collection, in deque order. The items are copied out with one lock acquisition and
+     * at most two System.arraycopy() calls, and added to the collection after the lock is released,
+     * so a slow collection does not block producers. If adding to the collection fails,
+     * the items not yet added are lost.
+     * @param c Collection, collection the items are transferred to
+     * @param maxItems int, maximum number of items to transfer
+     * @return int, number of items transferred
+     */
+    @SuppressWarnings("unchecked")
+    public int drainTo(Collection<? super T> c, int maxItems) {
+        if (c == null)
+            throw new NullPointerException();
+        T[] batch;
+        lock.lock();
+        try {
+            int count = Math.min(size, maxItems);
+            if (count <= 0)
+                return 0;
+            batch = (T[]) new Object[count];
+            int firstPart = Math.min(count, items.length - first);
+            System.arraycopy(items, first, batch, 0, firstPart);
+            System.arraycopy(items, 0, batch, firstPart, count - firstPart);
+            Arrays.fill(items, first, first + firstPart, null);
+            Arrays.fill(items, 0, count - firstPart, null);
+            first = position(count);
+            size -= count;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        c.addAll(Arrays.asList(batch));
+        return batch.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return int, number of items in the deque
+     */
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of items that can be added without waiting
+     * @return int, capacity minus the number of items in the deque
+     */
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return items.length - size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void printDeque() {
+        lock.lock();
+        try {
+            for (int i = 0; i < size; i++)
+                System.out.print(items[position(i)] + " ");
+            System.out.println();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Does not wait for an item.
+     * @return removed element of a given generic type, null if no such item exists
+     */
+    @Override
+    public T removeFirst() {
+        lock.lock();
+        try {
+            return size == 0 ? null : extractFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Does not wait for an item.
+     * @return removed element of a given generic type, null if no such item exists
+     */
+    @Override
+    public T removeLast() {
+        lock.lock();
+        try {
+            return size == 0 ? null : extractLast();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Does not wait for items: removes the items present with one lock acquisition and
+     * at most two System.arraycopy() calls.
+     * @param n int, maximum number of items to remove, not greater than the length of dest
+     * @param dest T[], array the removed items are stored in
+     * @return int, number of removed items, smaller than n if the deque held fewer items
+     */
+    @Override
+    public int removeFirst(int n, T[] dest) {
+        checkBulkRemove(n, dest);
+        lock.lock();
+        try {
+            int count = Math.min(n, size);
+            if (count == 0)
+                return 0;
+            int firstPart = Math.min(count, items.length - first);
+            System.arraycopy(items, first, dest, 0, firstPart);
+            System.arraycopy(items, 0, dest, firstPart, count - firstPart);
+            Arrays.fill(items, first, first + firstPart, null);
+            Arrays.fill(items, 0, count - firstPart, null);
+            first = position(count);
+            size -= count;
+            notFull.signalAll();
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Does not wait for items: removes the items present with one lock acquisition and
+     * at most two System.arraycopy() calls.
+     * @param n int, maximum number of items to remove, not greater than the length of dest
+     * @param dest T[], array the removed items are stored in
+     * @return int, number of removed items, smaller than n if the deque held fewer items
+     */
+    @Override
+    public int removeLast(int n, T[] dest) {
+        checkBulkRemove(n, dest);
+        lock.lock();
+        try {
+            int count = Math.min(n, size);
+            if (count == 0)
+                return 0;
+            int start = position(size - count);
+            int firstPart = Math.min(count, items.length - start);
+            System.arraycopy(items, start, dest, 0, firstPart);
+            System.arraycopy(items, 0, dest, firstPart, count - firstPart);
+            Arrays.fill(items, start, start + firstPart, null);
+            Arrays.fill(items, 0, count - firstPart, null);
+            size -= count;
+            notFull.signalAll();
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the item at the front of the deque, waiting for one if the deque is empty
+     * @return removed element of a given generic type
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public T takeFirst() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (size == 0)
+                notEmpty.await();
+            return extractFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the item at the back of the deque, waiting for one if the deque is empty
+     * @return removed element of a given generic type
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public T takeLast() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (size == 0)
+                notEmpty.await();
+            return extractLast();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the item at the front of the deque, waiting up to a given time
+     * for one if the deque is empty
+     * @param timeout long, maximum time to wait
+     * @param unit TimeUnit, unit of the timeout
+     * @return removed element of a given generic type, null if the time elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public T pollFirst(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                if (nanos <= 0)
+                    return null;
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return extractFirst();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the item at the back of the deque, waiting up to a given time
+     * for one if the deque is empty
+     * @param timeout long, maximum time to wait
+     * @param unit TimeUnit, unit of the timeout
+     * @return removed element of a given generic type, null if the time elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public T pollLast(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (size == 0) {
+                if (nanos <= 0)
+                    return null;
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return extractLast();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param index int, a required index of the deque
+     * @return element of a generic type found at the required index in the deque
+     */
+    @Override
+    public T get(int index) {
+        lock.lock();
+        try {
+            if (index < 0 || index >= size)
+                return null;
+            return items[position(index)];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copies the items of the deque, in deque order, into a new array with one lock acquisition
+     * @return array of the items of the deque
+     */
+    @SuppressWarnings("unchecked")
+    private T[] copyItems() {
+        lock.lock();
+        try {
+            T[] copy = (T[]) new Object[size];
+            int firstPart = Math.min(size, items.length - first);
+            System.arraycopy(items, first, copy, 0, firstPart);
+            System.arraycopy(items, 0, copy, firstPart, size - firstPart);
+            return copy;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Copies the items with one lock acquisition.
+     * @return Object[] of the items of the deque
+     */
+    @Override
+    public Object[] toArray() {
+        return copyItems();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The iterator works on a copy of the items taken when it was created.
+     * @return Iterator over the deque, from the front to the back
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return Arrays.asList(copyItems()).iterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The iterator works on a copy of the items taken when it was created.
+     * @return Iterator over the deque, from the back to the front
+     */
+    @Override
+    public Iterator<T> descendingIterator() {
+        T[] copy = copyItems();
+        for (int i = 0, j = copy.length - 1; i < j; i++, j--) {
+            T item = copy[i];
+            copy[i] = copy[j];
+            copy[j] = item;
+        }
+        return Arrays.asList(copy).iterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The spliterator works on a copy of the items taken when it was created and splits it by index.
+     * @return Spliterator over the deque
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(copyItems(), Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Checks the arguments of removeFirst(int, T[]) and removeLast(int, T[])
+     * @param n int, maximum number of items to remove
+     * @param dest T[], array the removed items are stored in
+     */
+    private static void checkBulkRemove(int n, Object[] dest) {
+        if (n < 0 || n > dest.length)
+            throw new IllegalArgumentException("Cannot remove " + n + " items into an array of length " + dest.length);
+    }
+
+    /**
+     * Rejects null items, which would be indistinguishable from the null returned
+     * by removeFirst() and removeLast() of an empty deque
+     * @param item an item of type T
+     */
+    private static void checkNotNull(Object item) {
+        if (item == null)
+            throw new NullPointerException("BlockingArrayDeque does not permit null items");
+    }
+}
@@ -0,0 +1,38 @@
+/**
+ * A class using CodePointComparator to check whether two code points are the same letter
+ * regardless of case (e.g. 'a' and 'A'). Code points are folded the same way
+ * String.equalsIgnoreCase() folds chars, to upper case and back to lower case, one pair at a time
+ * while comparing, so no lower-cased copy of the word is needed.
+ */
+public class CaseInsensitiveComparator implements CodePointComparator {
+
+    /**
+     * {@inheritDoc}
+     * @param x int, Unicode code point
+     * @param y int, Unicode code point
+     * @return true if code points x and y are the same letter regardless of case, false otherwise
+     */
+    @Override
+    public boolean equalCodePoints(int x, int y) {
+        return x == y || fold(x) == fold(y);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Folding case maps every code point to one key, so it is an equivalence relation.
+     * @return true
+     */
+    @Override
+    public boolean isEquivalence() {
+        return true;
+    }
+
+    /**
+     * Folds the case of a code point
+     * @param codePoint int, Unicode code point
+     * @return int, the code point in upper case and then in lower case
+     */
+    static int fold(int codePoint) {
+        return Character.toLowerCase(Character.toUpperCase(codePoint));
+    }
+}
@@ -0,0 +1,186 @@
+import java.util.NoSuchElementException;
+
+/**
+ * A class representing a circular array implementation of double-ended queue storing primitive
+ * char values. Follows the same layout and resizing rules as ArrayDeque, but keeps the values
+ * in an char[] instead of boxing them, so adding and removing elements allocates nothing
+ * apart from an occasional resize. As in ArrayDeque the length of the array is always a power of two.
+ * @see ArrayDeque
+ */
+public class CharArrayDeque {
+    private char[] items;
+    private int size;
+    private int nextFirst = 4;
+    private int nextLast = 5;
+    private static final int RFACTOR = 2;
+    private static final int STARTING_SIZE = 8;
+
+    /**
+     * Constructor creating an empty CharArrayDeque
+     */
+    public CharArrayDeque() {
+        items = new char[STARTING_SIZE];
+        size = 0;
+    }
+
+    /**
+     * Moves a pointer one position to the left, from position zero to the end of the array
+     * @param thisFirst int, index of an array
+     * @return int, index of an array one place to the left
+     */
+    private int moveBackwards(int thisFirst) {
+        return (thisFirst - 1) & (items.length - 1);
+    }
+
+    /**
+     * Moves a pointer one position to the right, from the end of the array to position zero
+     * @param thisLast int, index of an array
+     * @return int, index of an array one place to the right
+     */
+    private int moveForward(int thisLast) {
+        return (thisLast + 1) & (items.length - 1);
+    }
+
+    /**
+     * Doubles the length of the array if adding the next element would not fit in it
+     * @see #resize(int)
+     */
+    private void checkForExpand() {
+        if (size + 1 > items.length)
+            resize(items.length * RFACTOR);
+    }
+
+    /**
+     * Halves the length of the array if less than a quarter of it is used.
+     * Executes only for arrays of length greater than 16.
+     * @see #resize(int)
+     */
+    private void checkForShrink() {
+        if (items.length > 16 && size < items.length / 4)
+            resize(items.length / 2);
+    }
+
+    /**
+     * Copies the elements into a new array of a given length, starting a quarter of the way in,
+     * and updates the pointers for next first and last values to be inserted
+     * @param capacity int, length of the new array, not smaller than size
+     */
+    private void resize(int capacity) {
+        char[] newArray = new char[capacity];
+        int newStartingIndex = capacity / 4;
+        int indexFirstValue = moveForward(nextFirst);
+        int firstPart = Math.min(size, items.length - indexFirstValue);
+
+        // copy the part from the first element to the end of the array, then the wrapped part
+        System.arraycopy(items, indexFirstValue, newArray, newStartingIndex, firstPart);
+        System.arraycopy(items, 0, newArray, newStartingIndex + firstPart, size - firstPart);
+
+        items = newArray;
+        nextFirst = newStartingIndex - 1;
+        nextLast = newStartingIndex + size;
+    }
+
+    /**
+     * Adds a value to the front of the deque
+     * @param item char value added to the front of the deque
+     */
+    public void addFirst(char item) {
+        checkForExpand();
+        items[nextFirst] = item;
+        size++;
+        nextFirst = moveBackwards(nextFirst);
+    }
+
+    /**
+     * Adds a value to the back of the deque
+     * @param item char value added to the end of the deque
+     */
+    public void addLast(char item) {
+        checkForExpand();
+        items[nextLast] = item;
+        size++;
+        nextLast = moveForward(nextLast);
+    }
+
+    /**
+     * Removes all values from the deque, keeping the array, so the deque can be refilled
+     * up to its previous size without allocating
+     */
+    public void clear() {
+        size = 0;
+        nextFirst = items.length / 2 - 1;
+        nextLast = items.length / 2;
+    }
+
+    /**
+     * Checks whether the deque is empty
+     * @return true if deque is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the number of values in the deque
+     * @return int >= 0, cached size of the deque stored in the instance variable "size"
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Prints the values in the deque from first to last, separated by a space.
+     * Once all the values have been printed, prints out a new line.
+     */
+    public void printDeque() {
+        int follower = moveForward(nextFirst);
+        for (int i = 0; i < size; i++) {
+            System.out.print(items[follower] + " ");
+            follower = moveForward(follower);
+        }
+        System.out.println();
+    }
+
+    /**
+     * Removes and returns the value at the front of the deque
+     * @return removed char value
+     * @throws NoSuchElementException if the deque is empty
+     */
+    public char removeFirst() {
+        if (size == 0)
+            throw new NoSuchElementException("Deque is empty");
+        nextFirst = moveForward(nextFirst);
+        char value = items[nextFirst];
+        size--;
+        checkForShrink();
+        return value;
+    }
+
+    /**
+     * Removes and returns the value at the back of the deque
+     * @return removed char value
+     * @throws NoSuchElementException if the deque is empty
+     */
+    public char removeLast() {
+        if (size == 0)
+            throw new NoSuchElementException("Deque is empty");
+        nextLast = moveBackwards(nextLast);
+        char value = items[nextLast];
+        size--;
+        checkForShrink();
+        return value;
+    }
+
+    /**
+     * Gets the value at the given index, where 0 is the front, 1 is the next value, and so forth.
+     * Does not alter the deque
+     * @param index int, a required index of the deque
+     * @return char value found at the required index in the deque
+     * @throws IndexOutOfBoundsException if index is negative or not smaller than size
+     */
+    public char get(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        return items[(nextFirst + 1 + index) & (items.length - 1)];
+    }
+}
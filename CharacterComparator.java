@@ -7,4 +7,47 @@ public interface CharacterComparator {
      * @return true if characters are equal by the rules of the implementing class, false otherwise
      */
     boolean equalChars(char x, char y);
+
+    /**
+     * Checks whether a range of characters is an off-palindrome by the rules of the implementing class,
+     * comparing characters from both ends of the range once, moving towards the middle.
+     * The middle character of a range of odd length is not compared. Implementing classes override
+     * it with a loop of their own, so checking a whole word takes a single interface call.
+     * @param chars char[] holding the range
+     * @param from int, index of the first character of the range
+     * @param to int, index after the last character of the range
+     * @return true if every pair of mirrored characters is equal by the rules of the implementing class
+     */
+    default boolean matchesMirrored(char[] chars, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--)
+            if (!equalChars(chars[i], chars[j]))
+                return false;
+        return true;
+    }
+
+    /**
+     * Checks whether a range of characters is an off-palindrome by the rules of the implementing class,
+     * as matchesMirrored(char[], int, int) does for an array
+     * @param chars CharSequence holding the range
+     * @param from int, index of the first character of the range
+     * @param to int, index after the last character of the range
+     * @return true if every pair of mirrored characters is equal by the rules of the implementing class
+     */
+    default boolean matchesMirrored(CharSequence chars, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--)
+            if (!equalChars(chars.charAt(i), chars.charAt(j)))
+                return false;
+        return true;
+    }
+
+    /**
+     * Tells whether the comparator is an equivalence relation: reflexive, symmetric and transitive.
+     * Only then a match found on one side of a palindrome also holds mirrored on its other side,
+     * which PalindromicSubstrings relies on to find palindromic substrings in linear time.
+     * Other comparators, such as OffByOne, are checked by expanding around every center.
+     * @return true if the comparator is an equivalence relation, false otherwise
+     */
+    default boolean isEquivalence() {
+        return false;
+    }
 }
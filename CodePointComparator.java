@@ -0,0 +1,90 @@
+import java.nio.CharBuffer;
+
+/**
+ * This interface defines a method for determining equality of Unicode code points.
+ * Characters outside of the Basic Multilingual Plane take two chars in UTF-16, a surrogate pair,
+ * so comparing chars one by one compares halves of them, and reading a word backwards splits the pair.
+ * Mirrored ranges are checked by walking code points from both ends instead, reading a surrogate pair
+ * as a whole from either direction, without copying the word into an int[] of code points.
+ * Code points the comparator finds ignorable, such as combining accents, are skipped on both ends.
+ * A CodePointComparator is also a CharacterComparator, comparing single chars as code points.
+ */
+@FunctionalInterface
+public interface CodePointComparator extends CharacterComparator {
+    /**
+     * Checks whether the code points are equal by the rules of the implementing class.
+     * @param x int, Unicode code point
+     * @param y int, Unicode code point
+     * @return true if code points are equal by the rules of the implementing class, false otherwise
+     */
+    boolean equalCodePoints(int x, int y);
+
+    /**
+     * Checks whether a code point is left out of comparisons, as if it were not in the word at all
+     * @param codePoint int, Unicode code point
+     * @return true if the code point is skipped, false otherwise
+     */
+    default boolean isIgnorable(int codePoint) {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param x char, compared as a code point
+     * @param y char, compared as a code point
+     * @return true if characters are equal by the rules of the implementing class, false otherwise
+     */
+    @Override
+    default boolean equalChars(char x, char y) {
+        return equalCodePoints(x, y);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Walks code points from both ends, skipping ignorable ones, so surrogate pairs are compared whole.
+     * The middle code point of an odd number of code points is not compared.
+     * @param chars char[] holding the range
+     * @param from int, index of the first character of the range
+     * @param to int, index after the last character of the range
+     * @return true if every pair of mirrored code points is equal by the rules of the implementing class
+     */
+    @Override
+    default boolean matchesMirrored(char[] chars, int from, int to) {
+        return matchesMirrored(CharBuffer.wrap(chars), from, to);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Walks code points from both ends, skipping ignorable ones, so surrogate pairs are compared whole.
+     * The middle code point of an odd number of code points is not compared.
+     * @param chars CharSequence holding the range
+     * @param from int, index of the first character of the range
+     * @param to int, index after the last character of the range
+     * @return true if every pair of mirrored code points is equal by the rules of the implementing class
+     */
+    @Override
+    default boolean matchesMirrored(CharSequence chars, int from, int to) {
+        int i = from;
+        int j = to;
+        while (i < j) {
+            int x = Character.codePointAt(chars, i);
+            if (isIgnorable(x)) {
+                i += Character.charCount(x);
+                continue;
+            }
+            int y = Character.codePointBefore(chars, j);
+            if (isIgnorable(y)) {
+                j -= Character.charCount(y);
+                continue;
+            }
+            // x is the middle code point
+            if (i + Character.charCount(x) >= j)
+                return true;
+            if (!equalCodePoints(x, y))
+                return false;
+            i += Character.charCount(x);
+            j -= Character.charCount(y);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,388 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A class representing a lock-free, thread-safe implementation of double-ended queue.
+ * Like LinkedListDeque it is a doubly linked list whose both ends are tracked by a single
+ * object, but the sentinel node is replaced by an immutable anchor holding the first node,
+ * the last node and a status. Every operation takes effect with one compare-and-set of the anchor
+ * (M. M. Michael, "CAS-Based Lock-Free Algorithm for Shared Deques", 2003):
+ * 1. removing an item swings the anchor to the neighbour of the removed node, then unlinks the
+ *    neighbour from the removed node, so removed nodes are never reachable from the deque
+ * 2. adding an item swings the anchor to the new node and marks it as unstable,
+ *    meaning the old end node is not yet linked to the new one
+ * 3. any thread finding an unstable anchor links the nodes and marks the anchor stable
+ *    before retrying its own operation, so no thread ever waits for another one
+ * Null items are not permitted. size(), get(), printDeque() and iterators are weakly consistent:
+ * they reflect the state of the deque at some point during the call, and may miss
+ * concurrent modifications.
+ * @param <T> generic type of stored data
+ */
+public class ConcurrentLinkedListDeque<T> implements Deque<T> {
+
+    private static final int STABLE = 0;
+    private static final int PUSHING_FIRST = 1;
+    private static final int PUSHING_LAST = 2;
+
+    /** A class representing a single node in the deque data structure */
+    private static final class Node<T> {
+        volatile Node<T> previous;
+        final T item;
+        volatile Node<T> next;
+
+        private Node(T i) {
+            item = i;
+        }
+    }
+
+    /** An immutable snapshot of both ends of the deque, replaced as a whole by compare-and-set */
+    private static final class Anchor<T> {
+        final Node<T> first;
+        final Node<T> last;
+        final int status;
+
+        private Anchor(Node<T> f, Node<T> l, int s) {
+            first = f;
+            last = l;
+            status = s;
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Node, Node> PREVIOUS =
+            AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "previous");
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<Node, Node> NEXT =
+            AtomicReferenceFieldUpdater.newUpdater(Node.class, Node.class, "next");
+
+    private final AtomicReference<Anchor<T>> anchor;
+    private final AtomicInteger size;
+
+    /**
+     * Constructor creating an empty ConcurrentLinkedListDeque
+     */
+    public ConcurrentLinkedListDeque() {
+        anchor = new AtomicReference<>(new Anchor<>(null, null, STABLE));
+        size = new AtomicInteger();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param item an item of type T added to the front of the deque
+     * @throws NullPointerException if item is null
+     */
+    @Override
+    public void addFirst(T item) {
+        Node<T> node = newNode(item);
+        while (true) {
+            Anchor<T> a = anchor.get();
+            if (a.first == null) {
+                if (anchor.compareAndSet(a, new Anchor<>(node, node, STABLE)))
+                    break;
+            } else if (a.status == STABLE) {
+                node.next = a.first;
+                Anchor<T> pushed = new Anchor<>(node, a.last, PUSHING_FIRST);
+                if (anchor.compareAndSet(a, pushed)) {
+                    stabilizeFirst(pushed);
+                    break;
+                }
+            } else {
+                stabilize(a);
+            }
+        }
+        size.incrementAndGet();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param item an item of type T added to the end of the deque
+     * @throws NullPointerException if item is null
+     */
+    @Override
+    public void addLast(T item) {
+        Node<T> node = newNode(item);
+        while (true) {
+            Anchor<T> a = anchor.get();
+            if (a.last == null) {
+                if (anchor.compareAndSet(a, new Anchor<>(node, node, STABLE)))
+                    break;
+            } else if (a.status == STABLE) {
+                node.previous = a.last;
+                Anchor<T> pushed = new Anchor<>(a.first, node, PUSHING_LAST);
+                if (anchor.compareAndSet(a, pushed)) {
+                    stabilizeLast(pushed);
+                    break;
+                }
+            } else {
+                stabilize(a);
+            }
+        }
+        size.incrementAndGet();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return int, number of items in the deque at some point during the call
+     */
+    @Override
+    public int size() {
+        // additions and removals update the counter after taking effect, so a removal
+        // may briefly be counted before the addition of the same item
+        return Math.max(0, size.get());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void printDeque() {
+        Anchor<T> a = anchor.get();
+        Node<T> p = a.first;
+        while (p != null) {
+            System.out.print(p.item + " ");
+            p = p == a.last ? null : successor(a, p);
+        }
+        System.out.println();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return removed element of a given generic type, null if no such item exists
+     */
+    @Override
+    public T removeFirst() {
+        Node<T> removed;
+        while (true) {
+            Anchor<T> a = anchor.get();
+            if (a.first == null)
+                return null;
+            if (a.first == a.last) {
+                if (anchor.compareAndSet(a, new Anchor<>(null, null, STABLE))) {
+                    removed = a.first;
+                    break;
+                }
+            } else if (a.status == STABLE) {
+                Node<T> newFirst = a.first.next;
+                if (anchor.compareAndSet(a, new Anchor<>(newFirst, a.last, STABLE))) {
+                    removed = a.first;
+                    // drop the back-link to the removed node, unless a concurrent addFirst()
+                    // has already replaced it with the node added in front
+                    PREVIOUS.compareAndSet(newFirst, removed, null);
+                    break;
+                }
+            } else {
+                stabilize(a);
+            }
+        }
+        size.decrementAndGet();
+        return removed.item;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return removed element of a given generic type, null if no such item exists
+     */
+    @Override
+    public T removeLast() {
+        Node<T> removed;
+        while (true) {
+            Anchor<T> a = anchor.get();
+            if (a.last == null)
+                return null;
+            if (a.first == a.last) {
+                if (anchor.compareAndSet(a, new Anchor<>(null, null, STABLE))) {
+                    removed = a.last;
+                    break;
+                }
+            } else if (a.status == STABLE) {
+                Node<T> newLast = a.last.previous;
+                if (anchor.compareAndSet(a, new Anchor<>(a.first, newLast, STABLE))) {
+                    removed = a.last;
+                    // drop the forward link to the removed node, unless a concurrent addLast()
+                    // has already replaced it with the node added after it
+                    NEXT.compareAndSet(newLast, removed, null);
+                    break;
+                }
+            } else {
+                stabilize(a);
+            }
+        }
+        size.decrementAndGet();
+        return removed.item;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param index int, a required index of the deque
+     * @return element of a generic type found at the required index in the deque
+     */
+    @Override
+    public T get(int index) {
+        if (index < 0)
+            return null;
+        Anchor<T> a = anchor.get();
+        Node<T> p = a.first;
+        for (int i = 0; p != null && i < index; i++)
+            p = p == a.last ? null : successor(a, p);
+        return p == null ? null : p.item;
+    }
+
+    /**
+     * Creates a node for a given item, rejecting null items which would be indistinguishable
+     * from the null returned by removeFirst() and removeLast() of an empty deque
+     * @param item item of a generic type to be stored in the node
+     * @return new unlinked node
+     */
+    private Node<T> newNode(T item) {
+        if (item == null)
+            throw new NullPointerException("ConcurrentLinkedListDeque does not permit null items");
+        return new Node<>(item);
+    }
+
+    /**
+     * Returns the node following p in the list described by a given anchor. While the last item
+     * is being added the node before it may still point at a stale successor, so the new
+     * last node is taken from the anchor instead.
+     * @param a Anchor, snapshot of the ends of the deque
+     * @param p Node, a node of the deque other than the last one
+     * @return the node after p, null if the list changed too much to be followed
+     */
+    private Node<T> successor(Anchor<T> a, Node<T> p) {
+        if (a.status == PUSHING_LAST && p == a.last.previous)
+            return a.last;
+        return p.next;
+    }
+
+    /**
+     * Returns the node preceding p in the list described by a given anchor. While the first item
+     * is being added the node after it may still point at a stale predecessor, so the new
+     * first node is taken from the anchor instead.
+     * @param a Anchor, snapshot of the ends of the deque
+     * @param p Node, a node of the deque other than the first one
+     * @return the node before p, null if the list changed too much to be followed
+     */
+    private Node<T> predecessor(Anchor<T> a, Node<T> p) {
+        if (a.status == PUSHING_FIRST && p == a.first.next)
+            return a.first;
+        return p.previous;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The iterator is weakly consistent: it walks the nodes between the ends of the deque
+     * at the time it was created, never throws ConcurrentModificationException
+     * and may return items removed in the meantime.
+     * @return Iterator over the deque, from the front to the back
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new NodeIterator(false);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The iterator is weakly consistent, like iterator().
+     * @return Iterator over the deque, from the back to the front
+     */
+    @Override
+    public Iterator<T> descendingIterator() {
+        return new NodeIterator(true);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The spliterator is weakly consistent, its size is only an estimate.
+     * @return Spliterator over the deque
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliteratorUnknownSize(iterator(),
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.CONCURRENT);
+    }
+
+    /**
+     * A class representing a weakly consistent iterator following the links of the nodes
+     * between the ends recorded in one anchor, in either direction
+     */
+    private final class NodeIterator implements Iterator<T> {
+        private final Anchor<T> a = anchor.get();
+        private final boolean descending;
+        private Node<T> node;
+
+        private NodeIterator(boolean descending) {
+            this.descending = descending;
+            node = descending ? a.last : a.first;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return node != null;
+        }
+
+        @Override
+        public T next() {
+            if (node == null)
+                throw new NoSuchElementException();
+            T item = node.item;
+            if (descending)
+                node = node == a.first ? null : predecessor(a, node);
+            else
+                node = node == a.last ? null : successor(a, node);
+            return item;
+        }
+    }
+
+    /**
+     * Completes an addition recorded in an unstable anchor
+     * @param a Anchor, an anchor with status other than STABLE
+     */
+    private void stabilize(Anchor<T> a) {
+        if (a.status == PUSHING_FIRST)
+            stabilizeFirst(a);
+        else
+            stabilizeLast(a);
+    }
+
+    /**
+     * Links the previous first node back to the node added in front of it, then marks
+     * the anchor as stable. Gives up as soon as another thread has changed the anchor,
+     * since that thread must have completed the linking already.
+     * @param a Anchor, an anchor with status PUSHING_FIRST
+     */
+    @SuppressWarnings("unchecked")
+    private void stabilizeFirst(Anchor<T> a) {
+        Node<T> next = a.first.next;
+        if (anchor.get() != a)
+            return;
+        Node<T> nextPrevious = next.previous;
+        if (nextPrevious != a.first) {
+            if (anchor.get() != a || !PREVIOUS.compareAndSet(next, nextPrevious, a.first))
+                return;
+        }
+        anchor.compareAndSet(a, new Anchor<>(a.first, a.last, STABLE));
+    }
+
+    /**
+     * Links the previous last node to the node added after it, then marks the anchor as
+     * stable. Gives up as soon as another thread has changed the anchor, since that thread
+     * must have completed the linking already.
+     * @param a Anchor, an anchor with status PUSHING_LAST
+     */
+    @SuppressWarnings("unchecked")
+    private void stabilizeLast(Anchor<T> a) {
+        Node<T> previous = a.last.previous;
+        if (anchor.get() != a)
+            return;
+        Node<T> previousNext = previous.next;
+        if (previousNext != a.last) {
+            if (anchor.get() != a || !NEXT.compareAndSet(previous, previousNext, a.last))
+                return;
+        }
+        anchor.compareAndSet(a, new Anchor<>(a.first, a.last, STABLE));
+    }
+}
@@ -1,9 +1,24 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  * This interface defines methods for performing operations on an array
  * and linked list implementations of Double Ended Queue (Deque).
+ * Deques can be iterated from first to last and from last to first, and streamed.
+ * Default iteration is built on get(), implementations with a faster way to reach
+ * the next element override iterator(), descendingIterator() and spliterator().
+ * Bulk operations move many items with one call, the default implementations add or remove
+ * them one at a time and are overridden where whole ranges can be copied or spliced at once.
  * @param <T> Provided generic data type to store in the deque
  */
-public interface Deque<T> {
+public interface Deque<T> extends Iterable<T> {
 
     /**
      * Adds an item of type T to the front of the deque.
@@ -56,4 +71,181 @@ public interface Deque<T> {
      * @return element of a generic type found at the required index in the deque
      */
     T get(int index);
+
+    /**
+     * Adds all items of an array to the front of the deque, keeping their order:
+     * after the call the first item of the array is the first item of the deque.
+     * @param items T[], items added to the front of the deque
+     */
+    default void addAllFirst(T[] items) {
+        for (int i = items.length - 1; i >= 0; i--)
+            addFirst(items[i]);
+    }
+
+    /**
+     * Adds all items of a collection to the front of the deque, keeping the iteration order
+     * of the collection: after the call its first item is the first item of the deque.
+     * @param items Collection, items added to the front of the deque
+     */
+    @SuppressWarnings("unchecked")
+    default void addAllFirst(Collection<? extends T> items) {
+        addAllFirst((T[]) items.toArray());
+    }
+
+    /**
+     * Adds all items of an array to the back of the deque, in array order
+     * @param items T[], items added to the end of the deque
+     */
+    default void addAllLast(T[] items) {
+        for (T item : items)
+            addLast(item);
+    }
+
+    /**
+     * Adds all items of a collection to the back of the deque, in the iteration order of the collection
+     * @param items Collection, items added to the end of the deque
+     */
+    @SuppressWarnings("unchecked")
+    default void addAllLast(Collection<? extends T> items) {
+        addAllLast((T[]) items.toArray());
+    }
+
+    /**
+     * Removes up to n items from the front of the deque and stores them in an array,
+     * in deque order, starting at position zero.
+     * The default implementation calls removeFirst() until it returns null, so items taken
+     * by other threads in the meantime are not counted.
+     * @param n int, maximum number of items to remove, not greater than the length of dest
+     * @param dest T[], array the removed items are stored in
+     * @return int, number of removed items, smaller than n if the deque held fewer items
+     * @throws IllegalArgumentException if n is negative or greater than the length of dest
+     */
+    default int removeFirst(int n, T[] dest) {
+        checkBulkRemove(n, dest);
+        int count = 0;
+        T item;
+        while (count < n && (item = removeFirst()) != null)
+            dest[count++] = item;
+        return count;
+    }
+
+    /**
+     * Removes up to n items from the back of the deque and stores them in an array,
+     * in deque order, starting at position zero: the last item of the deque ends up
+     * at position count - 1.
+     * The default implementation calls removeLast() until it returns null, so items taken
+     * by other threads in the meantime are not counted.
+     * @param n int, maximum number of items to remove, not greater than the length of dest
+     * @param dest T[], array the removed items are stored in
+     * @return int, number of removed items, smaller than n if the deque held fewer items
+     * @throws IllegalArgumentException if n is negative or greater than the length of dest
+     */
+    default int removeLast(int n, T[] dest) {
+        checkBulkRemove(n, dest);
+        int count = 0;
+        T item;
+        while (count < n && (item = removeLast()) != null)
+            dest[count++] = item;
+        for (int i = 0, j = count - 1; i < j; i++, j--) {
+            item = dest[i];
+            dest[i] = dest[j];
+            dest[j] = item;
+        }
+        return count;
+    }
+
+    /**
+     * Returns a new array holding the items of the deque from first to last
+     * @return Object[] of the items of the deque
+     */
+    default Object[] toArray() {
+        List<T> items = new ArrayList<>(size());
+        for (T item : this)
+            items.add(item);
+        return items.toArray();
+    }
+
+    /**
+     * Checks the arguments of removeFirst(int, T[]) and removeLast(int, T[])
+     * @param n int, maximum number of items to remove
+     * @param dest T[], array the removed items are stored in
+     */
+    private static void checkBulkRemove(int n, Object[] dest) {
+        if (n < 0 || n > dest.length)
+            throw new IllegalArgumentException("Cannot remove " + n + " items into an array of length " + dest.length);
+    }
+
+    /**
+     * Returns an iterator over the items of the deque from first to last.
+     * The default implementation calls get() with consecutive indices.
+     * @return Iterator over the deque, from the front to the back
+     */
+    @Override
+    default Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return get(index++);
+            }
+        };
+    }
+
+    /**
+     * Returns an iterator over the items of the deque from last to first.
+     * The default implementation calls get() with consecutive indices.
+     * @return Iterator over the deque, from the back to the front
+     */
+    default Iterator<T> descendingIterator() {
+        return new Iterator<T>() {
+            private int index = size() - 1;
+
+            @Override
+            public boolean hasNext() {
+                return index >= 0;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                return get(index--);
+            }
+        };
+    }
+
+    /**
+     * Returns a spliterator over the items of the deque from first to last. The default
+     * implementation wraps iterator(), it knows the size of the deque and splits off
+     * batches of elements copied into arrays.
+     * @return Spliterator over the deque
+     */
+    @Override
+    default Spliterator<T> spliterator() {
+        return Spliterators.spliterator(iterator(), size(), Spliterator.ORDERED);
+    }
+
+    /**
+     * Returns a sequential stream of the items of the deque from first to last
+     * @return Stream of the deque
+     */
+    default Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel stream of the items of the deque, split by spliterator()
+     * @return possibly parallel Stream of the deque
+     */
+    default Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
 }
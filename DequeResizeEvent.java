@@ -0,0 +1,38 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * A class representing the Java Flight Recorder event committed by InstrumentedDeque when the array
+ * of an ArrayDeque is resized. Recorded as "deque.Resize", enabled by default in every recording;
+ * when no recording is running committing the event is skipped after a single check.
+ */
+@Name("deque.Resize")
+@Label("Deque Resize")
+@Category({"Deque"})
+@Description("The array of an ArrayDeque was replaced by one of a different length")
+public class DequeResizeEvent extends Event {
+    @Label("Deque")
+    public String deque;
+
+    @Label("Old Capacity")
+    public int oldCapacity;
+
+    @Label("New Capacity")
+    public int newCapacity;
+
+    @Label("Copied Elements")
+    public int copiedElements;
+
+    @Label("Copied Bytes")
+    @DataAmount
+    public long copiedBytes;
+
+    @Label("Resize Time")
+    @Timespan
+    public long resizeTime;
+}
@@ -0,0 +1,91 @@
+/**
+ * This interface defines the statistics of an InstrumentedDeque published through JMX.
+ * Counts are totals since the deque was created or the statistics were last reset,
+ * latencies are in nanoseconds and are 0 unless the deque times its operations.
+ */
+public interface DequeStatsMXBean {
+    /**
+     * @return long, number of elements added to either end
+     */
+    long getAddCount();
+
+    /**
+     * @return long, number of elements removed from either end
+     */
+    long getRemoveCount();
+
+    /**
+     * @return long, number of get() calls
+     */
+    long getGetCount();
+
+    /**
+     * @return int, number of elements in the deque
+     */
+    int getSize();
+
+    /**
+     * @return int, highest number of elements seen in the deque
+     */
+    int getHighWaterMark();
+
+    /**
+     * @return int, length of the array of an ArrayDeque, -1 for other deques
+     */
+    int getCapacity();
+
+    /**
+     * @return int, number of array slots not holding an element, -1 for deques without an array
+     */
+    int getWastedSlots();
+
+    /**
+     * @return long, number of times the array was resized
+     */
+    long getResizeCount();
+
+    /**
+     * @return long, number of elements copied by all resizes
+     */
+    long getCopiedElements();
+
+    /**
+     * @return long, number of bytes of references copied by all resizes
+     */
+    long getCopiedBytes();
+
+    /**
+     * @return long, time spent resizing, in nanoseconds
+     */
+    long getResizeNanos();
+
+    /**
+     * @return double, mean latency of an operation
+     */
+    double getLatencyMean();
+
+    /**
+     * @return long, median latency of an operation
+     */
+    long getLatencyP50();
+
+    /**
+     * @return long, 99th percentile latency of an operation
+     */
+    long getLatencyP99();
+
+    /**
+     * @return long, 99.9th percentile latency of an operation
+     */
+    long getLatencyP999();
+
+    /**
+     * @return long, highest latency of an operation
+     */
+    long getLatencyMax();
+
+    /**
+     * Clears all counts and latencies; the high-water mark starts again from the current size
+     */
+    void resetStats();
+}
@@ -0,0 +1,469 @@
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * A class decorating any deque with counters of its operations, published as a DequeStatsMXBean.
+ * Counts additions, removals and get() calls, the high-water mark of the size and, for an ArrayDeque,
+ * every resize of its array: how many elements and bytes were copied and how long it took.
+ * Every resize is also committed as a DequeResizeEvent to Java Flight Recorder.
+ * A timed deque records the latency of every operation in a LatencyHistogram; timing costs two
+ * System.nanoTime() calls per operation, so it is off unless requested.
+ * Counters are LongAdders, so a concurrent deque can be shared by many threads through the decorator.
+ * Instrumentation costs nothing when it is not used: a deque which is not decorated runs no
+ * instrumentation code at all, and instrument() decorates deques only if the JVM runs with
+ * -Ddeque.instrumentation=true, so the calls can stay in production code.
+ * @param <T> generic type of stored data
+ */
+public class InstrumentedDeque<T> implements Deque<T>, DequeStatsMXBean {
+    private static final boolean ENABLED = Boolean.getBoolean("deque.instrumentation");
+    private static final int REFERENCE_BYTES = referenceBytes();
+
+    private final Deque<T> deque;
+    private final String name;
+    private final LatencyHistogram latencies;
+    private final LongAdder adds = new LongAdder();
+    private final LongAdder removes = new LongAdder();
+    private final LongAdder gets = new LongAdder();
+    private final LongAccumulator highWaterMark = new LongAccumulator(Math::max, 0);
+    private final LongAdder resizes = new LongAdder();
+    private final LongAdder copiedElements = new LongAdder();
+    private final LongAdder resizeNanos = new LongAdder();
+
+    /**
+     * Constructor decorating a deque with counters, without timing its operations
+     * @param deque Deque to be decorated, an ArrayDeque gets this decorator as its resize listener
+     * @param name String, name of the deque in JMX and in Flight Recorder events
+     */
+    public InstrumentedDeque(Deque<T> deque, String name) {
+        this(deque, name, false);
+    }
+
+    /**
+     * Constructor decorating a deque with counters
+     * @param deque Deque to be decorated, an ArrayDeque gets this decorator as its resize listener,
+     *              replacing its previous one
+     * @param name String, name of the deque in JMX and in Flight Recorder events
+     * @param timed boolean, true to record the latency of every operation
+     */
+    public InstrumentedDeque(Deque<T> deque, String name, boolean timed) {
+        if (deque == null)
+            throw new NullPointerException("Decorated deque must not be null");
+        this.deque = deque;
+        this.name = name;
+        latencies = timed ? new LatencyHistogram() : null;
+        highWaterMark.accumulate(deque.size());
+        if (deque instanceof ArrayDeque)
+            ((ArrayDeque<T>) deque).setResizeListener(this::resized);
+    }
+
+    /**
+     * Decorates a deque with a timed InstrumentedDeque if the JVM runs with -Ddeque.instrumentation=true,
+     * and registers it with the platform MBean server
+     * @param deque Deque to be decorated
+     * @param name String, name of the deque in JMX and in Flight Recorder events
+     * @param <T> generic type of stored data
+     * @return Deque, the decorator if instrumentation is enabled, otherwise the deque itself
+     */
+    public static <T> Deque<T> instrument(Deque<T> deque, String name) {
+        if (!ENABLED)
+            return deque;
+        InstrumentedDeque<T> instrumented = new InstrumentedDeque<>(deque, name, true);
+        try {
+            instrumented.register();
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register deque " + name + " with JMX", e);
+        }
+        return instrumented;
+    }
+
+    /**
+     * Registers the statistics with the platform MBean server as deque:type=InstrumentedDeque,name=...
+     * @return ObjectName the statistics are registered under
+     * @throws JMException if the name is invalid or already taken
+     */
+    public ObjectName register() throws JMException {
+        ObjectName objectName = new ObjectName("deque:type=InstrumentedDeque,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    /**
+     * Unregisters the statistics from the platform MBean server
+     * @throws JMException if they are not registered
+     */
+    public void unregister() throws JMException {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(
+                new ObjectName("deque:type=InstrumentedDeque,name=" + ObjectName.quote(name)));
+    }
+
+    /**
+     * Returns the histogram of operation latencies
+     * @return LatencyHistogram, null if the deque is not timed
+     */
+    public LatencyHistogram latencies() {
+        return latencies;
+    }
+
+    /**
+     * Counts a resize of the array of a decorated ArrayDeque and commits it to Flight Recorder
+     * @param oldCapacity int, length of the previous array
+     * @param newCapacity int, length of the new array
+     * @param copied int, number of elements copied from the previous array into the new one
+     * @param nanos long, time the resize took, in nanoseconds
+     */
+    private void resized(int oldCapacity, int newCapacity, int copied, long nanos) {
+        resizes.increment();
+        copiedElements.add(copied);
+        resizeNanos.add(nanos);
+
+        DequeResizeEvent event = new DequeResizeEvent();
+        if (event.isEnabled()) {
+            event.deque = name;
+            event.oldCapacity = oldCapacity;
+            event.newCapacity = newCapacity;
+            event.copiedElements = copied;
+            event.copiedBytes = (long) copied * REFERENCE_BYTES;
+            event.resizeTime = nanos;
+            event.commit();
+        }
+    }
+
+    /**
+     * Reads the size of an object reference in an array from the HotSpot option UseCompressedOops
+     * @return int, 4 with compressed references, otherwise 8
+     */
+    private static int referenceBytes() {
+        try {
+            HotSpotDiagnosticMXBean hotSpot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            return Boolean.parseBoolean(hotSpot.getVMOption("UseCompressedOops").getValue()) ? 4 : 8;
+        } catch (RuntimeException e) {
+            return 8;
+        }
+    }
+
+    /**
+     * Records the latency of an operation started at a given time, if the deque is timed
+     * @param start long, System.nanoTime() at the start of the operation, 0 if not timed
+     */
+    private void timed(long start) {
+        if (latencies != null)
+            latencies.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Reads the clock at the start of an operation, if the deque is timed
+     * @return long, System.nanoTime(), 0 if not timed
+     */
+    private long start() {
+        return latencies == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param item an item of type T added to the front of the deque
+     */
+    @Override
+    public void addFirst(T item) {
+        long start = start();
+        deque.addFirst(item);
+        timed(start);
+        added(1);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param item an item of type T added to the end of the deque
+     */
+    @Override
+    public void addLast(T item) {
+        long start = start();
+        deque.addLast(item);
+        timed(start);
+        added(1);
+    }
+
+    /**
+     * Counts added elements and updates the high-water mark
+     * @param count int, number of added elements
+     */
+    private void added(int count) {
+        adds.add(count);
+        highWaterMark.accumulate(deque.size());
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param items array of items added to the front of the deque
+     */
+    @Override
+    public void addAllFirst(T[] items) {
+        long start = start();
+        deque.addAllFirst(items);
+        timed(start);
+        added(items.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param items collection of items added to the front of the deque
+     */
+    @Override
+    public void addAllFirst(Collection<? extends T> items) {
+        long start = start();
+        deque.addAllFirst(items);
+        timed(start);
+        added(items.size());
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param items array of items added to the end of the deque
+     */
+    @Override
+    public void addAllLast(T[] items) {
+        long start = start();
+        deque.addAllLast(items);
+        timed(start);
+        added(items.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param items collection of items added to the end of the deque
+     */
+    @Override
+    public void addAllLast(Collection<? extends T> items) {
+        long start = start();
+        deque.addAllLast(items);
+        timed(start);
+        added(items.size());
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return int, size of the decorated deque
+     */
+    @Override
+    public int size() {
+        return deque.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void printDeque() {
+        deque.printDeque();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return removed element of a given generic type, null if no such item exists
+     */
+    @Override
+    public T removeFirst() {
+        long start = start();
+        T item = deque.removeFirst();
+        timed(start);
+        if (item != null)
+            removes.increment();
+        return item;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return removed element of a given generic type, null if no such item exists
+     */
+    @Override
+    public T removeLast() {
+        long start = start();
+        T item = deque.removeLast();
+        timed(start);
+        if (item != null)
+            removes.increment();
+        return item;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param n int, maximum number of items to remove
+     * @param dest array receiving the removed items
+     * @return int, number of removed items
+     */
+    @Override
+    public int removeFirst(int n, T[] dest) {
+        long start = start();
+        int removed = deque.removeFirst(n, dest);
+        timed(start);
+        removes.add(removed);
+        return removed;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param n int, maximum number of items to remove
+     * @param dest array receiving the removed items
+     * @return int, number of removed items
+     */
+    @Override
+    public int removeLast(int n, T[] dest) {
+        long start = start();
+        int removed = deque.removeLast(n, dest);
+        timed(start);
+        removes.add(removed);
+        return removed;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param index int, a required index of the deque
+     * @return element of a generic type found at the required index in the deque
+     */
+    @Override
+    public T get(int index) {
+        long start = start();
+        T item = deque.get(index);
+        timed(start);
+        gets.increment();
+        return item;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return Object[], the elements of the decorated deque
+     */
+    @Override
+    public Object[] toArray() {
+        return deque.toArray();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return Iterator of the decorated deque, not counted
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return deque.iterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return descending Iterator of the decorated deque, not counted
+     */
+    @Override
+    public Iterator<T> descendingIterator() {
+        return deque.descendingIterator();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return Spliterator of the decorated deque, not counted
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return deque.spliterator();
+    }
+
+    @Override
+    public long getAddCount() {
+        return adds.sum();
+    }
+
+    @Override
+    public long getRemoveCount() {
+        return removes.sum();
+    }
+
+    @Override
+    public long getGetCount() {
+        return gets.sum();
+    }
+
+    @Override
+    public int getSize() {
+        return deque.size();
+    }
+
+    @Override
+    public int getHighWaterMark() {
+        return (int) highWaterMark.get();
+    }
+
+    @Override
+    public int getCapacity() {
+        return deque instanceof ArrayDeque ? ((ArrayDeque<T>) deque).capacity() : -1;
+    }
+
+    @Override
+    public int getWastedSlots() {
+        int capacity = getCapacity();
+        return capacity < 0 ? -1 : capacity - deque.size();
+    }
+
+    @Override
+    public long getResizeCount() {
+        return resizes.sum();
+    }
+
+    @Override
+    public long getCopiedElements() {
+        return copiedElements.sum();
+    }
+
+    @Override
+    public long getCopiedBytes() {
+        return copiedElements.sum() * REFERENCE_BYTES;
+    }
+
+    @Override
+    public long getResizeNanos() {
+        return resizeNanos.sum();
+    }
+
+    @Override
+    public double getLatencyMean() {
+        return latencies == null ? 0 : latencies.mean();
+    }
+
+    @Override
+    public long getLatencyP50() {
+        return latencies == null ? 0 : latencies.percentile(50);
+    }
+
+    @Override
+    public long getLatencyP99() {
+        return latencies == null ? 0 : latencies.percentile(99);
+    }
+
+    @Override
+    public long getLatencyP999() {
+        return latencies == null ? 0 : latencies.percentile(99.9);
+    }
+
+    @Override
+    public long getLatencyMax() {
+        return latencies == null ? 0 : latencies.max();
+    }
+
+    @Override
+    public void resetStats() {
+        adds.reset();
+        removes.reset();
+        gets.reset();
+        highWaterMark.reset();
+        highWaterMark.accumulate(deque.size());
+        resizes.reset();
+        copiedElements.reset();
+        resizeNanos.reset();
+        if (latencies != null)
+            latencies.reset();
+    }
+}
@@ -0,0 +1,119 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A class representing a histogram of latencies in nanoseconds, laid out like HdrHistogram:
+ * values below 64 have a bucket each, and every power of two range above is split into 32 buckets
+ * of equal width, so every recorded value is counted within about 3% of itself, from nanoseconds
+ * to centuries, in 1888 buckets. Recording is a few shifts and an atomic increment, without allocating
+ * or locking, so many threads can record at once. Percentiles report the highest value of the bucket
+ * they fall into.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records a single latency
+     * @param nanos long, latency in nanoseconds, negative values are recorded as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts.incrementAndGet(bucket(value));
+        count.increment();
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Returns the number of recorded latencies
+     * @return long, number of recorded latencies
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Returns the highest recorded latency
+     * @return long, highest latency in nanoseconds, 0 if nothing was recorded
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Returns the mean of the recorded latencies
+     * @return double, mean latency in nanoseconds, 0 if nothing was recorded
+     */
+    public double mean() {
+        long recorded = count.sum();
+        return recorded == 0 ? 0 : (double) total.sum() / recorded;
+    }
+
+    /**
+     * Finds the latency not exceeded by a given percentage of the recorded latencies
+     * @param percentile double, percentage between 0 and 100, e.g. 99.9
+     * @return long, the highest value of the bucket holding the percentile, in nanoseconds,
+     *         0 if nothing was recorded
+     */
+    public long percentile(double percentile) {
+        if (percentile < 0 || percentile > 100)
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        long recorded = count.sum();
+        if (recorded == 0)
+            return 0;
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * recorded));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= target)
+                return Math.min(highestValue(i), max.get());
+        }
+        return max.get();
+    }
+
+    /**
+     * Clears all recorded latencies. Latencies recorded at the same time may be partly kept
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++)
+            counts.set(i, 0);
+        count.reset();
+        total.reset();
+        max.reset();
+    }
+
+    /**
+     * Finds the bucket of a value
+     * @param value long, non-negative value
+     * @return int, index of the bucket
+     */
+    private static int bucket(long value) {
+        if (value < LINEAR_LIMIT)
+            return (int) value;
+        // the top SUB_BUCKET_BITS + 1 bits of the value pick the bucket within its power of two range
+        int shift = Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS - 1;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * Finds the highest value counted in a bucket
+     * @param bucket int, index of the bucket
+     * @return long, highest value of the bucket
+     */
+    private static long highestValue(int bucket) {
+        if (bucket < LINEAR_LIMIT)
+            return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
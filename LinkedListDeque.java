@@ -1,32 +1,63 @@
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
 /**
  * A class representing an implementation of double-ended queue (deque).
  * Uses a circular sentinel node tracking the first and the last element
- * of the data structure.
+ * of the data structure. Indexed access walks from whichever is closest to the index:
+ * the first element, the last element or the node found by the previous call to get(),
+ * so reading the deque by consecutive indices takes one step per call. A ListCursor
+ * returned by cursor() keeps its own position in the same way and can move in both directions.
+ * Bulk additions build a chain of new nodes and splice it in with four link updates, bulk
+ * removals cut a chain of nodes out the same way.
+ * Iterators and cursors are fail-fast: adding or removing an element invalidates them and they
+ * throw ConcurrentModificationException afterwards.
  * @param <T> generic type of stored data
  */
 public class LinkedListDeque<T> implements Deque<T> {
 
-    /** A class representing a single node in the deque data structure */
-    private class Node {
-        Node previous;
+    /**
+     * A class representing a single node in the deque data structure. The class is static,
+     * so nodes do not carry a hidden reference to the deque that created them.
+     */
+    private static class Node<T> {
+        Node<T> previous;
         T item;
-        Node next;
+        Node<T> next;
 
-        private Node(Node p, T i, Node n) {
+        private Node(Node<T> p, T i, Node<T> n) {
             previous = p;
             item = i;
             next = n;
         }
     }
 
-    private Node sentinel;
+    /**
+     * A class representing the node found by the previous call to get() together with its index.
+     * Both are published at once in a single field, so readers of an unmodified deque sharing it
+     * never pair a node with the index of another one.
+     */
+    private static final class Position<T> {
+        final Node<T> node;
+        final int index;
+
+        private Position(Node<T> node, int index) {
+            this.node = node;
+            this.index = index;
+        }
+    }
+
+    private Node<T> sentinel;
     private int size;
+    private int modCount;
+    private Position<T> lastPosition;
 
     /**
      * Constructor creating an empty LinkedListDeque with only a circular sentinel node pointing at itself
      */
     public LinkedListDeque() {
-        sentinel = new Node(null, null, null);
+        sentinel = new Node<>(null, null, null);
         sentinel.next = sentinel;
         sentinel.previous = sentinel;
         size = 0;
@@ -38,8 +69,8 @@ public class LinkedListDeque<T> implements Deque<T> {
      * @param item item of a generic type to be stored as the first element
      */
     public LinkedListDeque(T item) {
-        sentinel = new Node(null, null, null);
-        sentinel.next = new Node(sentinel, item, sentinel);
+        sentinel = new Node<>(null, null, null);
+        sentinel.next = new Node<>(sentinel, item, sentinel);
         sentinel.previous = sentinel.next;
         size = 1;
     }
@@ -52,16 +83,17 @@ public class LinkedListDeque<T> implements Deque<T> {
     public void addFirst(T item) {
         // if the list is empty
         if (size == 0) {
-            sentinel.next = new Node(sentinel, item, sentinel);
+            sentinel.next = new Node<>(sentinel, item, sentinel);
             sentinel.previous = sentinel.next;
             size++;
         } else {
             // if the list has at least one element in it
-            Node temp = sentinel.next;
-            sentinel.next = new Node(sentinel, item, temp);
+            Node<T> temp = sentinel.next;
+            sentinel.next = new Node<>(sentinel, item, temp);
             temp.previous = sentinel.next;
             size++;
         }
+        modified();
     }
 
     /**
@@ -71,15 +103,16 @@ public class LinkedListDeque<T> implements Deque<T> {
     @Override
     public void addLast(T item) {
         if (size == 0) {
-            sentinel.next = new Node(sentinel, item, sentinel);
+            sentinel.next = new Node<>(sentinel, item, sentinel);
             sentinel.previous = sentinel.next;
             size++;
         } else {
-            Node temp = sentinel.previous;
-            sentinel.previous = new Node(temp, item, sentinel);
+            Node<T> temp = sentinel.previous;
+            sentinel.previous = new Node<>(temp, item, sentinel);
             temp.next = sentinel.previous;
             size++;
         }
+        modified();
     }
 
     /**
@@ -96,7 +129,7 @@ public class LinkedListDeque<T> implements Deque<T> {
      */
     @Override
     public void printDeque() {
-        Node p = sentinel.next;
+        Node<T> p = sentinel.next;
         while (p.next != sentinel) {
             System.out.print(p.item + ", ");
             p = p.next;
@@ -113,17 +146,13 @@ public class LinkedListDeque<T> implements Deque<T> {
     public T removeFirst() {
         if (size == 0)
             return null;
-        else if (size == 1) {
-            Node temp = sentinel.next;
-            sentinel. next = sentinel;
-            sentinel.previous = sentinel;
-            size = 0;
-            return temp.item;
-        } else {
-            Node temp = sentinel.next;
+        else {
+            Node<T> temp = sentinel.next;
             sentinel.next = temp.next;
+            temp.next.previous = sentinel;
             size--;
-            return temp.item;
+            modified();
+            return unlink(temp);
         }
     }
 
@@ -135,76 +164,377 @@ public class LinkedListDeque<T> implements Deque<T> {
     public T removeLast() {
         if (size == 0)
             return null;
-        else if (size == 1) {
-            Node temp = sentinel.next;
-            sentinel. next = null;
-            sentinel.previous = null;
-            size = 0;
-            return temp.item;
-        } else {
-            Node temp = sentinel.previous;
+        else {
+            Node<T> temp = sentinel.previous;
             temp.previous.next = sentinel;
             sentinel.previous = temp.previous;
             size--;
-            return temp.item;
+            modified();
+            return unlink(temp);
         }
     }
 
+    /**
+     * Records a structural modification of the deque, which invalidates the node remembered
+     * by get() and every ListCursor
+     */
+    private void modified() {
+        modCount++;
+        lastPosition = null;
+    }
+
+    /**
+     * Clears the links and the item of a node removed from the deque, so a removed node
+     * does not keep its neighbours or its item reachable
+     * @param node Node, removed node
+     * @return item of a generic type stored in the removed node
+     */
+    private T unlink(Node<T> node) {
+        T item = node.item;
+        node.item = null;
+        node.previous = null;
+        node.next = null;
+        return item;
+    }
+
+    /**
+     * Finds the node at a given index, walking from whichever is closest to it: the first node,
+     * the last node or a given node with a known index
+     * @param index int, index of the deque, between 0 and size - 1
+     * @param from Node, node to start from, null if there is none
+     * @param fromIndex int, index of the deque of from
+     * @return Node at the given index
+     */
+    private Node<T> node(int index, Node<T> from, int fromIndex) {
+        Node<T> p = sentinel.next;
+        int start = 0;
+        if (size - 1 - index < index) {
+            p = sentinel.previous;
+            start = size - 1;
+        }
+        if (from != null && Math.abs(index - fromIndex) < Math.abs(index - start)) {
+            p = from;
+            start = fromIndex;
+        }
+        while (start < index) {
+            p = p.next;
+            start++;
+        }
+        while (start > index) {
+            p = p.previous;
+            start--;
+        }
+        return p;
+    }
+
     /**
      * {@inheritDoc}
+     * Walks from the closer end of the deque, or from the node found by the previous call
+     * if it is closer, so get(i) followed by get(i + 1) takes one step. The node found is remembered
+     * as one immutable (node, index) pair, so threads reading an unmodified deque at the same time
+     * may replace each other's pair but always walk from a matching node and index.
      * @param index int, a required index of the deque
      * @return element of a generic type found at the required index in the deque
      */
     @Override
     public T get(int index) {
-        if (size == 0 || index > size - 1)
+        if (index < 0 || index > size - 1)
             return null;
-        int start = 0;
-        Node p = sentinel.next;
-        while (start != index) {
-            p = p.next;
-            start++;
-        }
+        Position<T> last = lastPosition;
+        Node<T> p = last == null ? node(index, null, 0) : node(index, last.node, last.index);
+        lastPosition = new Position<>(p, index);
         return p.item;
     }
 
     /**
      * Gets the item at the given index, where 0 is the front, 1 is the next item, and so forth.
-     * If no such item exists, returns null. Uses recursion. Does not alter the deque
+     * If no such item exists, returns null. Does not alter the deque. Kept for compatibility,
+     * the recursive traversal used one stack frame per element and overflowed the stack
+     * for large indices, so it now shares the iterative path of get()
      * @param index int, a required index of the deque
      * @return element of a generic type found at the required index in the deque
      */
     public T getRecursive(int index) {
-        return recursiveHelper(sentinel.next, index);
+        return get(index);
     }
 
     /**
-     * Recursively traverses each node of the LinkedListDeque to find particular value
-     * @param n Node, starting node
-     * @param index int, starting index
-     * @return element of a generic type found at the required index in the deque
+     * Splices a chain of new nodes holding the items of an array between two adjacent nodes
+     * @param items T[], items of the new nodes, in order
+     * @param before Node, node the chain follows
+     * @param after Node, node following the chain
      */
-    private T recursiveHelper(Node n, int index) {
-        if (size == 0 || index > size + 1)
-            return null;
-        else if (index == 0)
-            return n.item;
-        else
-            return recursiveHelper(n.next, index -1);
+    private void splice(T[] items, Node<T> before, Node<T> after) {
+        if (items.length == 0)
+            return;
+        Node<T> chainFirst = new Node<>(before, items[0], null);
+        Node<T> chainLast = chainFirst;
+        for (int i = 1; i < items.length; i++) {
+            chainLast.next = new Node<>(chainLast, items[i], null);
+            chainLast = chainLast.next;
+        }
+        chainLast.next = after;
+        before.next = chainFirst;
+        after.previous = chainLast;
+        size += items.length;
+        modified();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Links the new nodes to each other first and splices the whole chain in at once.
+     * @param items T[], items added to the front of the deque
+     */
+    @Override
+    public void addAllFirst(T[] items) {
+        splice(items, sentinel, sentinel.next);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Links the new nodes to each other first and splices the whole chain in at once.
+     * @param items T[], items added to the end of the deque
+     */
+    @Override
+    public void addAllLast(T[] items) {
+        splice(items, sentinel.previous, sentinel);
+    }
+
+    /**
+     * Cuts a chain of nodes out of the deque, storing their items in an array and clearing the nodes
+     * @param chainFirst Node, first node of the chain
+     * @param count int, number of nodes in the chain
+     * @param dest T[], array the items are stored in, starting at position zero
+     */
+    private void cut(Node<T> chainFirst, int count, T[] dest) {
+        Node<T> before = chainFirst.previous;
+        Node<T> p = chainFirst;
+        for (int i = 0; i < count; i++) {
+            Node<T> next = p.next;
+            dest[i] = unlink(p);
+            p = next;
+        }
+        before.next = p;
+        p.previous = before;
+        size -= count;
+        modified();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Cuts the removed nodes out with one update of the links at each side.
+     * @param n int, maximum number of items to remove, not greater than the length of dest
+     * @param dest T[], array the removed items are stored in
+     * @return int, number of removed items, smaller than n if the deque held fewer items
+     */
+    @Override
+    public int removeFirst(int n, T[] dest) {
+        if (n < 0 || n > dest.length)
+            throw new IllegalArgumentException("Cannot remove " + n + " items into an array of length " + dest.length);
+        int count = Math.min(n, size);
+        if (count > 0)
+            cut(sentinel.next, count, dest);
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Cuts the removed nodes out with one update of the links at each side.
+     * @param n int, maximum number of items to remove, not greater than the length of dest
+     * @param dest T[], array the removed items are stored in
+     * @return int, number of removed items, smaller than n if the deque held fewer items
+     */
+    @Override
+    public int removeLast(int n, T[] dest) {
+        if (n < 0 || n > dest.length)
+            throw new IllegalArgumentException("Cannot remove " + n + " items into an array of length " + dest.length);
+        int count = Math.min(n, size);
+        if (count > 0)
+            cut(node(size - count, null, 0), count, dest);
+        return count;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return Object[] of the items of the deque
+     */
+    @Override
+    public Object[] toArray() {
+        Object[] result = new Object[size];
+        Node<T> p = sentinel.next;
+        for (int i = 0; i < size; i++) {
+            result[i] = p.item;
+            p = p.next;
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The iterator is fail-fast.
+     * @return Iterator over the deque, from the front to the back
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new NodeIterator(false);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The iterator is fail-fast.
+     * @return Iterator over the deque, from the back to the front
+     */
+    @Override
+    public Iterator<T> descendingIterator() {
+        return new NodeIterator(true);
+    }
+
+    /**
+     * A class representing a fail-fast iterator following the links of the nodes in either direction
+     */
+    private final class NodeIterator implements Iterator<T> {
+        private final boolean descending;
+        private Node<T> node;
+        private final int expectedModCount = modCount;
+
+        private NodeIterator(boolean descending) {
+            this.descending = descending;
+            node = descending ? sentinel.previous : sentinel.next;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return node != sentinel;
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (node == sentinel)
+                throw new NoSuchElementException();
+            T item = node.item;
+            node = descending ? node.previous : node.next;
+            return item;
+        }
+    }
+
+    /**
+     * Creates a cursor positioned before the first element of the deque
+     * @return ListCursor over this deque
+     */
+    public ListCursor cursor() {
+        return new ListCursor();
     }
 
     /**
-     * Creates a deep copy of other
+     * A class representing a position in the deque, remembered between calls, so moving the cursor
+     * to an index costs as many steps as the distance from its current position or from the closer
+     * end of the deque, whichever is smaller. Sequential access in either direction is O(1) per element.
+     * A cursor is invalidated by every addition to or removal from the deque and throws
+     * ConcurrentModificationException afterwards.
+     */
+    public class ListCursor {
+        private Node<T> node;
+        private int index;
+        private final int expectedModCount;
+
+        private ListCursor() {
+            node = sentinel;
+            index = -1;
+            expectedModCount = modCount;
+        }
+
+        /**
+         * Moves the cursor to a given index and returns the item found there.
+         * If no such item exists returns null and does not move the cursor.
+         * @param index int, a required index of the deque
+         * @return element of a generic type found at the required index in the deque
+         * @throws ConcurrentModificationException if the deque was modified after the cursor was created
+         */
+        public T get(int index) {
+            checkForComodification();
+            if (index < 0 || index > size - 1)
+                return null;
+            node = node(index, node == sentinel ? null : node, this.index);
+            this.index = index;
+            return node.item;
+        }
+
+        /**
+         * Checks whether there is an element after the current position of the cursor
+         * @return true if next() returns an element, false otherwise
+         */
+        public boolean hasNext() {
+            return index < size - 1;
+        }
+
+        /**
+         * Moves the cursor one element towards the back of the deque
+         * @return element of a generic type at the new position
+         * @throws NoSuchElementException if the cursor is at the last element
+         * @throws ConcurrentModificationException if the deque was modified after the cursor was created
+         */
+        public T next() {
+            checkForComodification();
+            if (!hasNext())
+                throw new NoSuchElementException();
+            node = node.next;
+            index++;
+            return node.item;
+        }
+
+        /**
+         * Checks whether there is an element before the current position of the cursor
+         * @return true if previous() returns an element, false otherwise
+         */
+        public boolean hasPrevious() {
+            return index > 0;
+        }
+
+        /**
+         * Moves the cursor one element towards the front of the deque
+         * @return element of a generic type at the new position
+         * @throws NoSuchElementException if the cursor is at the first element or before it
+         * @throws ConcurrentModificationException if the deque was modified after the cursor was created
+         */
+        public T previous() {
+            checkForComodification();
+            if (!hasPrevious())
+                throw new NoSuchElementException();
+            node = node.previous;
+            index--;
+            return node.item;
+        }
+
+        /**
+         * Returns the index of the current position of the cursor
+         * @return int, index of the element the cursor is at, -1 before the first call to get() or next()
+         */
+        public int index() {
+            return index;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Creates a deep copy of other, following the links of other once and linking each new node
+     * to the previous one as it goes, without an intermediate array
      * @param other object to be copied
      */
     public LinkedListDeque(LinkedListDeque other) {
-        sentinel = new Node(null, null, null);
-        sentinel.next = sentinel;
-        sentinel.previous = sentinel;
-        size = 0;
-
-        for (int i = 0; i < other.size(); i++) {
-            addLast((T) other.get(i));
+        this();
+        Node<T> last = sentinel;
+        for (Node<T> p = other.sentinel.next; p != other.sentinel; p = p.next) {
+            last.next = new Node<>(last, p.item, null);
+            last = last.next;
         }
+        last.next = sentinel;
+        sentinel.previous = last;
+        size = other.size;
     }
 }
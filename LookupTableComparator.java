@@ -0,0 +1,95 @@
+/**
+ * A class using a precomputed table to answer any CharacterComparator for ASCII characters.
+ * The table holds one bit for every pair of the 128 ASCII characters, 2 KB in 256 longs, filled
+ * once by asking the source comparator about every pair. Comparing two ASCII characters is then
+ * a single array load and bit test whatever rules the source implements, and since the table
+ * comparator is one class, call sites using it stay monomorphic no matter how many different
+ * comparators it wraps. matchesMirrored() is overridden, rather than inherited, so its loop is compiled
+ * for this class alone with the table lookup inlined.
+ * Pairs with a character outside of ASCII are passed to the source comparator.
+ * A CodePointComparator source walks mirrored ranges by code points and skips ignorable ones,
+ * which a char by char loop cannot do, so for such a source matchesMirrored() is passed to it
+ * and only equalChars() uses the table.
+ */
+public final class LookupTableComparator implements CharacterComparator {
+    private static final int ASCII = 128;
+
+    private final CharacterComparator source;
+    // the source, if matchesMirrored() must be passed to it, null otherwise
+    private final CodePointComparator codePoints;
+    private final long[] table = new long[ASCII * ASCII / Long.SIZE];
+
+    /**
+     * Constructor creating a table answering the same as a given comparator
+     * @param source CharacterComparator the table is built from
+     */
+    public LookupTableComparator(CharacterComparator source) {
+        if (source == null)
+            throw new NullPointerException("Source comparator must not be null");
+        this.source = source;
+        codePoints = source instanceof CodePointComparator ? (CodePointComparator) source : null;
+        for (char x = 0; x < ASCII; x++)
+            for (char y = 0; y < ASCII; y++)
+                if (source.equalChars(x, y)) {
+                    int bit = x << 7 | y;
+                    table[bit >>> 6] |= 1L << bit;
+                }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param x char, uppercase letter, lowercase letter  or symbol from the ASCII table
+     * @param y char, uppercase letter, lowercase letter  or symbol from the ASCII table
+     * @return true if characters x and y are equal by the rules of the source comparator, false otherwise
+     */
+    @Override
+    public boolean equalChars(char x, char y) {
+        if ((x | y) >= ASCII)
+            return source.equalChars(x, y);
+        int bit = x << 7 | y;
+        return (table[bit >>> 6] & 1L << bit) != 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param chars char[] holding the range
+     * @param from int, index of the first character of the range
+     * @param to int, index after the last character of the range
+     * @return true if every pair of mirrored characters is equal by the rules of the source comparator
+     */
+    @Override
+    public boolean matchesMirrored(char[] chars, int from, int to) {
+        if (codePoints != null)
+            return codePoints.matchesMirrored(chars, from, to);
+        for (int i = from, j = to - 1; i < j; i++, j--)
+            if (!equalChars(chars[i], chars[j]))
+                return false;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param chars CharSequence holding the range
+     * @param from int, index of the first character of the range
+     * @param to int, index after the last character of the range
+     * @return true if every pair of mirrored characters is equal by the rules of the source comparator
+     */
+    @Override
+    public boolean matchesMirrored(CharSequence chars, int from, int to) {
+        if (codePoints != null)
+            return codePoints.matchesMirrored(chars, from, to);
+        for (int i = from, j = to - 1; i < j; i++, j--)
+            if (!equalChars(chars.charAt(i), chars.charAt(j)))
+                return false;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return true if the source comparator is an equivalence relation, false otherwise
+     */
+    @Override
+    public boolean isEquivalence() {
+        return source.isEquivalence();
+    }
+}
@@ -0,0 +1,404 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * A class representing a persistent circular array implementation of double-ended queue whose
+ * items survive process restarts. Every item is encoded by a RecordCodec into a fixed-width record
+ * of memory-mapped segment files in a given directory, and the position of the first item and the
+ * size of the deque are kept in a mapped header page. Opening an existing directory maps the header
+ * and the segments without reading any records, so it takes the same time however many items
+ * are stored.
+ * The records form one circular array spanning all segments. If adding an item requires resizing,
+ * as many new segments as there are already are created, doubling the capacity as in
+ * ArrayDeque.expandArray(), and the records wrapped around to the start of the array are copied
+ * after the old end of the array. Files are never shrunk.
+ * When the mapped pages are written to disk is decided by a SyncPolicy: after every operation,
+ * after every n operations, or only on close. Changes not yet synced survive a crash of the process,
+ * since they are in the operating system's page cache, but may be lost if the machine crashes.
+ * The first item's position and the size are updated with a single 8-byte write, so the header
+ * never describes a half-done operation.
+ * Null items are not permitted. The deque is not thread-safe.
+ * @param <T> generic type of stored data
+ */
+public class MappedFileDeque<T> implements Deque<T>, Closeable {
+    private static final int MAGIC = 0x44455155;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4096;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int RECORD_SIZE_OFFSET = 8;
+    private static final int RECORDS_PER_SEGMENT_OFFSET = 12;
+    private static final int SEGMENT_COUNT_OFFSET = 16;
+    private static final int STATE_OFFSET = 24;
+    private static final int SIZE_BITS = 31;
+    private static final long MAX_CAPACITY = 1L << 32;
+    private static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 16;
+    private static final String HEADER_FILE = "header";
+
+    /** Decides how often the mapped pages are forced to disk */
+    public static final class SyncPolicy {
+        private final int interval;
+
+        private SyncPolicy(int interval) {
+            this.interval = interval;
+        }
+
+        /**
+         * Syncs after every operation changing the deque, the safest and slowest policy
+         * @return SyncPolicy syncing every operation
+         */
+        public static SyncPolicy everyOperation() {
+            return new SyncPolicy(1);
+        }
+
+        /**
+         * Syncs after every n operations changing the deque
+         * @param n int, number of operations between syncs, at least 1
+         * @return SyncPolicy syncing every n operations
+         */
+        public static SyncPolicy everyOperations(int n) {
+            if (n < 1)
+                throw new IllegalArgumentException("Sync interval must be positive: " + n);
+            return new SyncPolicy(n);
+        }
+
+        /**
+         * Syncs only when the deque is closed or sync() is called
+         * @return SyncPolicy syncing on close
+         */
+        public static SyncPolicy onClose() {
+            return new SyncPolicy(0);
+        }
+    }
+
+    private final Path directory;
+    private final RecordCodec<T> codec;
+    private final int recordSize;
+    private final int recordsPerSegment;
+    private final SyncPolicy syncPolicy;
+    private final FileChannel headerChannel;
+    private final MappedByteBuffer header;
+    private final List<FileChannel> channels = new ArrayList<>();
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final BitSet dirtySegments = new BitSet();
+    private long capacity;
+    private long first;
+    private int size;
+    private int unsyncedOperations;
+    private boolean closed;
+
+    /**
+     * Constructor opening the deque stored in a given directory, or creating an empty one
+     * with segments of 65536 records if the directory holds no deque
+     * @param directory Path, directory holding the header and segment files
+     * @param codec RecordCodec, encoder and decoder of the stored items
+     * @param syncPolicy SyncPolicy, decides how often changes are written to disk
+     * @throws IOException if the files cannot be created, opened or mapped,
+     *         or hold a deque of a different record size
+     */
+    public MappedFileDeque(Path directory, RecordCodec<T> codec, SyncPolicy syncPolicy) throws IOException {
+        this(directory, codec, syncPolicy, DEFAULT_RECORDS_PER_SEGMENT);
+    }
+
+    /**
+     * Constructor opening the deque stored in a given directory, or creating an empty one
+     * if the directory holds no deque
+     * @param directory Path, directory holding the header and segment files
+     * @param codec RecordCodec, encoder and decoder of the stored items
+     * @param syncPolicy SyncPolicy, decides how often changes are written to disk
+     * @param recordsPerSegment int, number of records in one segment file of a new deque,
+     *        ignored when an existing deque is opened
+     * @throws IOException if the files cannot be created, opened or mapped,
+     *         or hold a deque of a different record size
+     */
+    public MappedFileDeque(Path directory, RecordCodec<T> codec, SyncPolicy syncPolicy,
+                           int recordsPerSegment) throws IOException {
+        this.directory = directory;
+        this.codec = codec;
+        this.syncPolicy = syncPolicy;
+        recordSize = codec.recordSize();
+        if (recordSize <= 0)
+            throw new IllegalArgumentException("Record size must be positive: " + recordSize);
+        if (recordsPerSegment < 2 || (long) recordsPerSegment * recordSize > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Invalid number of records per segment: " + recordsPerSegment);
+
+        Files.createDirectories(directory);
+        headerChannel = FileChannel.open(directory.resolve(HEADER_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            boolean created = headerChannel.size() == 0;
+            header = headerChannel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (created) {
+                header.putInt(MAGIC_OFFSET, MAGIC);
+                header.putInt(VERSION_OFFSET, VERSION);
+                header.putInt(RECORD_SIZE_OFFSET, recordSize);
+                header.putInt(RECORDS_PER_SEGMENT_OFFSET, recordsPerSegment);
+                header.putInt(SEGMENT_COUNT_OFFSET, 1);
+                header.putLong(STATE_OFFSET, 0);
+                header.force();
+            } else if (header.getInt(MAGIC_OFFSET) != MAGIC || header.getInt(VERSION_OFFSET) != VERSION) {
+                throw new IOException("Not a MappedFileDeque header: " + directory.resolve(HEADER_FILE));
+            } else if (header.getInt(RECORD_SIZE_OFFSET) != recordSize) {
+                throw new IOException("Deque in " + directory + " stores records of "
+                        + header.getInt(RECORD_SIZE_OFFSET) + " bytes, codec uses " + recordSize);
+            }
+
+            this.recordsPerSegment = header.getInt(RECORDS_PER_SEGMENT_OFFSET);
+            int segmentCount = header.getInt(SEGMENT_COUNT_OFFSET);
+            for (int i = 0; i < segmentCount; i++)
+                mapSegment(i);
+            capacity = (long) segmentCount * this.recordsPerSegment;
+            long state = header.getLong(STATE_OFFSET);
+            first = state >>> SIZE_BITS;
+            size = (int) (state & ((1L << SIZE_BITS) - 1));
+        } catch (IOException | RuntimeException e) {
+            for (FileChannel channel : channels)
+                channel.close();
+            headerChannel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Opens, creating it if needed, and maps a segment file
+     * @param index int, number of the segment
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    private void mapSegment(int index) throws IOException {
+        FileChannel channel = FileChannel.open(directory.resolve(String.format("segment-%05d", index)),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordsPerSegment * recordSize);
+        segment.order(ByteOrder.LITTLE_ENDIAN);
+        channels.add(channel);
+        segments.add(segment);
+    }
+
+    /**
+     * Wraps a slot number around the end of the circular array
+     * @param slot long, slot number between 0 and twice the capacity
+     * @return long, slot number between 0 and the capacity
+     */
+    private long wrap(long slot) {
+        return slot >= capacity ? slot - capacity : slot;
+    }
+
+    /**
+     * Encodes an item into the record at a given slot
+     * @param slot long, slot number
+     * @param item an item of type T
+     */
+    private void write(long slot, T item) {
+        int segment = (int) (slot / recordsPerSegment);
+        codec.write(item, segments.get(segment), (int) (slot % recordsPerSegment) * recordSize);
+        dirtySegments.set(segment);
+    }
+
+    /**
+     * Decodes the item stored in the record at a given slot
+     * @param slot long, slot number
+     * @return decoded item of type T
+     */
+    private T read(long slot) {
+        int segment = (int) (slot / recordsPerSegment);
+        return codec.read(segments.get(segment), (int) (slot % recordsPerSegment) * recordSize);
+    }
+
+    /**
+     * Doubles the number of segments if adding the next item would not fit in them. Records wrapped
+     * around to the start of the array are copied right after the old end of the array and synced
+     * before the new segment count is written, so a crash during resizing leaves the old state intact.
+     */
+    private void checkForExpand() {
+        if (size + 1 <= capacity)
+            return;
+        if (capacity * 2 > MAX_CAPACITY)
+            throw new IllegalStateException("MappedFileDeque cannot hold more than " + MAX_CAPACITY + " records");
+        int oldSegmentCount = segments.size();
+        try {
+            for (int i = oldSegmentCount; i < oldSegmentCount * 2; i++)
+                mapSegment(i);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot grow MappedFileDeque in " + directory, e);
+        }
+
+        long wrapped = first + size - capacity;
+        long from = 0;
+        long to = capacity;
+        while (from < wrapped) {
+            int fromRecord = (int) (from % recordsPerSegment);
+            int toRecord = (int) (to % recordsPerSegment);
+            int run = (int) Math.min(wrapped - from, recordsPerSegment - Math.max(fromRecord, toRecord));
+            int toSegment = (int) (to / recordsPerSegment);
+            segments.get(toSegment).put(toRecord * recordSize,
+                    segments.get((int) (from / recordsPerSegment)), fromRecord * recordSize, run * recordSize);
+            segments.get(toSegment).force();
+            from += run;
+            to += run;
+        }
+
+        capacity *= 2;
+        header.putInt(SEGMENT_COUNT_OFFSET, oldSegmentCount * 2);
+        header.force();
+    }
+
+    /**
+     * Records the position of the first item and the size in the header with one write,
+     * then syncs if the policy asks for it
+     */
+    private void afterOperation() {
+        header.putLong(STATE_OFFSET, first << SIZE_BITS | size);
+        if (syncPolicy.interval > 0 && ++unsyncedOperations >= syncPolicy.interval)
+            sync();
+    }
+
+    /**
+     * Forces the changed segments and the header to disk
+     */
+    public void sync() {
+        ensureOpen();
+        for (int i = dirtySegments.nextSetBit(0); i >= 0; i = dirtySegments.nextSetBit(i + 1))
+            segments.get(i).force();
+        dirtySegments.clear();
+        header.force();
+        unsyncedOperations = 0;
+    }
+
+    /**
+     * Syncs the deque and closes its files. The deque cannot be used afterwards, its items
+     * are available to the next MappedFileDeque opened in the same directory.
+     * @throws IOException if a file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed)
+            return;
+        sync();
+        closed = true;
+        for (FileChannel channel : channels)
+            channel.close();
+        headerChannel.close();
+    }
+
+    /**
+     * Throws an exception if the deque has been closed
+     */
+    private void ensureOpen() {
+        if (closed)
+            throw new IllegalStateException("MappedFileDeque in " + directory + " is closed");
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param item an item of type T added to the front of the deque
+     */
+    @Override
+    public void addFirst(T item) {
+        ensureOpen();
+        checkNotNull(item);
+        checkForExpand();
+        long slot = first == 0 ? capacity - 1 : first - 1;
+        write(slot, item);
+        first = slot;
+        size++;
+        afterOperation();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param item an item of type T added to the end of the deque
+     */
+    @Override
+    public void addLast(T item) {
+        ensureOpen();
+        checkNotNull(item);
+        checkForExpand();
+        write(wrap(first + size), item);
+        size++;
+        afterOperation();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return int, cached size of the deque stored in the instance variable "size"
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void printDeque() {
+        for (int i = 0; i < size; i++)
+            System.out.print(get(i) + " ");
+        System.out.println();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return removed element of a given generic type, null if no such item exists
+     */
+    @Override
+    public T removeFirst() {
+        ensureOpen();
+        if (size == 0)
+            return null;
+        T item = read(first);
+        first = wrap(first + 1);
+        size--;
+        afterOperation();
+        return item;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return removed element of a given generic type, null if no such item exists
+     */
+    @Override
+    public T removeLast() {
+        ensureOpen();
+        if (size == 0)
+            return null;
+        T item = read(wrap(first + size - 1));
+        size--;
+        afterOperation();
+        return item;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param index int, a required index of the deque
+     * @return element of a generic type found at the required index in the deque
+     */
+    @Override
+    public T get(int index) {
+        ensureOpen();
+        if (index < 0 || index >= size)
+            return null;
+        return read(wrap(first + index));
+    }
+
+    /**
+     * Rejects null items, which would be indistinguishable from the null returned
+     * by removeFirst() and removeLast() of an empty deque
+     * @param item an item of type T
+     */
+    private static void checkNotNull(Object item) {
+        if (item == null)
+            throw new NullPointerException("MappedFileDeque does not permit null items");
+    }
+}
@@ -0,0 +1,88 @@
+import java.util.NoSuchElementException;
+
+/**
+ * A class representing a sliding time window of primitive double values answering both
+ * its minimum and its maximum in constant time, with one MonotonicDeque for each.
+ * The window holds the values whose timestamps are within a fixed length of the newest timestamp:
+ * pushing a value with timestamp t evicts every value older than t - length + 1. Time can also be
+ * moved forward without a new value with advanceTo(). Pushing and evicting take amortized constant
+ * time and allocate nothing once the deques have grown to the size of the window.
+ */
+public class MinMaxWindow {
+    private final long length;
+    private final MonotonicDeque minimum = MonotonicDeque.minimum();
+    private final MonotonicDeque maximum = MonotonicDeque.maximum();
+
+    /**
+     * Constructor creating an empty window
+     * @param length long, length of the window in units of the timestamps, at least 1
+     */
+    public MinMaxWindow(long length) {
+        if (length < 1)
+            throw new IllegalArgumentException("Window length must be positive: " + length);
+        this.length = length;
+    }
+
+    /**
+     * Adds a value to the window and evicts the values which fall out of it
+     * @param value double, new value of the window, not NaN
+     * @param timestamp long, time of the value, not smaller than the timestamp of the previous value
+     * @throws IllegalArgumentException if value is NaN or timestamp is older than the previous one
+     */
+    public void push(double value, long timestamp) {
+        minimum.push(value, timestamp);
+        maximum.push(value, timestamp);
+        advanceTo(timestamp);
+    }
+
+    /**
+     * Moves the end of the window to a given time, evicting the values which fall out of it
+     * @param timestamp long, newest time in the window
+     */
+    public void advanceTo(long timestamp) {
+        evictOlderThan(timestamp - length + 1);
+    }
+
+    /**
+     * Evicts the values with timestamps older than a given one
+     * @param timestamp long, timestamp of the oldest value kept in the window
+     */
+    public void evictOlderThan(long timestamp) {
+        minimum.evictOlderThan(timestamp);
+        maximum.evictOlderThan(timestamp);
+    }
+
+    /**
+     * Returns the smallest value in the window
+     * @return double, minimum of the window
+     * @throws NoSuchElementException if the window is empty
+     */
+    public double min() {
+        return minimum.peekFirst();
+    }
+
+    /**
+     * Returns the largest value in the window
+     * @return double, maximum of the window
+     * @throws NoSuchElementException if the window is empty
+     */
+    public double max() {
+        return maximum.peekFirst();
+    }
+
+    /**
+     * Checks whether the window holds no values
+     * @return true if the window is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return minimum.isEmpty();
+    }
+
+    /**
+     * Removes all values from the window
+     */
+    public void clear() {
+        minimum.clear();
+        maximum.clear();
+    }
+}
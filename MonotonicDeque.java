@@ -0,0 +1,174 @@
+import java.util.NoSuchElementException;
+
+/**
+ * A class representing a monotonic double-ended queue of timestamped primitive double values,
+ * answering the minimum or the maximum of a sliding window in constant time.
+ * Values are pushed at the back with non-decreasing timestamps. Before a value is added, every value
+ * at the back which can never again be the minimum (for a maximum deque: the maximum) is removed:
+ * one not smaller than the new value, which is both newer and at least as good. So the values kept
+ * are increasing from front to back, the front is the minimum of the window, and evictOlderThan()
+ * drops expired values from the front. Every value is added and removed once, so both operations
+ * take amortized constant time.
+ * Values and timestamps are kept in a double[] and a long[] with the circular layout of ArrayDeque,
+ * so pushing and evicting allocate nothing apart from an occasional resize. As in ArrayDeque
+ * the length of the arrays is always a power of two; they grow when full and never shrink, since a window
+ * keeps returning to the same size. A window of the last N values uses sequence numbers as timestamps.
+ */
+public class MonotonicDeque {
+    private static final int STARTING_SIZE = 8;
+
+    private final boolean maximum;
+    private double[] values;
+    private long[] timestamps;
+    private int first;
+    private int size;
+    private long lastTimestamp = Long.MIN_VALUE;
+
+    /**
+     * Constructor creating an empty MonotonicDeque
+     * @param maximum boolean, true to keep the maximum of the window, false to keep the minimum
+     */
+    private MonotonicDeque(boolean maximum) {
+        this.maximum = maximum;
+        values = new double[STARTING_SIZE];
+        timestamps = new long[STARTING_SIZE];
+    }
+
+    /**
+     * Creates an empty deque keeping the minimum of the window at its front
+     * @return MonotonicDeque of increasing values
+     */
+    public static MonotonicDeque minimum() {
+        return new MonotonicDeque(false);
+    }
+
+    /**
+     * Creates an empty deque keeping the maximum of the window at its front
+     * @return MonotonicDeque of decreasing values
+     */
+    public static MonotonicDeque maximum() {
+        return new MonotonicDeque(true);
+    }
+
+    /**
+     * Translates an index of the deque into a position in the arrays
+     * @param index int, index of the deque, 0 is the front
+     * @return int, position in the arrays
+     */
+    private int position(int index) {
+        return (first + index) & (values.length - 1);
+    }
+
+    /**
+     * Adds a value at the back of the deque, first removing the values at the back it makes irrelevant
+     * @param value double, new value of the window, not NaN
+     * @param timestamp long, time of the value, not smaller than the timestamp of the previous value
+     * @throws IllegalArgumentException if value is NaN or timestamp is older than the previous one
+     */
+    public void push(double value, long timestamp) {
+        if (Double.isNaN(value))
+            throw new IllegalArgumentException("Value must not be NaN");
+        if (timestamp < lastTimestamp)
+            throw new IllegalArgumentException("Timestamp " + timestamp + " is older than the previous one " + lastTimestamp);
+        lastTimestamp = timestamp;
+        while (size > 0) {
+            double last = values[position(size - 1)];
+            if (maximum ? last > value : last < value)
+                break;
+            size--;
+        }
+        if (size == values.length)
+            resize(values.length * 2);
+        int position = position(size);
+        values[position] = value;
+        timestamps[position] = timestamp;
+        size++;
+    }
+
+    /**
+     * Removes the values at the front with timestamps older than a given one
+     * @param timestamp long, timestamp of the oldest value kept in the window
+     * @return int, number of removed values
+     */
+    public int evictOlderThan(long timestamp) {
+        int evicted = 0;
+        while (size > 0 && timestamps[first] < timestamp) {
+            first = position(1);
+            size--;
+            evicted++;
+        }
+        return evicted;
+    }
+
+    /**
+     * Copies the values and timestamps into new arrays of a given length, starting at position zero
+     * @param capacity int, power of two length of the new arrays, not smaller than size
+     */
+    private void resize(int capacity) {
+        double[] newValues = new double[capacity];
+        long[] newTimestamps = new long[capacity];
+        int firstPart = Math.min(size, values.length - first);
+        System.arraycopy(values, first, newValues, 0, firstPart);
+        System.arraycopy(values, 0, newValues, firstPart, size - firstPart);
+        System.arraycopy(timestamps, first, newTimestamps, 0, firstPart);
+        System.arraycopy(timestamps, 0, newTimestamps, firstPart, size - firstPart);
+        values = newValues;
+        timestamps = newTimestamps;
+        first = 0;
+    }
+
+    /**
+     * Returns the minimum, for a maximum deque the maximum, of the values pushed and not evicted
+     * @return double value at the front of the deque
+     * @throws NoSuchElementException if the deque is empty
+     */
+    public double peekFirst() {
+        if (size == 0)
+            throw new NoSuchElementException("MonotonicDeque is empty");
+        return values[first];
+    }
+
+    /**
+     * Returns the timestamp of the value at the front, the time after which the minimum changes
+     * @return long, timestamp of the value at the front of the deque
+     * @throws NoSuchElementException if the deque is empty
+     */
+    public long peekFirstTimestamp() {
+        if (size == 0)
+            throw new NoSuchElementException("MonotonicDeque is empty");
+        return timestamps[first];
+    }
+
+    /**
+     * Checks whether the deque keeps the maximum rather than the minimum
+     * @return true for a maximum deque, false for a minimum deque
+     */
+    public boolean isMaximum() {
+        return maximum;
+    }
+
+    /**
+     * Returns the number of values kept, which is at most the number of values in the window
+     * @return int, number of values in the deque
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the deque is empty
+     * @return true if deque is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all values, keeping the arrays, and forgets the timestamp of the last value
+     */
+    public void clear() {
+        first = 0;
+        size = 0;
+        lastTimestamp = Long.MIN_VALUE;
+    }
+}
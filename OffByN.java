@@ -2,7 +2,7 @@
  * in the alphabet by provided number (e.g. 'a' and 'f' are 5 places away from each other)
  */
 public class OffByN implements CharacterComparator {
-    private int letterDifference;
+    private final int letterDifference;
 
     /**
      * Constructor creating an object with difference between letters set to a particular number
@@ -22,4 +22,44 @@ public class OffByN implements CharacterComparator {
     public boolean equalChars(char x, char y) {
         return (Math.abs(x - y) == letterDifference);
     }
+
+    /**
+     * {@inheritDoc}
+     * @param chars char[] holding the range
+     * @param from int, index of the first character of the range
+     * @param to int, index after the last character of the range
+     * @return true if every pair of mirrored characters is letterDifference places apart
+     */
+    @Override
+    public boolean matchesMirrored(char[] chars, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--)
+            if (Math.abs(chars[i] - chars[j]) != letterDifference)
+                return false;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param chars CharSequence holding the range
+     * @param from int, index of the first character of the range
+     * @param to int, index after the last character of the range
+     * @return true if every pair of mirrored characters is letterDifference places apart
+     */
+    @Override
+    public boolean matchesMirrored(CharSequence chars, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--)
+            if (Math.abs(chars.charAt(i) - chars.charAt(j)) != letterDifference)
+                return false;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Only the difference of 0, exact matching, is an equivalence relation.
+     * @return true if the difference between letters is 0, false otherwise
+     */
+    @Override
+    public boolean isEquivalence() {
+        return letterDifference == 0;
+    }
 }
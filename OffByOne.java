@@ -14,4 +14,34 @@ public class OffByOne implements CharacterComparator {
         return (Math.abs(x - y) == 1);
     }
 
+    /**
+     * {@inheritDoc}
+     * @param chars char[] holding the range
+     * @param from int, index of the first character of the range
+     * @param to int, index after the last character of the range
+     * @return true if every pair of mirrored characters is one place apart
+     */
+    @Override
+    public boolean matchesMirrored(char[] chars, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--)
+            if (Math.abs(chars[i] - chars[j]) != 1)
+                return false;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param chars CharSequence holding the range
+     * @param from int, index of the first character of the range
+     * @param to int, index after the last character of the range
+     * @return true if every pair of mirrored characters is one place apart
+     */
+    @Override
+    public boolean matchesMirrored(CharSequence chars, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--)
+            if (Math.abs(chars.charAt(i) - chars.charAt(j)) != 1)
+                return false;
+        return true;
+    }
+
 }
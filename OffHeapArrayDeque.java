@@ -0,0 +1,279 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A class representing a circular array implementation of double-ended queue keeping its items
+ * outside of the Java heap. Every item is encoded by a RecordCodec into a fixed-width record of
+ * a direct ByteBuffer, so the stored items are invisible to the garbage collector no matter
+ * how many of them there are. Records are addressed with the same nextFirst and nextLast pointers
+ * as in ArrayDeque: if the front pointer is at record zero invoking addFirst() method loops
+ * the pointer back around to the last record. If calling addFirst() or addLast() method requires
+ * resizing, a new buffer of double the capacity is allocated, as in ArrayDeque.expandArray().
+ * The buffer is never shrunk, since allocating direct memory is expensive.
+ * Fields of stored records can be read and updated in place, without decoding the whole item,
+ * with getLong()/getInt() and setLong()/setInt().
+ * Null items are not permitted.
+ * @param <T> generic type of stored data
+ */
+public class OffHeapArrayDeque<T> implements Deque<T> {
+    private final RecordCodec<T> codec;
+    private final int recordSize;
+    private ByteBuffer records;
+    private int capacity;
+    private int size;
+    private int nextFirst;
+    private int nextLast;
+    private static final int RFACTOR = 2;
+    private static final int STARTING_SIZE = 8;
+
+    /**
+     * Constructor creating an empty OffHeapArrayDeque
+     * @param codec RecordCodec, encoder and decoder of the stored items
+     */
+    public OffHeapArrayDeque(RecordCodec<T> codec) {
+        this(codec, STARTING_SIZE);
+    }
+
+    /**
+     * Constructor creating an empty OffHeapArrayDeque with room for a given number of records
+     * @param codec RecordCodec, encoder and decoder of the stored items
+     * @param initialCapacity int, number of records allocated up front, at least 2
+     */
+    public OffHeapArrayDeque(RecordCodec<T> codec, int initialCapacity) {
+        if (codec.recordSize() <= 0)
+            throw new IllegalArgumentException("Record size must be positive: " + codec.recordSize());
+        if (initialCapacity < 2)
+            throw new IllegalArgumentException("Initial capacity must be at least 2: " + initialCapacity);
+        this.codec = codec;
+        recordSize = codec.recordSize();
+        capacity = initialCapacity;
+        records = allocate(capacity);
+        nextFirst = capacity / 2 - 1;
+        nextLast = capacity / 2;
+    }
+
+    /**
+     * Allocates a direct buffer of a given number of records, in the platform's byte order
+     * @param records int, number of records
+     * @return ByteBuffer, new direct buffer
+     */
+    private ByteBuffer allocate(int records) {
+        if ((long) records * recordSize > Integer.MAX_VALUE)
+            throw new IllegalStateException("OffHeapArrayDeque cannot hold more than "
+                    + Integer.MAX_VALUE / recordSize + " records of " + recordSize + " bytes");
+        return ByteBuffer.allocateDirect(records * recordSize).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Moves a pointer one record to the left
+     * @param thisFirst int, index of a record
+     * @return int, index of a record one place to the left
+     */
+    private int moveBackwards(int thisFirst) {
+        return thisFirst == 0 ? capacity - 1 : thisFirst - 1;
+    }
+
+    /**
+     * Moves a pointer one record to the right
+     * @param thisLast int, index of a record
+     * @return int, index of a record one place to the right
+     */
+    private int moveForward(int thisLast) {
+        return thisLast == capacity - 1 ? 0 : thisLast + 1;
+    }
+
+    /**
+     * Calculates the position of the first byte of the record holding the item at a given index
+     * @param index int, index of the deque
+     * @return int, position in the buffer
+     */
+    private int offset(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+        int record = moveForward(nextFirst) + index;
+        if (record >= capacity)
+            record -= capacity;
+        return record * recordSize;
+    }
+
+    /**
+     * Doubles the capacity of the buffer if adding the next item would not fit in it.
+     * Copies the records from the first one to the end of the buffer and then the wrapped ones
+     * to the start of the new buffer, so the first record ends up at position zero.
+     */
+    private void checkForExpand() {
+        if (size + 1 <= capacity)
+            return;
+        ByteBuffer newRecords = allocate(capacity * RFACTOR);
+        int indexFirstValue = moveForward(nextFirst);
+        int firstPart = capacity - indexFirstValue;
+
+        newRecords.put(0, records, indexFirstValue * recordSize, firstPart * recordSize);
+        newRecords.put(firstPart * recordSize, records, 0, indexFirstValue * recordSize);
+
+        records = newRecords;
+        nextLast = capacity;
+        capacity *= RFACTOR;
+        nextFirst = capacity - 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param item an item of type T added to the front of the deque
+     */
+    @Override
+    public void addFirst(T item) {
+        checkNotNull(item);
+        checkForExpand();
+        codec.write(item, records, nextFirst * recordSize);
+        size++;
+        nextFirst = moveBackwards(nextFirst);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param item an item of type T added to the end of the deque
+     */
+    @Override
+    public void addLast(T item) {
+        checkNotNull(item);
+        checkForExpand();
+        codec.write(item, records, nextLast * recordSize);
+        size++;
+        nextLast = moveForward(nextLast);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return int, cached size of the deque stored in the instance variable "size"
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of records the buffer can hold before it has to be resized
+     * @return int, capacity of the buffer in records
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void printDeque() {
+        for (int i = 0; i < size; i++)
+            System.out.print(get(i) + " ");
+        System.out.println();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return removed element of a given generic type, null if no such item exists
+     */
+    @Override
+    public T removeFirst() {
+        if (size == 0)
+            return null;
+        nextFirst = moveForward(nextFirst);
+        size--;
+        return codec.read(records, nextFirst * recordSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return removed element of a given generic type, null if no such item exists
+     */
+    @Override
+    public T removeLast() {
+        if (size == 0)
+            return null;
+        nextLast = moveBackwards(nextLast);
+        size--;
+        return codec.read(records, nextLast * recordSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param index int, a required index of the deque
+     * @return element of a generic type found at the required index in the deque
+     */
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size)
+            return null;
+        return codec.read(records, offset(index));
+    }
+
+    /**
+     * Reads a long field of the record at a given index without decoding the item
+     * @param index int, index of the deque
+     * @param fieldOffset int, position of the field within the record
+     * @return long value of the field
+     * @throws IndexOutOfBoundsException if index is negative or not smaller than size
+     */
+    public long getLong(int index, int fieldOffset) {
+        checkField(fieldOffset, Long.BYTES);
+        return records.getLong(offset(index) + fieldOffset);
+    }
+
+    /**
+     * Reads an int field of the record at a given index without decoding the item
+     * @param index int, index of the deque
+     * @param fieldOffset int, position of the field within the record
+     * @return int value of the field
+     * @throws IndexOutOfBoundsException if index is negative or not smaller than size
+     */
+    public int getInt(int index, int fieldOffset) {
+        checkField(fieldOffset, Integer.BYTES);
+        return records.getInt(offset(index) + fieldOffset);
+    }
+
+    /**
+     * Overwrites a long field of the record at a given index in place
+     * @param index int, index of the deque
+     * @param fieldOffset int, position of the field within the record
+     * @param value long, new value of the field
+     * @throws IndexOutOfBoundsException if index is negative or not smaller than size
+     */
+    public void setLong(int index, int fieldOffset, long value) {
+        checkField(fieldOffset, Long.BYTES);
+        records.putLong(offset(index) + fieldOffset, value);
+    }
+
+    /**
+     * Overwrites an int field of the record at a given index in place
+     * @param index int, index of the deque
+     * @param fieldOffset int, position of the field within the record
+     * @param value int, new value of the field
+     * @throws IndexOutOfBoundsException if index is negative or not smaller than size
+     */
+    public void setInt(int index, int fieldOffset, int value) {
+        checkField(fieldOffset, Integer.BYTES);
+        records.putInt(offset(index) + fieldOffset, value);
+    }
+
+    /**
+     * Checks that a field of a given width lies within a record
+     * @param fieldOffset int, position of the field within the record
+     * @param width int, size of the field in bytes
+     */
+    private void checkField(int fieldOffset, int width) {
+        if (fieldOffset < 0 || fieldOffset + width > recordSize)
+            throw new IndexOutOfBoundsException("Field at " + fieldOffset + " of " + width
+                    + " bytes exceeds the record size " + recordSize);
+    }
+
+    /**
+     * Rejects null items, which would be indistinguishable from the null returned
+     * by removeFirst() and removeLast() of an empty deque
+     * @param item an item of type T
+     */
+    private static void checkNotNull(Object item) {
+        if (item == null)
+            throw new NullPointerException("OffHeapArrayDeque does not permit null items");
+    }
+}
@@ -1,6 +1,10 @@
 /** A class checking whether the word is a palindrome (a word that is the same whether it is forward
- * or backwards or a word of length 0 or 1) using Double Ended Queue */
+ * or backwards or a word of length 0 or 1) using Double Ended Queue.
+ * Every check compares the characters from both ends once, moving towards the middle, so it takes
+ * linear time and allocates nothing: words are read through CharSequence without being copied,
+ * and a CharArrayDeque can be filled and checked again and again without allocating. */
 public class Palindrome {
+    private static final CodePointComparator EXACT_CODE_POINTS = (x, y) -> x == y;
 
     /**
      * Produces a deque of characters creating a provided word.
@@ -18,62 +22,93 @@ public class Palindrome {
     }
 
     /**
-     * Checks whether a given word is a palindrome. Uses recursion
-     * @param word A string of letters with no spaces
-     * @return true if the word is a palindrome, false otherwise
+     * Fills a deque of primitive characters with a provided word, replacing its previous contents.
+     * The array of the deque is kept, so reusing one deque for words of similar length allocates nothing.
+     * @param word A sequence of letters with no spaces
+     * @param deque CharArrayDeque to be filled
+     * @return the same CharArrayDeque, holding the characters of the word
      */
-    public boolean isPalindrome(String word) {
-        Deque<Character> wordDeque = this.wordToDeque(word);
-
-        if (wordDeque.size() == 0 || wordDeque.size() == 1) {
-            return true;
-        } else {
-            // remove the first and the last element and compare them, if they are the same continue
-            // checking whether the stripped word is a palindrome, if they are different return false
-            if (wordDeque.removeFirst() == wordDeque.removeLast()) {
-                return isPalindrome(dequeToString(wordDeque));
-            } else {
-                return false;
-            }
-        }
+    public CharArrayDeque wordToCharDeque(CharSequence word, CharArrayDeque deque) {
+        deque.clear();
+        for (int i = 0; i < word.length(); i++)
+            deque.addLast(word.charAt(i));
+        return deque;
     }
 
     /**
-     * Helper method for isPalindrome()s used to convert deque of characters to a string
-     * @param wordDeque Double ended queue of characters
-     * @return Ordered String consisting of characters from the deque
+     * Checks whether a given word is a palindrome. Compares characters from both ends once
+     * @param word A sequence of letters with no spaces
+     * @return true if the word is a palindrome, false otherwise
      */
-    private String dequeToString(Deque<Character> wordDeque) {
-        String convertedDeque = "";
-        while (wordDeque.size() > 0) {
-            convertedDeque += wordDeque.removeFirst();
-        }
-        return convertedDeque;
+    public boolean isPalindrome(CharSequence word) {
+        for (int i = 0, j = word.length() - 1; i < j; i++, j--)
+            if (word.charAt(i) != word.charAt(j))
+                return false;
+        return true;
     }
 
     /**
      * Method that checks whether the word is an off-palindrome based to character comparision test.
-     * Uses recursion
-     * @param word String of letters with no spaces
+     * Compares characters from both ends once, the middle character of a word of odd length
+     * is not compared. The whole word is handed to the comparator in one call
+     * @param word A sequence of letters with no spaces
      * @param cc Comparator object, either a standard one with no parameters provided
      *           (i.e. offByOne: 'a' -> 'a') or one with a specified parameter for the difference
      *           between letters (i.e. offByN(5): 'a' -> 'f')
      * @return true if the word is an off-palindrome, false otherwise
      */
-    public boolean isPalindrome(String word, CharacterComparator cc) {
-        Deque<Character> wordDeque = this.wordToDeque(word);
+    public boolean isPalindrome(CharSequence word, CharacterComparator cc) {
+        return cc.matchesMirrored(word, 0, word.length());
+    }
 
-        if (wordDeque.size() == 0 || wordDeque.size() == 1)
-            return true;
-        else {
-            // remove the first and the last element and compare them, if they are away from each other
-            // by correct number of places continue checking whether the stripped word is a palindrome,
-            // if they are different return false
-            if (cc.equalChars(wordDeque.removeFirst(), wordDeque.removeLast()))
-                return isPalindrome(dequeToString(wordDeque), cc);
-            else
+    /**
+     * Checks whether a given word is a palindrome of Unicode code points, so letters written
+     * with surrogate pairs, such as emoji, are compared whole instead of as two halves in reverse order.
+     * Walks code points from both ends without copying the word
+     * @param word A sequence of letters with no spaces
+     * @return true if the word is a palindrome, false otherwise
+     */
+    public boolean isCodePointPalindrome(CharSequence word) {
+        return EXACT_CODE_POINTS.matchesMirrored(word, 0, word.length());
+    }
+
+    /**
+     * Checks whether a given word is an off-palindrome of Unicode code points based on code point
+     * comparision test, e.g. regardless of case or accents. The comparator folds every pair of code points
+     * while comparing, so the word is neither lower-cased nor normalized up front
+     * @param word A sequence of letters with no spaces
+     * @param cc CodePointComparator deciding whether two code points match and which ones are skipped
+     * @return true if the word is an off-palindrome, false otherwise
+     */
+    public boolean isCodePointPalindrome(CharSequence word, CodePointComparator cc) {
+        return cc.matchesMirrored(word, 0, word.length());
+    }
+
+    /**
+     * Checks whether the characters stored in a deque form a palindrome. Does not alter the deque
+     * @param deque CharArrayDeque holding a word
+     * @return true if the word is a palindrome, false otherwise
+     */
+    public boolean isPalindrome(CharArrayDeque deque) {
+        for (int i = 0, j = deque.size() - 1; i < j; i++, j--)
+            if (deque.get(i) != deque.get(j))
                 return false;
-        }
+        return true;
+    }
+
+    /**
+     * Checks whether the characters stored in a deque form an off-palindrome based on character
+     * comparision test. Does not alter the deque, the middle character of a word of odd length
+     * is not compared
+     * @param deque CharArrayDeque holding a word
+     * @param cc Comparator object deciding whether two characters match
+     * @return true if the word is an off-palindrome, false otherwise
+     */
+    public boolean isPalindrome(CharArrayDeque deque, CharacterComparator cc) {
+        for (int i = 0, j = deque.size() - 1; i < j; i++, j--)
+            if (!cc.equalChars(deque.get(i), deque.get(j)))
+                return false;
+        return true;
     }
 
 }
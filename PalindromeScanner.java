@@ -0,0 +1,297 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A class scanning many words at once for palindromes, one word per line of a file or per element
+ * of a stream. Words are checked by Palindrome, either exactly or by the rules of a CharacterComparator.
+ * Work is split across the threads of a fork/join pool:
+ * 1. streams are filtered lazily, so hits are passed on as they are found; the pool runs
+ *    the terminal operations of count(Stream), which process a parallel stream
+ * 2. a memory-mapped file is cut into chunks at line boundaries, each chunk is mapped and
+ *    scanned by a separate task, without decoding the lines into Strings unless they are hits.
+ *    Mapped files are read as single-byte text (US-ASCII or ISO-8859-1), every byte is one character
+ * Lines end with '\n' or "\r\n"; as in Files.lines() a final line break does not start another line,
+ * and an empty line is a palindrome.
+ */
+public class PalindromeScanner {
+    private static final long DEFAULT_CHUNK_SIZE = 64L << 20;
+    private static final int BOUNDARY_SEARCH_SIZE = 4096;
+    // a cut moves forward to the next line, so a chunk may run this far past chunkSize
+    private static final long MAX_LINE_OVERLAP = 64L << 20;
+    // a chunk is mapped into one MappedByteBuffer, which holds at most Integer.MAX_VALUE bytes
+    private static final long MAX_CHUNK_SIZE = Integer.MAX_VALUE - MAX_LINE_OVERLAP;
+
+    private final Palindrome palindrome = new Palindrome();
+    private final CharacterComparator cc;
+    private final ForkJoinPool pool;
+    private final long chunkSize;
+
+    /**
+     * Constructor creating a scanner looking for exact palindromes with the common fork/join pool
+     */
+    public PalindromeScanner() {
+        this(null, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructor creating a scanner looking for off-palindromes with the common fork/join pool
+     * @param cc CharacterComparator deciding whether two characters match, null for exact palindromes
+     */
+    public PalindromeScanner(CharacterComparator cc) {
+        this(cc, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructor creating a scanner running its tasks in a given pool
+     * @param cc CharacterComparator deciding whether two characters match, null for exact palindromes
+     * @param pool ForkJoinPool running the scanning tasks, its parallelism decides how many threads scan
+     * @param chunkSize long, number of bytes of a mapped file scanned by one task, at least 1,
+     *        lowered to Integer.MAX_VALUE minus 64 MB so that a chunk still fits into one mapping
+     *        after its end is moved to the next line
+     */
+    public PalindromeScanner(CharacterComparator cc, ForkJoinPool pool, long chunkSize) {
+        if (pool == null)
+            throw new NullPointerException("Fork/join pool must not be null");
+        if (chunkSize < 1)
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        this.cc = cc;
+        this.pool = pool;
+        this.chunkSize = Math.min(chunkSize, MAX_CHUNK_SIZE);
+    }
+
+    /**
+     * Returns the number of bytes of a mapped file scanned by one task
+     * @return long, chunk size, at most Integer.MAX_VALUE minus 64 MB
+     */
+    public long chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Checks a single word by the rules of this scanner
+     * @param word A sequence of letters with no spaces
+     * @return true if the word is a palindrome, false otherwise
+     */
+    public boolean matches(CharSequence word) {
+        return cc == null ? palindrome.isPalindrome(word) : palindrome.isPalindrome(word, cc);
+    }
+
+    /**
+     * Filters a stream of words down to the palindromes. The returned stream is lazy and keeps
+     * the parallelism of the given one, so hits are passed on as they are found
+     * @param words Stream of words
+     * @return Stream of the words that are palindromes
+     */
+    public Stream<String> palindromes(Stream<String> words) {
+        return words.filter(this::matches);
+    }
+
+    /**
+     * Reads the lines of a file lazily and filters them down to the palindromes.
+     * The returned stream holds the file open and has to be closed
+     * @param file Path of a text file, one word per line
+     * @param charset Charset of the file
+     * @return Stream of the lines that are palindromes
+     * @throws IOException if the file cannot be opened
+     */
+    public Stream<String> palindromes(Path file, Charset charset) throws IOException {
+        return palindromes(Files.lines(file, charset));
+    }
+
+    /**
+     * Counts the palindromes in a stream of words, processing it in parallel in the pool of this scanner
+     * @param words Stream of words
+     * @return long, number of palindromes
+     */
+    public long count(Stream<String> words) {
+        return pool.submit(() -> palindromes(words.parallel()).count()).join();
+    }
+
+    /**
+     * Counts the palindromes among the lines of a memory-mapped file
+     * @param file Path of a single-byte text file, one word per line
+     * @return long, number of palindromes
+     * @throws IOException if the file cannot be read
+     */
+    public long count(Path file) throws IOException {
+        return scan(file, null);
+    }
+
+    /**
+     * Scans the lines of a memory-mapped file in the pool of this scanner, passing every palindrome
+     * to a consumer as soon as it is found. The consumer is called from several threads at once
+     * and in no particular order
+     * @param file Path of a single-byte text file, one word per line
+     * @param hits Consumer of the palindromes, null to only count them
+     * @return long, number of palindromes
+     * @throws IOException if the file cannot be read
+     */
+    public long scan(Path file, Consumer<? super String> hits) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] boundaries = chunkBoundaries(channel);
+            LongAdder found = new LongAdder();
+            List<ChunkTask> tasks = new ArrayList<>();
+            for (int i = 0; i + 1 < boundaries.length; i++)
+                tasks.add(new ChunkTask(channel, boundaries[i], boundaries[i + 1], hits, found));
+            try {
+                pool.submit(() -> ChunkTask.invokeAll(tasks)).join();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            return found.sum();
+        }
+    }
+
+    /**
+     * Cuts a file into chunks of about chunkSize bytes, moving every cut forward to the start
+     * of the next line, so each line belongs to exactly one chunk
+     * @param channel FileChannel of the file
+     * @return long[], positions of the chunk boundaries, starting with 0 and ending with the file size
+     * @throws IOException if the file cannot be read, or holds a line too long for a chunk to be mapped
+     */
+    private long[] chunkBoundaries(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        ByteBuffer buffer = ByteBuffer.allocate(BOUNDARY_SEARCH_SIZE);
+        long position = chunkSize;
+        while (position < size) {
+            long lineStart = size;
+            search:
+            for (long p = position; p < size; p += BOUNDARY_SEARCH_SIZE) {
+                buffer.clear();
+                int read = channel.read(buffer, p);
+                for (int i = 0; i < read; i++) {
+                    if (buffer.get(i) == '\n') {
+                        lineStart = p + i + 1;
+                        break search;
+                    }
+                }
+            }
+            if (lineStart >= size)
+                break;
+            checkMappable(boundaries.get(boundaries.size() - 1), lineStart);
+            boundaries.add(lineStart);
+            position = lineStart + chunkSize;
+        }
+        checkMappable(boundaries.get(boundaries.size() - 1), size);
+        boundaries.add(size);
+        long[] result = new long[boundaries.size()];
+        for (int i = 0; i < result.length; i++)
+            result[i] = boundaries.get(i);
+        return result;
+    }
+
+    /**
+     * Throws an exception if a chunk is too long to be mapped into one buffer, which happens only
+     * when a line runs more than 64 MB past the cut
+     * @param from long, position of the first byte of the chunk
+     * @param to long, position after the last byte of the chunk
+     * @throws IOException if the chunk is longer than Integer.MAX_VALUE bytes
+     */
+    private static void checkMappable(long from, long to) throws IOException {
+        if (to - from > Integer.MAX_VALUE)
+            throw new IOException("Chunk from " + from + " to " + to
+                    + " is too long to be mapped, a line runs more than 64 MB past the cut");
+    }
+
+    /** A class representing the task scanning the lines of one chunk of a mapped file, never serialized */
+    @SuppressWarnings("serial")
+    private final class ChunkTask extends RecursiveTask<Void> {
+        private final FileChannel channel;
+        private final long from;
+        private final long to;
+        private final Consumer<? super String> hits;
+        private final LongAdder found;
+        private char[] chars = new char[64];
+
+        private ChunkTask(FileChannel channel, long from, long to, Consumer<? super String> hits, LongAdder found) {
+            this.channel = channel;
+            this.from = from;
+            this.to = to;
+            this.hits = hits;
+            this.found = found;
+        }
+
+        @Override
+        protected Void compute() {
+            MappedByteBuffer buffer;
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            int limit = buffer.limit();
+            int lineStart = 0;
+            long count = 0;
+            for (int i = 0; i <= limit; i++) {
+                if (i < limit && buffer.get(i) != '\n')
+                    continue;
+                // the last line of the file has no line break, an empty one is not a line at all
+                if (i == limit && lineStart == limit)
+                    break;
+                int lineEnd = i > lineStart && buffer.get(i - 1) == '\r' ? i - 1 : i;
+                if (matches(buffer, lineStart, lineEnd)) {
+                    count++;
+                    if (hits != null)
+                        hits.accept(line(buffer, lineStart, lineEnd));
+                }
+                lineStart = i + 1;
+            }
+            found.add(count);
+            return null;
+        }
+
+        /**
+         * Checks the line held by a range of a buffer, reading every byte as one character.
+         * Exact palindromes are checked on the bytes, off-palindromes are decoded into a reused
+         * array first and handed to the comparator in one call
+         * @param buffer ByteBuffer holding the line
+         * @param from int, position of the first character
+         * @param to int, position after the last character
+         * @return true if the line is a palindrome, false otherwise
+         */
+        private boolean matches(ByteBuffer buffer, int from, int to) {
+            if (cc == null) {
+                for (int i = from, j = to - 1; i < j; i++, j--)
+                    if (buffer.get(i) != buffer.get(j))
+                        return false;
+                return true;
+            }
+            int length = to - from;
+            if (length > chars.length)
+                chars = new char[Math.max(length, chars.length * 2)];
+            for (int i = 0; i < length; i++)
+                chars[i] = (char) (buffer.get(from + i) & 0xFF);
+            return cc.matchesMirrored(chars, 0, length);
+        }
+
+        /**
+         * Decodes a line of single-byte characters
+         * @param buffer ByteBuffer holding the line
+         * @param from int, position of the first character
+         * @param to int, position after the last character
+         * @return String, the line
+         */
+        private String line(ByteBuffer buffer, int from, int to) {
+            char[] chars = new char[to - from];
+            for (int i = from; i < to; i++)
+                chars[i - from] = (char) (buffer.get(i) & 0xFF);
+            return new String(chars);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * A class finding the palindromes hidden inside a longer text: the longest palindromic substring
+ * and the number of palindromic substrings. Where Palindrome checks a whole word, this class
+ * looks at every substring at once using Manacher's algorithm: for every center of the text
+ * it finds the radius of the longest palindrome around it, starting from the radius already known
+ * for the center mirrored within the rightmost palindrome found so far, so every character is
+ * compared a constant number of times and the whole text is processed in linear time.
+ * Off-palindromes are found by the rules of a CharacterComparator. Mirroring needs a comparator
+ * which is an equivalence relation (see CharacterComparator.isEquivalence()); for any other comparator,
+ * such as OffByOne, the radius of every center is found by expanding from scratch, which is linear
+ * for typical text and quadratic in the worst case. As in Palindrome, the middle character
+ * of an off-palindrome of odd length is not compared, and the comparator should be symmetric.
+ * Distinct palindromes are counted by PalindromicTree.
+ */
+public class PalindromicSubstrings {
+
+    /**
+     * Finds the longest substring of a text which is a palindrome
+     * @param text A sequence of characters
+     * @return String, the leftmost of the longest palindromic substrings, empty for an empty text
+     */
+    public String longest(CharSequence text) {
+        return longest(text, null);
+    }
+
+    /**
+     * Finds the longest substring of a text which is an off-palindrome by the rules of a comparator
+     * @param text A sequence of characters
+     * @param cc CharacterComparator deciding whether two characters match, null for exact palindromes
+     * @return String, the leftmost of the longest palindromic substrings, empty for an empty text
+     */
+    public String longest(CharSequence text, CharacterComparator cc) {
+        int[] odd = oddRadii(text, cc);
+        int[] even = evenRadii(text, cc);
+        int start = 0;
+        int length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (2 * odd[i] - 1 > length) {
+                length = 2 * odd[i] - 1;
+                start = i - odd[i] + 1;
+            }
+            if (2 * even[i] > length) {
+                length = 2 * even[i];
+                start = i - even[i];
+            }
+        }
+        return text.subSequence(start, start + length).toString();
+    }
+
+    /**
+     * Counts the non-empty substrings of a text which are palindromes, every occurrence separately
+     * @param text A sequence of characters
+     * @return long, number of palindromic substrings
+     */
+    public long count(CharSequence text) {
+        return count(text, null);
+    }
+
+    /**
+     * Counts the non-empty substrings of a text which are off-palindromes by the rules of a comparator,
+     * every occurrence separately
+     * @param text A sequence of characters
+     * @param cc CharacterComparator deciding whether two characters match, null for exact palindromes
+     * @return long, number of palindromic substrings
+     */
+    public long count(CharSequence text, CharacterComparator cc) {
+        int[] odd = oddRadii(text, cc);
+        int[] even = evenRadii(text, cc);
+        long count = 0;
+        for (int i = 0; i < text.length(); i++)
+            count += odd[i] + even[i];
+        return count;
+    }
+
+    /**
+     * Counts the different non-empty substrings of a text which are palindromes
+     * @param text A sequence of characters
+     * @return int, number of distinct palindromic substrings
+     */
+    public int countDistinct(CharSequence text) {
+        PalindromicTree tree = new PalindromicTree(text.length());
+        tree.addAll(text);
+        return tree.distinct();
+    }
+
+    /**
+     * Finds for every character the number of palindromes of odd length centered on it
+     * @param text A sequence of characters
+     * @param cc CharacterComparator deciding whether two characters match, null for exact palindromes
+     * @return int[], radii of the longest palindromes of odd length, the middle character included
+     */
+    private int[] oddRadii(CharSequence text, CharacterComparator cc) {
+        int n = text.length();
+        int[] radii = new int[n];
+        boolean mirror = cc == null || cc.isEquivalence();
+        // [left, right] is the rightmost palindrome found so far
+        for (int i = 0, left = 0, right = -1; i < n; i++) {
+            int k = !mirror || i > right ? 1 : Math.min(radii[left + right - i], right - i + 1);
+            while (i - k >= 0 && i + k < n && matches(text.charAt(i - k), text.charAt(i + k), cc))
+                k++;
+            radii[i] = k--;
+            if (i + k > right) {
+                left = i - k;
+                right = i + k;
+            }
+        }
+        return radii;
+    }
+
+    /**
+     * Finds for every character the number of palindromes of even length whose right half starts on it
+     * @param text A sequence of characters
+     * @param cc CharacterComparator deciding whether two characters match, null for exact palindromes
+     * @return int[], half lengths of the longest palindromes of even length
+     */
+    private int[] evenRadii(CharSequence text, CharacterComparator cc) {
+        int n = text.length();
+        int[] radii = new int[n];
+        boolean mirror = cc == null || cc.isEquivalence();
+        for (int i = 0, left = 0, right = -1; i < n; i++) {
+            int k = !mirror || i > right ? 0 : Math.min(radii[left + right - i + 1], right - i + 1);
+            while (i - k - 1 >= 0 && i + k < n && matches(text.charAt(i - k - 1), text.charAt(i + k), cc))
+                k++;
+            radii[i] = k--;
+            if (i + k > right) {
+                left = i - k - 1;
+                right = i + k;
+            }
+        }
+        return radii;
+    }
+
+    /**
+     * Compares two characters exactly or by the rules of a comparator
+     * @param x char, character from the left half
+     * @param y char, character from the right half
+     * @param cc CharacterComparator deciding whether two characters match, null for exact palindromes
+     * @return true if the characters match, false otherwise
+     */
+    private static boolean matches(char x, char y, CharacterComparator cc) {
+        return cc == null ? x == y : cc.equalChars(x, y);
+    }
+}
@@ -0,0 +1,213 @@
+import java.util.Arrays;
+
+/**
+ * A class representing a palindromic tree (eertree) of a text built one character at a time.
+ * Every node stands for one distinct palindrome of the text: an edge labelled c leads from
+ * palindrome p to palindrome cpc, and a suffix link leads to the longest palindrome that p ends with.
+ * Two roots, of length -1 and 0, are the parents of the palindromes of odd and even length.
+ * Appending a character follows suffix links from the longest palindromic suffix of the text
+ * until the new character can extend one of them, so at most one node is added per character
+ * and a text of length n is processed in O(n) amortized steps.
+ * Nodes are kept in parallel int arrays and the outgoing edges of a node in a linked list
+ * of edge arrays, so the tree allocates only when its arrays are full, whatever the alphabet.
+ */
+public class PalindromicTree {
+    private static final int STARTING_SIZE = 16;
+    private static final int IMAGINARY_ROOT = 0;
+    private static final int EMPTY_ROOT = 1;
+
+    private char[] text;
+    private int length;
+
+    // nodes
+    private int[] palindromeLength;
+    private int[] suffixLink;
+    private int[] suffixes;
+    private int[] firstEdge;
+    private int nodes;
+
+    // edges, each node's outgoing edges are linked through nextEdge
+    private char[] edgeLabel;
+    private int[] edgeTarget;
+    private int[] nextEdge;
+    private int edges;
+
+    private int longestSuffix;
+    private int longestNode;
+    private int longestEnd;
+    private long occurrences;
+
+    /**
+     * Constructor creating the tree of an empty text
+     */
+    public PalindromicTree() {
+        this(STARTING_SIZE);
+    }
+
+    /**
+     * Constructor creating the tree of an empty text, with room for a given number of characters
+     * @param expectedLength int, number of characters allocated up front
+     */
+    public PalindromicTree(int expectedLength) {
+        if (expectedLength < 0)
+            throw new IllegalArgumentException("Expected length must not be negative: " + expectedLength);
+        int capacity = Math.max(expectedLength, 1);
+        text = new char[capacity];
+        palindromeLength = new int[capacity + 2];
+        suffixLink = new int[capacity + 2];
+        suffixes = new int[capacity + 2];
+        firstEdge = new int[capacity + 2];
+        edgeLabel = new char[capacity];
+        edgeTarget = new int[capacity];
+        nextEdge = new int[capacity];
+
+        palindromeLength[IMAGINARY_ROOT] = -1;
+        suffixLink[IMAGINARY_ROOT] = IMAGINARY_ROOT;
+        firstEdge[IMAGINARY_ROOT] = -1;
+        palindromeLength[EMPTY_ROOT] = 0;
+        suffixLink[EMPTY_ROOT] = IMAGINARY_ROOT;
+        firstEdge[EMPTY_ROOT] = -1;
+        nodes = 2;
+        longestSuffix = EMPTY_ROOT;
+        longestNode = EMPTY_ROOT;
+    }
+
+    /**
+     * Appends a character to the text, adding the new palindrome ending with it, if there is one
+     * @param c char, appended character
+     */
+    public void add(char c) {
+        if (length == text.length)
+            text = Arrays.copyOf(text, length * 2);
+        int position = length;
+        text[length++] = c;
+
+        int parent = extendable(longestSuffix, position, c);
+        int node = edge(parent, c);
+        if (node < 0) {
+            node = newNode(palindromeLength[parent] + 2);
+            if (palindromeLength[node] == 1)
+                suffixLink[node] = EMPTY_ROOT;
+            else
+                suffixLink[node] = edge(extendable(suffixLink[parent], position, c), c);
+            suffixes[node] = suffixes[suffixLink[node]] + 1;
+            newEdge(parent, c, node);
+            if (palindromeLength[node] > palindromeLength[longestNode]) {
+                longestNode = node;
+                longestEnd = length;
+            }
+        }
+        longestSuffix = node;
+        occurrences += suffixes[node];
+    }
+
+    /**
+     * Appends every character of a sequence to the text
+     * @param chars A sequence of characters
+     */
+    public void addAll(CharSequence chars) {
+        for (int i = 0; i < chars.length(); i++)
+            add(chars.charAt(i));
+    }
+
+    /**
+     * Returns the number of characters of the text
+     * @return int, length of the text
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Returns the number of different non-empty palindromes found in the text, one per node of the tree
+     * @return int, number of distinct palindromic substrings
+     */
+    public int distinct() {
+        return nodes - 2;
+    }
+
+    /**
+     * Returns the number of non-empty palindromic substrings of the text, every occurrence separately
+     * @return long, number of palindromic substrings
+     */
+    public long count() {
+        return occurrences;
+    }
+
+    /**
+     * Returns the longest palindromic substring of the text
+     * @return String, the leftmost of the longest palindromic substrings, empty for an empty text
+     */
+    public String longest() {
+        return new String(text, longestEnd - palindromeLength[longestNode], palindromeLength[longestNode]);
+    }
+
+    /**
+     * Follows suffix links from a palindromic suffix of the text until one is found
+     * that is preceded by a given character, so the character can extend it
+     * @param node int, palindromic suffix ending just before the position
+     * @param position int, position of the appended character
+     * @param c char, appended character
+     * @return int, the longest palindrome which can be extended, at worst the imaginary root
+     */
+    private int extendable(int node, int position, char c) {
+        while (true) {
+            int before = position - 1 - palindromeLength[node];
+            if (before >= 0 && text[before] == c)
+                return node;
+            if (node == IMAGINARY_ROOT)
+                return node;
+            node = suffixLink[node];
+        }
+    }
+
+    /**
+     * Looks up the edge of a node labelled with a given character
+     * @param node int, parent node
+     * @param c char, label of the edge
+     * @return int, node the edge leads to, -1 if there is no such edge
+     */
+    private int edge(int node, char c) {
+        for (int e = firstEdge[node]; e >= 0; e = nextEdge[e])
+            if (edgeLabel[e] == c)
+                return edgeTarget[e];
+        return -1;
+    }
+
+    /**
+     * Adds a node without edges, growing the node arrays if they are full
+     * @param palindrome int, length of the palindrome of the node
+     * @return int, the new node
+     */
+    private int newNode(int palindrome) {
+        if (nodes == palindromeLength.length) {
+            int capacity = nodes * 2;
+            palindromeLength = Arrays.copyOf(palindromeLength, capacity);
+            suffixLink = Arrays.copyOf(suffixLink, capacity);
+            suffixes = Arrays.copyOf(suffixes, capacity);
+            firstEdge = Arrays.copyOf(firstEdge, capacity);
+        }
+        palindromeLength[nodes] = palindrome;
+        firstEdge[nodes] = -1;
+        return nodes++;
+    }
+
+    /**
+     * Adds an edge to the front of the edge list of a node, growing the edge arrays if they are full
+     * @param node int, parent node
+     * @param c char, label of the edge
+     * @param target int, node the edge leads to
+     */
+    private void newEdge(int node, char c, int target) {
+        if (edges == edgeLabel.length) {
+            int capacity = edges * 2;
+            edgeLabel = Arrays.copyOf(edgeLabel, capacity);
+            edgeTarget = Arrays.copyOf(edgeTarget, capacity);
+            nextEdge = Arrays.copyOf(nextEdge, capacity);
+        }
+        edgeLabel[edges] = c;
+        edgeTarget[edges] = target;
+        nextEdge[edges] = firstEdge[node];
+        firstEdge[node] = edges++;
+    }
+}
@@ -0,0 +1,316 @@
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A class representing an immutable (persistent) double-ended queue, a banker's deque.
+ * Adding or removing an element does not change the deque, it returns a new version sharing
+ * almost all of its nodes with the old one, so a version can be handed to any number of threads
+ * which read it without locks or copies, while new versions are built from it.
+ * The elements are kept in two immutable singly linked lists: the front list holds the first elements
+ * in order, the rear list holds the last elements in reverse order, so both ends are at the head
+ * of a list. Every version keeps the banker's invariant: neither list holds more than
+ * BALANCE times the elements of the other plus one, so both lists are non-empty once the deque holds
+ * two elements and peekFirst() and peekLast() take constant time on any version.
+ * Adding or removing links or unlinks a single node, and rebuilds both lists in linear time
+ * when the invariant would break, splitting the elements evenly. A rebuild leaves the lists equal
+ * and the next one needs a number of operations proportional to the size, so along a single line
+ * of versions, as by one writer handing each version to readers, operations take amortized
+ * constant time. Changing an old version again may repeat a rebuild, so that bound does not hold
+ * for arbitrary branching. get() walks the lists and takes linear time. Null items are not permitted.
+ * @param <T> generic type of stored data
+ */
+public final class PersistentDeque<T> implements Iterable<T> {
+
+    /** A class representing an immutable node of a singly linked list */
+    private static final class Node<T> {
+        final T item;
+        final Node<T> next;
+
+        private Node(T item, Node<T> next) {
+            this.item = item;
+            this.next = next;
+        }
+    }
+
+    // neither list may hold more than BALANCE times the elements of the other plus one
+    private static final int BALANCE = 3;
+    private static final PersistentDeque<?> EMPTY = new PersistentDeque<>(null, 0, null, 0);
+
+    private final Node<T> front;
+    private final int frontSize;
+    private final Node<T> rear;
+    private final int rearSize;
+
+    private PersistentDeque(Node<T> front, int frontSize, Node<T> rear, int rearSize) {
+        this.front = front;
+        this.frontSize = frontSize;
+        this.rear = rear;
+        this.rearSize = rearSize;
+    }
+
+    /**
+     * Returns the empty deque
+     * @param <T> generic type of stored data
+     * @return PersistentDeque with no elements
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentDeque<T> empty() {
+        return (PersistentDeque<T>) EMPTY;
+    }
+
+    /**
+     * Creates a deque holding the elements of a deque, in the same order
+     * @param deque Deque to be copied
+     * @param <T> generic type of stored data
+     * @return PersistentDeque holding the elements of deque
+     * @throws NullPointerException if one of the elements is null
+     */
+    public static <T> PersistentDeque<T> copyOf(Deque<? extends T> deque) {
+        Object[] items = deque.toArray();
+        for (Object item : items)
+            checkNotNull(item);
+        return split(items);
+    }
+
+    /**
+     * Returns the number of elements of the deque
+     * @return int, size of the deque
+     */
+    public int size() {
+        return frontSize + rearSize;
+    }
+
+    /**
+     * Checks whether the deque is empty
+     * @return true if deque is empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns a version of the deque with an item added at the front
+     * @param item an item of type T
+     * @return PersistentDeque, the new version
+     * @throws NullPointerException if item is null
+     */
+    public PersistentDeque<T> addFirst(T item) {
+        checkNotNull(item);
+        return of(new Node<>(item, front), frontSize + 1, rear, rearSize);
+    }
+
+    /**
+     * Returns a version of the deque with an item added at the back
+     * @param item an item of type T
+     * @return PersistentDeque, the new version
+     * @throws NullPointerException if item is null
+     */
+    public PersistentDeque<T> addLast(T item) {
+        checkNotNull(item);
+        return of(front, frontSize, new Node<>(item, rear), rearSize + 1);
+    }
+
+    /**
+     * Returns a version of the deque without its first element
+     * @return PersistentDeque, the new version
+     * @throws NoSuchElementException if the deque is empty
+     */
+    public PersistentDeque<T> removeFirst() {
+        if (frontSize == 0)
+            return removeOnly();
+        return of(front.next, frontSize - 1, rear, rearSize);
+    }
+
+    /**
+     * Returns a version of the deque without its last element
+     * @return PersistentDeque, the new version
+     * @throws NoSuchElementException if the deque is empty
+     */
+    public PersistentDeque<T> removeLast() {
+        if (rearSize == 0)
+            return removeOnly();
+        return of(front, frontSize, rear.next, rearSize - 1);
+    }
+
+    /**
+     * Removes the only element of a deque of size 0 or 1, the only sizes with an empty list
+     * @return PersistentDeque, the empty deque
+     * @throws NoSuchElementException if the deque is empty
+     */
+    private PersistentDeque<T> removeOnly() {
+        if (isEmpty())
+            throw new NoSuchElementException("PersistentDeque is empty");
+        return empty();
+    }
+
+    /**
+     * Creates a version from two lists, rebuilding them if they break the banker's invariant
+     * @param front Node, first node of the front list
+     * @param frontSize int, length of the front list
+     * @param rear Node, first node of the rear list
+     * @param rearSize int, length of the rear list
+     * @param <T> generic type of stored data
+     * @return PersistentDeque holding the elements of both lists
+     */
+    private static <T> PersistentDeque<T> of(Node<T> front, int frontSize, Node<T> rear, int rearSize) {
+        PersistentDeque<T> result = new PersistentDeque<>(front, frontSize, rear, rearSize);
+        if (frontSize > BALANCE * rearSize + 1 || rearSize > BALANCE * frontSize + 1)
+            return split(result.toArray());
+        return result;
+    }
+
+    /**
+     * Splits elements evenly between a new front and a new rear list. All nodes are new,
+     * since a shared tail cannot be cut off
+     * @param items Object[], the elements from the front to the back, none of them null
+     * @param <T> generic type of stored data
+     * @return PersistentDeque holding the elements, its lists differ in length by at most one
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> PersistentDeque<T> split(Object[] items) {
+        int half = items.length / 2;
+        Node<T> newFront = null;
+        for (int i = half - 1; i >= 0; i--)
+            newFront = new Node<>((T) items[i], newFront);
+        Node<T> newRear = null;
+        for (int i = half; i < items.length; i++)
+            newRear = new Node<>((T) items[i], newRear);
+        return new PersistentDeque<>(newFront, half, newRear, items.length - half);
+    }
+
+    /**
+     * Returns the first element of the deque
+     * @return element of a given generic type, null if the deque is empty
+     */
+    public T peekFirst() {
+        if (frontSize > 0)
+            return front.item;
+        return rear == null ? null : rear.item;
+    }
+
+    /**
+     * Returns the last element of the deque
+     * @return element of a given generic type, null if the deque is empty
+     */
+    public T peekLast() {
+        if (rearSize > 0)
+            return rear.item;
+        return front == null ? null : front.item;
+    }
+
+    /**
+     * Gets the element at a given index, walking the list which holds it
+     * @param index int, a required index of the deque
+     * @return element of a generic type found at the required index, null if no such item exists
+     */
+    public T get(int index) {
+        if (index < 0 || index >= size())
+            return null;
+        Node<T> node;
+        int steps;
+        if (index < frontSize) {
+            node = front;
+            steps = index;
+        } else {
+            node = rear;
+            steps = size() - 1 - index;
+        }
+        for (int i = 0; i < steps; i++)
+            node = node.next;
+        return node.item;
+    }
+
+    /**
+     * Copies the elements into an array, from the front to the back
+     * @return Object[], the elements of the deque
+     */
+    public Object[] toArray() {
+        Object[] result = new Object[size()];
+        int i = 0;
+        for (Node<T> node = front; node != null; node = node.next)
+            result[i++] = node.item;
+        i = result.length;
+        for (Node<T> node = rear; node != null; node = node.next)
+            result[--i] = node.item;
+        return result;
+    }
+
+    /**
+     * Prints the elements of the deque from the front to the back, separated by spaces
+     */
+    public void printDeque() {
+        for (T item : this)
+            System.out.print(item + " ");
+        System.out.println();
+    }
+
+    /**
+     * Returns an iterator over the elements of this version, from the front to the back.
+     * The front list is walked in place, the rear list is copied into an array when reached
+     * @return Iterator over the deque
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private Node<T> node = front;
+            private Object[] rearItems;
+            private int rearIndex = rearSize;
+
+            @Override
+            public boolean hasNext() {
+                return node != null || rearIndex > 0;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (node != null) {
+                    T item = node.item;
+                    node = node.next;
+                    return item;
+                }
+                if (rearIndex == 0)
+                    throw new NoSuchElementException();
+                if (rearItems == null) {
+                    rearItems = new Object[rearSize];
+                    int i = 0;
+                    for (Node<T> n = rear; n != null; n = n.next)
+                        rearItems[i++] = n.item;
+                }
+                return (T) rearItems[--rearIndex];
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return Spliterator over the deque, immutable and of known size
+     */
+    @Override
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(iterator(), size(),
+                Spliterator.ORDERED | Spliterator.IMMUTABLE | Spliterator.NONNULL);
+    }
+
+    /**
+     * Returns a sequential stream over the elements of this version
+     * @return Stream of the elements, from the front to the back
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Rejects null items, which would be indistinguishable from the null returned
+     * by peekFirst() and peekLast() of an empty deque
+     * @param item an item of type T
+     */
+    private static void checkNotNull(Object item) {
+        if (item == null)
+            throw new NullPointerException("PersistentDeque does not permit null items");
+    }
+}
@@ -0,0 +1,33 @@
+import java.nio.ByteBuffer;
+
+/**
+ * This interface defines how items of a given type are stored as fixed-width records
+ * in a ByteBuffer, used by deques keeping their items outside of the Java heap.
+ * Implementations must use absolute get and put methods of the buffer, leaving its position
+ * and limit unchanged, and must not touch bytes outside of the record.
+ * @param <T> type of the encoded items
+ */
+public interface RecordCodec<T> {
+
+    /**
+     * Returns the number of bytes taken by every record
+     * @return int > 0, size of a record in bytes
+     */
+    int recordSize();
+
+    /**
+     * Writes an item as a record starting at a given position of a buffer
+     * @param item an item of type T to be encoded
+     * @param buffer ByteBuffer, buffer the record is written to
+     * @param offset int, position of the first byte of the record
+     */
+    void write(T item, ByteBuffer buffer, int offset);
+
+    /**
+     * Reads an item from a record starting at a given position of a buffer
+     * @param buffer ByteBuffer, buffer the record is read from
+     * @param offset int, position of the first byte of the record
+     * @return decoded item of type T
+     */
+    T read(ByteBuffer buffer, int offset);
+}
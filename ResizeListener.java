@@ -0,0 +1,16 @@
+/**
+ * This interface defines a method called by ArrayDeque every time it resizes its array,
+ * by expanding, shrinking, ensureCapacity() or trimToSize(). It is called on the thread
+ * which caused the resize, after the elements have been copied.
+ */
+@FunctionalInterface
+public interface ResizeListener {
+    /**
+     * Called after the array of a deque has been replaced by one of a different length
+     * @param oldCapacity int, length of the previous array
+     * @param newCapacity int, length of the new array
+     * @param copiedElements int, number of elements copied from the previous array into the new one
+     * @param nanos long, time the resize took, in nanoseconds
+     */
+    void resized(int oldCapacity, int newCapacity, int copiedElements, long nanos);
+}
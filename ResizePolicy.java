@@ -0,0 +1,165 @@
+/**
+ * This interface defines when and to what capacity ArrayDeque resizes its array.
+ * ArrayDeque asks the policy for a new capacity only when the array is full, and compares
+ * the size with a shrink threshold cached at every resize, so the policy costs nothing
+ * on operations that do not resize. Every capacity returned by a policy is rounded up
+ * to a power of two, not smaller than the number of stored elements.
+ */
+public interface ResizePolicy {
+
+    /**
+     * Calculates the capacity of the array replacing a full one
+     * @param capacity int, length of the current, full array
+     * @param required int, number of elements the new array has to hold
+     * @return int, capacity of the new array
+     * @throws IllegalStateException if the policy does not allow the array to grow
+     */
+    int expandedCapacity(int capacity, int required);
+
+    /**
+     * Calculates the size below which an array of a given capacity should be shrunk
+     * @param capacity int, length of the array
+     * @return int, size below which the array is shrunk, 0 if it is never shrunk
+     */
+    int shrinkThreshold(int capacity);
+
+    /**
+     * Calculates the capacity of the array replacing one whose size dropped below the shrink threshold
+     * @param capacity int, length of the current array
+     * @param size int, number of stored elements
+     * @return int, capacity of the new array
+     */
+    int shrunkCapacity(int capacity, int size);
+
+    /**
+     * Doubles a full array and halves an array of length greater than 16 less than a quarter used,
+     * the default policy of ArrayDeque
+     * @return ResizePolicy doubling and halving the array
+     */
+    static ResizePolicy doubling() {
+        return Doubling.INSTANCE;
+    }
+
+    /**
+     * Doubles a full array and never shrinks it, for deques which keep returning to the same size
+     * @return ResizePolicy doubling the array and never shrinking it
+     */
+    static ResizePolicy neverShrink() {
+        return NeverShrink.INSTANCE;
+    }
+
+    /**
+     * Never resizes the array; adding to a full deque throws IllegalStateException.
+     * The capacity is chosen when the deque is created.
+     * @return ResizePolicy keeping the capacity fixed
+     */
+    static ResizePolicy fixed() {
+        return Fixed.INSTANCE;
+    }
+
+    /**
+     * Doubles a full array, halves an array only once less than an eighth of it is used and never
+     * shrinks it below a given capacity. The wide gap between growing and shrinking, together with
+     * the floor, stops a deque that keeps filling up and draining from copying its items back and forth.
+     * @param minCapacity int, capacity the array is never shrunk below, at least 1
+     * @return ResizePolicy with hysteresis
+     */
+    static ResizePolicy hysteresis(int minCapacity) {
+        if (minCapacity < 1)
+            throw new IllegalArgumentException("Minimum capacity must be positive: " + minCapacity);
+        return new Hysteresis(minCapacity);
+    }
+
+    /** Policy doubling a full array and halving an array of length greater than 16 less than a quarter used */
+    final class Doubling implements ResizePolicy {
+        private static final Doubling INSTANCE = new Doubling();
+
+        private Doubling() {
+        }
+
+        @Override
+        public int expandedCapacity(int capacity, int required) {
+            return Math.max(capacity * 2, required);
+        }
+
+        @Override
+        public int shrinkThreshold(int capacity) {
+            return capacity > 16 ? capacity / 4 : 0;
+        }
+
+        @Override
+        public int shrunkCapacity(int capacity, int size) {
+            return capacity / 2;
+        }
+    }
+
+    /** Policy doubling a full array and never shrinking it */
+    final class NeverShrink implements ResizePolicy {
+        private static final NeverShrink INSTANCE = new NeverShrink();
+
+        private NeverShrink() {
+        }
+
+        @Override
+        public int expandedCapacity(int capacity, int required) {
+            return Math.max(capacity * 2, required);
+        }
+
+        @Override
+        public int shrinkThreshold(int capacity) {
+            return 0;
+        }
+
+        @Override
+        public int shrunkCapacity(int capacity, int size) {
+            return capacity;
+        }
+    }
+
+    /** Policy never resizing the array */
+    final class Fixed implements ResizePolicy {
+        private static final Fixed INSTANCE = new Fixed();
+
+        private Fixed() {
+        }
+
+        @Override
+        public int expandedCapacity(int capacity, int required) {
+            throw new IllegalStateException("Deque full, fixed capacity: " + capacity);
+        }
+
+        @Override
+        public int shrinkThreshold(int capacity) {
+            return 0;
+        }
+
+        @Override
+        public int shrunkCapacity(int capacity, int size) {
+            return capacity;
+        }
+    }
+
+    /** Policy doubling a full array and halving an array less than an eighth used, down to a minimum capacity */
+    final class Hysteresis implements ResizePolicy {
+        private final int minCapacity;
+
+        private Hysteresis(int minCapacity) {
+            this.minCapacity = minCapacity;
+        }
+
+        @Override
+        public int expandedCapacity(int capacity, int required) {
+            return Math.max(capacity * 2, required);
+        }
+
+        @Override
+        public int shrinkThreshold(int capacity) {
+            return capacity / 2 >= minCapacity ? capacity / 8 : 0;
+        }
+
+        @Override
+        public int shrunkCapacity(int capacity, int size) {
+            return capacity / 2;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A class representing a fixed-capacity ring buffer implementation of double-ended queue,
+ * for windows of the last N items. The array is allocated once and never resized, so the deque
+ * takes constant memory and adding or removing never allocates or copies.
+ * What happens when an item is added to a full deque is decided by its Overflow mode:
+ * OVERWRITE drops the item at the opposite end to make room, so addLast() overwrites the oldest item
+ * and addFirst() the newest one, REJECT throws IllegalStateException and leaves the deque unchanged.
+ * Threads which should wait for space instead use BlockingArrayDeque, the thread-safe ring buffer
+ * of this repository with blocking putFirst()/putLast().
+ * Items are reached in constant time from either end: get() counts from the oldest item,
+ * getNewest() from the newest one. Iterators are fail-fast.
+ * @param <T> generic type of stored data
+ */
+public class RingBufferDeque<T> implements Deque<T> {
+
+    /** Behaviour of a full RingBufferDeque when an item is added */
+    public enum Overflow {
+        /** The item at the opposite end is dropped to make room */
+        OVERWRITE,
+        /** IllegalStateException is thrown and the deque is left unchanged */
+        REJECT
+    }
+
+    private final T[] items;
+    private final Overflow overflow;
+    private int first;
+    private int size;
+    private int modCount;
+
+    /**
+     * Constructor creating an empty RingBufferDeque overwriting its oldest item when full
+     * @param capacity int, maximum number of items stored in the deque, at least 1
+     */
+    public RingBufferDeque(int capacity) {
+        this(capacity, Overflow.OVERWRITE);
+    }
+
+    /**
+     * Constructor creating an empty RingBufferDeque
+     * @param capacity int, maximum number of items stored in the deque, at least 1
+     * @param overflow Overflow, behaviour of the full deque when an item is added
+     */
+    @SuppressWarnings("unchecked")
+    public RingBufferDeque(int capacity, Overflow overflow) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        if (overflow == null)
+            throw new NullPointerException("Overflow mode must not be null");
+        items = (T[]) new Object[capacity];
+        this.overflow = overflow;
+    }
+
+    /**
+     * Translates an index of the deque into a position in the array
+     * @param index int, index of the deque, 0 is the front, less than the capacity
+     * @return int, position of the item in the array
+     */
+    private int position(int index) {
+        int position = first + index;
+        return position >= items.length ? position - items.length : position;
+    }
+
+    /**
+     * Throws IllegalStateException if the deque rejects items when full and adding count items
+     * would not fit in it
+     * @param count int, number of items to be added
+     */
+    private void checkForReject(int count) {
+        if (overflow == Overflow.REJECT && count > items.length - size)
+            throw new IllegalStateException("Deque full, capacity: " + items.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     * If the deque is full, the newest item is overwritten, or the item is rejected.
+     * @param item an item of type T added to the front of the deque
+     * @throws IllegalStateException if the deque is full and rejects items
+     */
+    @Override
+    public void addFirst(T item) {
+        checkForReject(1);
+        first = first == 0 ? items.length - 1 : first - 1;
+        // when full, the new front is the slot of the last item
+        items[first] = item;
+        if (size < items.length)
+            size++;
+        modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     * If the deque is full, the oldest item is overwritten, or the item is rejected.
+     * @param item an item of type T added to the end of the deque
+     * @throws IllegalStateException if the deque is full and rejects items
+     */
+    @Override
+    public void addLast(T item) {
+        checkForReject(1);
+        if (size < items.length) {
+            items[position(size)] = item;
+            size++;
+        } else {
+            // the slot of the first item becomes the slot of the last one
+            items[first] = item;
+            first = position(1);
+        }
+        modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Copies the items with at most two System.arraycopy() calls. If they do not all fit,
+     * only the newest capacity items are kept, or all of them are rejected.
+     * @param src array of items added to the end of the deque, in order
+     * @throws IllegalStateException if the items do not fit and the deque rejects items
+     */
+    @Override
+    public void addAllLast(T[] src) {
+        checkForReject(src.length);
+        int capacity = items.length;
+        if (src.length >= capacity) {
+            System.arraycopy(src, src.length - capacity, items, 0, capacity);
+            first = 0;
+            size = capacity;
+        } else {
+            // drop the oldest items making room for the new ones
+            int dropped = Math.max(0, size + src.length - capacity);
+            first = position(dropped);
+            size -= dropped;
+            int start = position(size);
+            int firstPart = Math.min(src.length, capacity - start);
+            System.arraycopy(src, 0, items, start, firstPart);
+            System.arraycopy(src, firstPart, items, 0, src.length - firstPart);
+            size += src.length;
+        }
+        modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return int, number of items in the deque, never greater than the capacity
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the maximum number of items stored in the deque
+     * @return int, capacity fixed at construction
+     */
+    public int capacity() {
+        return items.length;
+    }
+
+    /**
+     * Checks whether the next added item overwrites an item or is rejected
+     * @return true if the deque holds capacity items, false otherwise
+     */
+    public boolean isFull() {
+        return size == items.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void printDeque() {
+        for (int i = 0; i < size; i++)
+            System.out.print(items[position(i)] + " ");
+        System.out.println();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return removed element of a given generic type, null if no such item exists
+     */
+    @Override
+    public T removeFirst() {
+        if (size == 0)
+            return null;
+        T item = items[first];
+        items[first] = null;
+        first = position(1);
+        size--;
+        modCount++;
+        return item;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return removed element of a given generic type, null if no such item exists
+     */
+    @Override
+    public T removeLast() {
+        if (size == 0)
+            return null;
+        int last = position(size - 1);
+        T item = items[last];
+        items[last] = null;
+        size--;
+        modCount++;
+        return item;
+    }
+
+    /**
+     * Removes all items, clearing their slots so they can be garbage collected
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++)
+            items[position(i)] = null;
+        first = 0;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Counts from the front, the oldest item added by addLast().
+     * @param index int, a required index of the deque
+     * @return element of a generic type found at the required index in the deque
+     */
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size)
+            return null;
+        return items[position(index)];
+    }
+
+    /**
+     * Gets the item a given number of places before the back of the deque, the newest item added by addLast()
+     * @param age int, 0 for the newest item, 1 for the one added before it, and so on
+     * @return element of a generic type found at the required place, null if no such item exists
+     */
+    public T getNewest(int age) {
+        if (age < 0 || age >= size)
+            return null;
+        return items[position(size - 1 - age)];
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return Object[], the items from the front to the back
+     */
+    @Override
+    public Object[] toArray() {
+        Object[] result = new Object[size];
+        int firstPart = Math.min(size, items.length - first);
+        System.arraycopy(items, first, result, 0, firstPart);
+        System.arraycopy(items, 0, result, firstPart, size - firstPart);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * The iterator is fail-fast.
+     * @return Iterator over the deque, from the front to the back
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new RingIterator(false);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The iterator is fail-fast.
+     * @return Iterator over the deque, from the back to the front
+     */
+    @Override
+    public Iterator<T> descendingIterator() {
+        return new RingIterator(true);
+    }
+
+    /** A class representing a fail-fast iterator walking the ring from either end */
+    private final class RingIterator implements Iterator<T> {
+        private final boolean descending;
+        private int index;
+        private final int expectedModCount = modCount;
+
+        private RingIterator(boolean descending) {
+            this.descending = descending;
+            index = descending ? size - 1 : 0;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return descending ? index >= 0 : index < size;
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (!hasNext())
+                throw new NoSuchElementException();
+            T item = items[position(index)];
+            index += descending ? -1 : 1;
+            return item;
+        }
+    }
+}
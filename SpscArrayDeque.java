@@ -0,0 +1,281 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A class representing a bounded, lock-free circular array implementation of double-ended queue
+ * shared by exactly one producer thread, adding items at the back, and one consumer thread,
+ * removing them from the front. Like WorkStealingArrayDeque it keeps two ever-increasing counters
+ * instead of nextFirst and nextLast pointers: head, the index of the first item, written only
+ * by the consumer, and tail, the index after the last item, written only by the producer.
+ * An index maps to position index & (length - 1) of an array whose length is a power of two.
+ * Each thread publishes its counter with release semantics and reads the other one with acquire
+ * semantics, so handing an item over takes no lock and no compare-and-set. Each thread also keeps
+ * a cached copy of the other thread's counter and reads the shared one only when the cache says
+ * the deque is full (producer) or empty (consumer), so in a steady stream the threads rarely touch
+ * each other's cache lines. The counters live in one long[] at positions a cache line apart,
+ * each next to the cache of the thread which owns it, so they never share a cache line whatever
+ * the field layout chosen by the JVM.
+ * The batch methods offer(T[], int, int) and poll(T[], int, int) move many items with a single
+ * counter update. The capacity is fixed, adding to a full deque with addLast() throws
+ * IllegalStateException. Null items are not permitted, addFirst() and removeLast() are not supported.
+ * size(), get() and printDeque() may be called by any thread and are weakly consistent.
+ * @param <T> generic type of stored data
+ */
+public class SpscArrayDeque<T> implements Deque<T> {
+    private static final VarHandle INDICES = MethodHandles.arrayElementVarHandle(long[].class);
+    // 16 longs apart, two cache lines, also defeating the adjacent cache line prefetcher
+    private static final int HEAD = 16;
+    private static final int CACHED_TAIL = HEAD + 1;
+    private static final int TAIL = HEAD + 16;
+    private static final int CACHED_HEAD = TAIL + 1;
+    private static final int INDICES_LENGTH = TAIL + 16;
+
+    private final T[] items;
+    private final int mask;
+    private final long[] indices = new long[INDICES_LENGTH];
+
+    /**
+     * Constructor creating an empty SpscArrayDeque
+     * @param capacity int, maximum number of items stored in the deque, rounded up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public SpscArrayDeque(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30)
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30: " + capacity);
+        int length = Integer.highestOneBit(capacity);
+        if (length < capacity)
+            length <<= 1;
+        items = (T[]) new Object[length];
+        mask = length - 1;
+    }
+
+    /**
+     * Returns the maximum number of items stored in the deque
+     * @return int, length of the array
+     */
+    public int capacity() {
+        return items.length;
+    }
+
+    /**
+     * Adds an item at the back of the deque if there is space for it. May be called only by the producer thread
+     * @param item an item of type T
+     * @return true if the item was added, false if the deque is full
+     * @throws NullPointerException if item is null
+     */
+    public boolean offer(T item) {
+        checkNotNull(item);
+        long tail = indices[TAIL];
+        if (tail - indices[CACHED_HEAD] >= items.length) {
+            indices[CACHED_HEAD] = (long) INDICES.getAcquire(indices, HEAD);
+            if (tail - indices[CACHED_HEAD] >= items.length)
+                return false;
+        }
+        items[(int) tail & mask] = item;
+        // publishes the item to the consumer reading tail with acquire semantics
+        INDICES.setRelease(indices, TAIL, tail + 1);
+        return true;
+    }
+
+    /**
+     * Adds as many items of a range of an array at the back of the deque as there is space for,
+     * publishing them all at once. May be called only by the producer thread
+     * @param src array holding the items
+     * @param from int, index of the first item in src
+     * @param count int, number of items to add
+     * @return int, number of items added, from the start of the range
+     * @throws NullPointerException if one of the added items is null, none of them is added then
+     */
+    public int offer(T[] src, int from, int count) {
+        long tail = indices[TAIL];
+        long free = items.length - (tail - indices[CACHED_HEAD]);
+        if (free < count) {
+            indices[CACHED_HEAD] = (long) INDICES.getAcquire(indices, HEAD);
+            free = items.length - (tail - indices[CACHED_HEAD]);
+        }
+        int n = (int) Math.min(count, free);
+        for (int i = 0; i < n; i++)
+            checkNotNull(src[from + i]);
+        copy(src, from, (int) tail & mask, n);
+        INDICES.setRelease(indices, TAIL, tail + n);
+        return n;
+    }
+
+    /**
+     * Copies items into the array at a given position, wrapping around its end
+     * @param src array holding the items
+     * @param from int, index of the first item in src
+     * @param position int, position in the array of the first copied item
+     * @param count int, number of items to copy
+     */
+    private void copy(T[] src, int from, int position, int count) {
+        int firstPart = Math.min(count, items.length - position);
+        System.arraycopy(src, from, items, position, firstPart);
+        System.arraycopy(src, from + firstPart, items, 0, count - firstPart);
+    }
+
+    /**
+     * Removes the item at the front of the deque. May be called only by the consumer thread
+     * @return removed element of a given generic type, null if the deque is empty
+     */
+    public T poll() {
+        long head = indices[HEAD];
+        if (head >= indices[CACHED_TAIL]) {
+            indices[CACHED_TAIL] = (long) INDICES.getAcquire(indices, TAIL);
+            if (head >= indices[CACHED_TAIL])
+                return null;
+        }
+        int position = (int) head & mask;
+        T item = items[position];
+        items[position] = null;
+        // hands the cleared slot back to the producer reading head with acquire semantics
+        INDICES.setRelease(indices, HEAD, head + 1);
+        return item;
+    }
+
+    /**
+     * Removes up to a given number of items from the front of the deque at once, storing them
+     * in a range of an array in deque order. May be called only by the consumer thread
+     * @param dest array receiving the items
+     * @param from int, index in dest of the first removed item
+     * @param maxCount int, maximum number of items to remove
+     * @return int, number of removed items, 0 if the deque is empty
+     */
+    public int poll(T[] dest, int from, int maxCount) {
+        long head = indices[HEAD];
+        long available = indices[CACHED_TAIL] - head;
+        if (available < maxCount) {
+            indices[CACHED_TAIL] = (long) INDICES.getAcquire(indices, TAIL);
+            available = indices[CACHED_TAIL] - head;
+        }
+        int n = (int) Math.min(maxCount, available);
+        int position = (int) head & mask;
+        int firstPart = Math.min(n, items.length - position);
+        System.arraycopy(items, position, dest, from, firstPart);
+        System.arraycopy(items, 0, dest, from + firstPart, n - firstPart);
+        for (int i = 0; i < firstPart; i++)
+            items[position + i] = null;
+        for (int i = 0; i < n - firstPart; i++)
+            items[i] = null;
+        INDICES.setRelease(indices, HEAD, head + n);
+        return n;
+    }
+
+    /**
+     * Not supported, items can be added only by the producer at the back of the deque
+     * @param item an item of type T
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addFirst(T item) {
+        throw new UnsupportedOperationException("SpscArrayDeque supports addLast() only");
+    }
+
+    /**
+     * {@inheritDoc}
+     * May be called only by the producer thread.
+     * @param item an item of type T added to the end of the deque
+     * @throws IllegalStateException if the deque is full
+     * @throws NullPointerException if item is null
+     */
+    @Override
+    public void addLast(T item) {
+        if (!offer(item))
+            throw new IllegalStateException("Deque full, capacity: " + items.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     * May be called only by the producer thread. Either all items are added, published at once, or none.
+     * @param src array of items added to the end of the deque, in order
+     * @throws IllegalStateException if the items do not all fit in the deque
+     * @throws NullPointerException if one of the items is null
+     */
+    @Override
+    public void addAllLast(T[] src) {
+        long tail = indices[TAIL];
+        if (items.length - (tail - (long) INDICES.getAcquire(indices, HEAD)) < src.length)
+            throw new IllegalStateException("Deque full, capacity: " + items.length);
+        offer(src, 0, src.length);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return int, number of items in the deque at some point during the call
+     */
+    @Override
+    public int size() {
+        long head = (long) INDICES.getAcquire(indices, HEAD);
+        long tail = (long) INDICES.getAcquire(indices, TAIL);
+        return (int) Math.max(0, Math.min(tail - head, items.length));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void printDeque() {
+        for (int i = 0; i < size(); i++)
+            System.out.print(get(i) + " ");
+        System.out.println();
+    }
+
+    /**
+     * {@inheritDoc}
+     * May be called only by the consumer thread.
+     * @return removed element of a given generic type, null if no such item exists
+     */
+    @Override
+    public T removeFirst() {
+        return poll();
+    }
+
+    /**
+     * {@inheritDoc}
+     * May be called only by the consumer thread.
+     * @param n int, maximum number of items to remove
+     * @param dest array receiving the removed items
+     * @return int, number of removed items
+     */
+    @Override
+    public int removeFirst(int n, T[] dest) {
+        if (n < 0 || n > dest.length)
+            throw new IllegalArgumentException("Cannot remove " + n + " items into an array of length " + dest.length);
+        return poll(dest, 0, n);
+    }
+
+    /**
+     * Not supported, items can be removed only by the consumer at the front of the deque
+     * @return nothing
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public T removeLast() {
+        throw new UnsupportedOperationException("SpscArrayDeque supports removeFirst() only");
+    }
+
+    /**
+     * {@inheritDoc}
+     * Weakly consistent: the item may be removed by the consumer while it is being read.
+     * @param index int, a required index of the deque
+     * @return element of a generic type found at the required index in the deque
+     */
+    @Override
+    public T get(int index) {
+        long head = (long) INDICES.getAcquire(indices, HEAD);
+        long tail = (long) INDICES.getAcquire(indices, TAIL);
+        if (index < 0 || index >= tail - head)
+            return null;
+        return items[(int) (head + index) & mask];
+    }
+
+    /**
+     * Rejects null items, which would be indistinguishable from the null returned
+     * by poll() of an empty deque
+     * @param item an item of type T
+     */
+    private static void checkNotNull(Object item) {
+        if (item == null)
+            throw new NullPointerException("SpscArrayDeque does not permit null items");
+    }
+}
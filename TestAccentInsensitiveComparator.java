@@ -0,0 +1,35 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TestAccentInsensitiveComparator {
+    static CodePointComparator accents = new AccentInsensitiveComparator();
+    static CodePointComparator accentsAndCase = new AccentInsensitiveComparator(true);
+
+    @Test
+    public void testEqualChars() {
+        // e with acute, grave and circumflex, capital E with acute
+        assertTrue(accents.equalChars('e', '\u00e9'));
+        assertTrue(accents.equalChars('\u00e8', '\u00ea'));
+        assertFalse(accents.equalChars('e', '\u00c9'));
+        assertTrue(accentsAndCase.equalChars('e', '\u00c9'));
+        assertFalse(accents.equalChars('e', 'a'));
+        // o with stroke has no canonical decomposition
+        assertFalse(accents.equalChars('o', '\u00f8'));
+        assertTrue(accents.isEquivalence());
+    }
+
+    @Test
+    public void testIgnorable() {
+        assertTrue(accents.isIgnorable(0x0301));
+        assertFalse(accents.isIgnorable('e'));
+        assertTrue(accents.matchesMirrored("xe\u0301\u0301x".toCharArray(), 0, 5));
+        assertFalse(accents.matchesMirrored("xe\u0301y", 0, 4));
+    }
+
+    @Test
+    public void testSupplementary() {
+        // mathematical bold capital A has only a compatibility decomposition, so it keeps its identity
+        assertFalse(accents.equalCodePoints(0x1D400, 'A'));
+        assertTrue(accents.equalCodePoints(0x1D400, 0x1D400));
+    }
+}
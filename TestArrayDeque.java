@@ -0,0 +1,203 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+public class TestArrayDeque {
+
+    /** Fills a deque with addFirst() and addLast() alternately, so the elements wrap around the end of the array */
+    private static ArrayDeque<Integer> wrapped(int n) {
+        ArrayDeque<Integer> d = new ArrayDeque<>();
+        for (int i = n / 2 - 1; i >= 0; i--)
+            d.addFirst(i);
+        for (int i = n / 2; i < n; i++)
+            d.addLast(i);
+        return d;
+    }
+
+    @Test
+    public void testIterators() {
+        ArrayDeque<Integer> d = wrapped(100);
+        int expected = 0;
+        for (Integer item : d)
+            assertEquals(Integer.valueOf(expected++), item);
+        assertEquals(100, expected);
+        Iterator<Integer> descending = d.descendingIterator();
+        for (int i = 99; i >= 0; i--)
+            assertEquals(Integer.valueOf(i), descending.next());
+        assertFalse(descending.hasNext());
+        assertFalse(new ArrayDeque<Integer>().iterator().hasNext());
+    }
+
+    /**
+     * get() on contents wrapping around the end of the array: the front starts in the middle
+     * of the starting array of 8, so index 3 is at the position equal to the length of the array,
+     * which must wrap to position 0. Rotating moves the wrap point through every position.
+     */
+    @Test
+    public void testGetWrapped() {
+        ArrayDeque<Integer> d = new ArrayDeque<>();
+        for (int i = 0; i < 7; i++)
+            d.addLast(i);
+        assertEquals(8, d.capacity());
+        assertEquals(Integer.valueOf(3), d.get(3));
+        for (int shift = 0; shift < 16; shift++) {
+            for (int i = 0; i < 7; i++)
+                assertEquals(Integer.valueOf(shift + i), d.get(i));
+            assertNull(d.get(-1));
+            assertNull(d.get(7));
+            assertNull(d.get(8));
+            assertNull(d.get(Integer.MIN_VALUE));
+            d.removeFirst();
+            d.addLast(shift + 7);
+        }
+        assertEquals(8, d.capacity());
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testIteratorFailFast() {
+        ArrayDeque<Integer> d = wrapped(10);
+        for (Integer item : d)
+            if (item == 5)
+                d.removeLast();
+    }
+
+    @Test
+    public void testSpliterator() {
+        ArrayDeque<Integer> d = wrapped(1000);
+        Spliterator<Integer> second = d.spliterator();
+        assertTrue(second.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        Spliterator<Integer> first = second.trySplit();
+        assertEquals(500, first.estimateSize());
+        assertEquals(500, second.estimateSize());
+        first.tryAdvance(item -> assertEquals(Integer.valueOf(0), item));
+        second.tryAdvance(item -> assertEquals(Integer.valueOf(500), item));
+    }
+
+    @Test
+    public void testStreams() {
+        ArrayDeque<Integer> d = wrapped(1_000_000);
+        long expected = 999_999L * 1_000_000L / 2;
+        assertEquals(expected, d.stream().mapToLong(Integer::longValue).sum());
+        assertEquals(expected, d.parallelStream().mapToLong(Integer::longValue).sum());
+        assertEquals(d.stream().collect(Collectors.toList()), d.parallelStream().collect(Collectors.toList()));
+    }
+
+    /** Random bulk and single operations on both ends give the same results as java.util.ArrayDeque */
+    @Test
+    public void testBulkOperations() {
+        ArrayDeque<Integer> d = checkBulkOperations(ArrayDeque::new);
+        assertArrayEquals(d.toArray(), new ArrayDeque<>(d).toArray());
+    }
+
+    /**
+     * Runs random bulk and single operations on both ends of a new deque and checks that they give
+     * the same results as java.util.ArrayDeque. Shared by the tests of other deques.
+     * @param factory Supplier, creates the empty deque under test
+     * @return the deque after the operations, for further checks by the caller
+     */
+    static <D extends Deque<Integer>> D checkBulkOperations(Supplier<D> factory) {
+        D d = factory.get();
+        java.util.ArrayDeque<Integer> expected = new java.util.ArrayDeque<>();
+        Random random = new Random(11);
+        int next = 0;
+        for (int round = 0; round < 5000; round++) {
+            int n = random.nextInt(round % 100 < 50 ? 40 : 10);
+            Integer[] batch = new Integer[n];
+            for (int i = 0; i < n; i++)
+                batch[i] = next++;
+            switch (random.nextInt(round / 500 % 2 == 0 ? 4 : 6)) {
+                case 0:
+                    d.addAllFirst(batch);
+                    for (int i = n - 1; i >= 0; i--)
+                        expected.addFirst(batch[i]);
+                    break;
+                case 1:
+                    d.addAllLast(Arrays.asList(batch));
+                    expected.addAll(Arrays.asList(batch));
+                    break;
+                case 2:
+                case 4: {
+                    int count = d.removeFirst(n, batch);
+                    assertEquals(Math.min(n, expected.size()), count);
+                    for (int i = 0; i < count; i++)
+                        assertEquals(expected.pollFirst(), batch[i]);
+                    break;
+                }
+                default: {
+                    int count = d.removeLast(n, batch);
+                    assertEquals(Math.min(n, expected.size()), count);
+                    for (int i = count - 1; i >= 0; i--)
+                        assertEquals(expected.pollLast(), batch[i]);
+                }
+            }
+            assertEquals(expected.size(), d.size());
+            assertArrayEquals(expected.toArray(), d.toArray());
+        }
+        return d;
+    }
+
+    /** A bulk removal shrinks the array once, straight to the capacity the policy settles on */
+    @Test
+    public void testBulkResize() {
+        ArrayDeque<Integer> d = new ArrayDeque<>();
+        d.addAllLast(new Integer[1000]);
+        assertEquals(1024, d.capacity());
+        d.removeFirst(990, new Integer[990]);
+        assertEquals(32, d.capacity());
+        assertEquals(10, d.size());
+    }
+
+    @Test
+    public void testCopyConstructor() {
+        ArrayDeque<Integer> d = wrapped(100);
+        ArrayDeque<Integer> copy = new ArrayDeque<>(d);
+        d.removeFirst();
+        assertEquals(100, copy.size());
+        assertEquals(128, copy.capacity());
+        for (int i = 0; i < 100; i++)
+            assertEquals(Integer.valueOf(i), copy.get(i));
+        copy.addFirst(-1);
+        copy.addLast(100);
+        assertEquals(Integer.valueOf(-1), copy.get(0));
+        assertEquals(Integer.valueOf(100), copy.get(101));
+        assertEquals(0, new ArrayDeque<>(new ArrayDeque<Integer>()).size());
+    }
+
+    /** A snapshot keeps the contents of the deque at the time it was taken */
+    @Test
+    public void testSnapshot() {
+        ArrayDeque<Integer> d = wrapped(10);
+        Deque<Integer> snapshot = d.snapshot();
+        Deque<Integer> second = d.snapshot();
+        d.removeFirst();
+        d.addLast(10);
+        d.addAllFirst(new Integer[] {-2, -1});
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.valueOf(i), snapshot.get(i));
+            assertEquals(Integer.valueOf(i), second.get(i));
+        }
+        assertEquals(10, snapshot.size());
+        assertEquals(45L, snapshot.parallelStream().mapToLong(Integer::longValue).sum());
+        Deque<Integer> third = d.snapshot();
+        d.removeLast(5, new Integer[5]);
+        assertArrayEquals(new Integer[] {-2, -1, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10}, third.toArray());
+        assertEquals(7, d.size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSnapshotReadOnly() {
+        wrapped(10).snapshot().removeFirst();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRemoveMoreThanArrayLength() {
+        new ArrayDeque<Integer>().removeFirst(2, new Integer[1]);
+    }
+}
@@ -0,0 +1,178 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TestBlockingArrayDeque {
+
+    @Test
+    public void testWrapAroundBatches() throws InterruptedException {
+        BlockingArrayDeque<Integer> d = new BlockingArrayDeque<>(8);
+        d.putAllLast(new Integer[] {1, 2, 3, 4, 5, 6});
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(4, d.drainTo(drained, 4));
+        d.addAllLast(new Integer[] {7, 8, 9, 10, 11});
+        d.addFirst(0);
+        assertEquals(8, d.size());
+        assertEquals(0, d.remainingCapacity());
+        assertEquals(Integer.valueOf(5), d.get(1));
+        assertEquals(8, d.drainTo(drained));
+        assertEquals(List.of(1, 2, 3, 4, 0, 5, 6, 7, 8, 9, 10, 11), drained);
+        assertNull(d.removeFirst());
+    }
+
+    @Test
+    public void testIteratorsWorkOnCopy() {
+        BlockingArrayDeque<Integer> d = new BlockingArrayDeque<>(8);
+        for (int i = 0; i < 6; i++)
+            d.addLast(i);
+        d.removeFirst();
+        d.removeFirst();
+        d.addLast(6);
+        d.addLast(7);
+        Iterator<Integer> iterator = d.iterator();
+        d.removeFirst();
+        for (int i = 2; i < 8; i++)
+            assertEquals(Integer.valueOf(i), iterator.next());
+        assertFalse(iterator.hasNext());
+        d.addLast(8);
+        Iterator<Integer> descending = d.descendingIterator();
+        for (int i = 8; i >= 3; i--)
+            assertEquals(Integer.valueOf(i), descending.next());
+        assertEquals(33L, d.stream().mapToLong(Integer::longValue).sum());
+    }
+
+    @Test
+    public void testBulkOperationsWrapAround() {
+        BlockingArrayDeque<Integer> d = new BlockingArrayDeque<>(8);
+        d.addAllLast(List.of(4, 5));
+        d.addAllFirst(new Integer[] {1, 2, 3});
+        d.addAllFirst(List.of(-1, 0));
+        assertEquals(7, d.size());
+        assertEquals(Integer.valueOf(-1), d.get(0));
+        assertEquals(Integer.valueOf(5), d.get(6));
+        try {
+            d.addAllFirst(new Integer[] {7, 8});
+            fail();
+        } catch (IllegalStateException e) {
+            // all-or-nothing: nothing was added
+        }
+        try {
+            d.addAllFirst(new Integer[] {7, null});
+            fail();
+        } catch (NullPointerException e) {
+            // nothing was added
+        }
+        assertEquals(7, d.size());
+        Integer[] dest = new Integer[8];
+        assertEquals(3, d.removeLast(3, dest));
+        assertArrayEquals(new Integer[] {3, 4, 5}, Arrays.copyOf(dest, 3));
+        assertEquals(3, d.removeFirst(3, dest));
+        assertArrayEquals(new Integer[] {-1, 0, 1}, Arrays.copyOf(dest, 3));
+        assertEquals(1, d.removeFirst(8, dest));
+        assertEquals(Integer.valueOf(2), dest[0]);
+        assertEquals(0, d.removeLast(8, dest));
+        assertEquals(8, d.remainingCapacity());
+    }
+
+    /**
+     * Producers add batches at the back while consumers remove batches from both ends.
+     * Every batch holds only real items and each item is removed exactly once.
+     */
+    @Test
+    public void testConcurrentBatches() throws InterruptedException {
+        int producers = 2, consumers = 4, batches = 2000, batchSize = 10;
+        int total = producers * batches * batchSize;
+        BlockingArrayDeque<Integer> d = new BlockingArrayDeque<>(64);
+        AtomicIntegerArray seen = new AtomicIntegerArray(total);
+        AtomicInteger removed = new AtomicInteger();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * batches * batchSize;
+            threads.add(new Thread(() -> {
+                try {
+                    for (int b = 0; b < batches; b++) {
+                        Integer[] batch = new Integer[batchSize];
+                        for (int i = 0; i < batchSize; i++)
+                            batch[i] = base + b * batchSize + i;
+                        d.putAllLast(batch);
+                    }
+                } catch (Throwable e) {
+                    error.compareAndSet(null, e);
+                }
+            }));
+        }
+        for (int c = 0; c < consumers; c++) {
+            boolean fromFront = c % 2 == 0;
+            threads.add(new Thread(() -> {
+                try {
+                    Integer[] dest = new Integer[7];
+                    while (removed.get() < total) {
+                        int count = fromFront ? d.removeFirst(dest.length, dest) : d.removeLast(dest.length, dest);
+                        for (int i = 0; i < count; i++)
+                            seen.incrementAndGet(dest[i]);
+                        removed.addAndGet(count);
+                        if (count == 0)
+                            Thread.yield();
+                    }
+                } catch (Throwable e) {
+                    error.compareAndSet(null, e);
+                }
+            }));
+        }
+        for (Thread thread : threads)
+            thread.start();
+        for (Thread thread : threads)
+            thread.join();
+        assertNull(error.get());
+        for (int i = 0; i < total; i++)
+            assertEquals(1, seen.get(i));
+        assertTrue(d.isEmpty());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAddToFullDeque() {
+        BlockingArrayDeque<Integer> d = new BlockingArrayDeque<>(1);
+        d.addLast(1);
+        d.addFirst(2);
+    }
+
+    @Test
+    public void testTimedOperations() throws InterruptedException {
+        BlockingArrayDeque<Integer> d = new BlockingArrayDeque<>(1);
+        assertNull(d.pollFirst(1, TimeUnit.MILLISECONDS));
+        assertTrue(d.offerLast(1, 1, TimeUnit.MILLISECONDS));
+        assertFalse(d.offerFirst(2, 1, TimeUnit.MILLISECONDS));
+        assertEquals(Integer.valueOf(1), d.pollLast(1, TimeUnit.MILLISECONDS));
+    }
+
+    /** A batch larger than the capacity is handed over to a consumer taking items one by one */
+    @Test
+    public void testProducerConsumer() throws InterruptedException {
+        BlockingArrayDeque<Integer> d = new BlockingArrayDeque<>(16);
+        Integer[] batch = new Integer[1000];
+        for (int i = 0; i < batch.length; i++)
+            batch[i] = i;
+        List<Integer> taken = new ArrayList<>();
+        Thread consumer = new Thread(() -> {
+            try {
+                for (int i = 0; i < batch.length; i++)
+                    taken.add(d.takeFirst());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+        d.putAllLast(batch);
+        consumer.join();
+        assertEquals(List.of(batch), taken);
+    }
+}
@@ -0,0 +1,24 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TestCaseInsensitiveComparator {
+    static CodePointComparator caseInsensitive = new CaseInsensitiveComparator();
+
+    @Test
+    public void testEqualChars() {
+        assertTrue(caseInsensitive.equalChars('a', 'A'));
+        assertTrue(caseInsensitive.equalChars('z', 'z'));
+        assertFalse(caseInsensitive.equalChars('a', 'b'));
+        assertFalse(caseInsensitive.equalChars('%', '5'));
+        // Greek small and capital sigma
+        assertTrue(caseInsensitive.equalChars('\u03c3', '\u03a3'));
+        assertTrue(caseInsensitive.isEquivalence());
+    }
+
+    @Test
+    public void testEqualCodePoints() {
+        // Deseret capital and small long I, outside of the Basic Multilingual Plane
+        assertTrue(caseInsensitive.equalCodePoints(0x10400, 0x10428));
+        assertFalse(caseInsensitive.equalCodePoints(0x10400, 0x10401));
+    }
+}
@@ -0,0 +1,208 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class TestConcurrentLinkedListDeque {
+
+    private static final int THREADS = 8;
+    private static final int ITEMS_PER_THREAD = 100_000;
+
+    @Test
+    public void testSequentialOperations() {
+        Deque<Integer> d = new ConcurrentLinkedListDeque<>();
+        assertNull(d.removeFirst());
+        assertNull(d.removeLast());
+        d.addLast(2);
+        d.addFirst(1);
+        d.addLast(3);
+        assertEquals(3, d.size());
+        assertEquals(Integer.valueOf(1), d.get(0));
+        assertEquals(Integer.valueOf(3), d.get(2));
+        assertNull(d.get(3));
+        assertEquals(Integer.valueOf(3), d.removeLast());
+        assertEquals(Integer.valueOf(1), d.removeFirst());
+        assertEquals(Integer.valueOf(2), d.removeLast());
+        assertTrue(d.isEmpty());
+    }
+
+    @Test
+    public void testRemovedNodesAreNotRetained() {
+        // the deque never becomes empty, so the anchor is never reset to null ends
+        ConcurrentLinkedListDeque<Object> d = new ConcurrentLinkedListDeque<>();
+        d.addLast(new Object());
+        WeakReference<Object> removedFirst = new WeakReference<>(d.get(0));
+        for (int i = 0; i < 1000; i++) {
+            d.addLast(new Object());
+            d.removeFirst();
+        }
+        WeakReference<Object> removedLast = new WeakReference<>(d.get(0));
+        for (int i = 0; i < 1000; i++) {
+            d.addFirst(new Object());
+            d.removeLast();
+        }
+        assertEquals(1, d.size());
+        for (int i = 0; i < 50 && (removedFirst.get() != null || removedLast.get() != null); i++)
+            System.gc();
+        assertNull(removedFirst.get());
+        assertNull(removedLast.get());
+    }
+
+    @Test
+    public void testIterators() {
+        Deque<Integer> d = new ConcurrentLinkedListDeque<>();
+        for (int i = 0; i < 100; i++)
+            d.addLast(i);
+        int expected = 0;
+        for (Integer item : d)
+            assertEquals(Integer.valueOf(expected++), item);
+        assertEquals(100, expected);
+        Iterator<Integer> descending = d.descendingIterator();
+        for (int i = 99; i >= 0; i--)
+            assertEquals(Integer.valueOf(i), descending.next());
+        assertFalse(descending.hasNext());
+        assertEquals(4950L, d.parallelStream().mapToLong(Integer::longValue).sum());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullItemRejected() {
+        new ConcurrentLinkedListDeque<Integer>().addFirst(null);
+    }
+
+    /** Every item added by any thread at either end is removed exactly once */
+    @Test
+    public void testNoItemLostOrDuplicated() throws InterruptedException {
+        Deque<Integer> d = new ConcurrentLinkedListDeque<>();
+        int total = THREADS * ITEMS_PER_THREAD;
+        AtomicIntegerArray removed = new AtomicIntegerArray(total);
+
+        runConcurrently(t -> {
+            for (int i = 0; i < ITEMS_PER_THREAD; i++) {
+                int item = t * ITEMS_PER_THREAD + i;
+                if ((item & 1) == 0)
+                    d.addFirst(item);
+                else
+                    d.addLast(item);
+                Integer r = (item & 2) == 0 ? d.removeFirst() : d.removeLast();
+                if (r != null)
+                    removed.incrementAndGet(r);
+            }
+        });
+
+        Integer r;
+        while ((r = d.removeFirst()) != null)
+            removed.incrementAndGet(r);
+        for (int i = 0; i < total; i++)
+            assertEquals("item " + i, 1, removed.get(i));
+        assertEquals(0, d.size());
+    }
+
+    /**
+     * Half of the threads add increasing sequences at the back, the other half remove from
+     * the front. A linearizable FIFO lets every consumer see each producer's items in order.
+     */
+    @Test
+    public void testPerProducerOrderIsPreserved() throws InterruptedException {
+        Deque<Integer> d = new ConcurrentLinkedListDeque<>();
+        int producers = THREADS / 2;
+        AtomicIntegerArray consumed = new AtomicIntegerArray(1);
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        runConcurrently(t -> {
+            if (t < producers) {
+                for (int i = 0; i < ITEMS_PER_THREAD; i++)
+                    d.addLast(t * ITEMS_PER_THREAD + i);
+                return;
+            }
+            int[] lastSeen = new int[producers];
+            java.util.Arrays.fill(lastSeen, -1);
+            while (consumed.get(0) < producers * ITEMS_PER_THREAD) {
+                Integer r = d.removeFirst();
+                if (r == null)
+                    continue;
+                consumed.incrementAndGet(0);
+                int producer = r / ITEMS_PER_THREAD;
+                int sequence = r % ITEMS_PER_THREAD;
+                if (sequence <= lastSeen[producer])
+                    failure.compareAndSet(null, "item " + r + " seen after " + lastSeen[producer]);
+                lastSeen[producer] = sequence;
+            }
+        });
+
+        assertNull(failure.get());
+        assertTrue(d.isEmpty());
+    }
+
+    /**
+     * All threads remove batches from both ends of a prefilled deque at the same time. Every batch
+     * holds only real items, so each item is removed exactly once and the counts add up.
+     */
+    @Test
+    public void testConcurrentBulkRemoves() throws InterruptedException {
+        Deque<Integer> d = new ConcurrentLinkedListDeque<>();
+        int total = THREADS * ITEMS_PER_THREAD / 10;
+        for (int i = 0; i < total; i++)
+            d.addLast(i);
+        AtomicIntegerArray seen = new AtomicIntegerArray(total);
+        AtomicReference<String> failure = new AtomicReference<>();
+
+        runConcurrently(t -> {
+            Integer[] dest = new Integer[16];
+            int count;
+            do {
+                count = t % 2 == 0 ? d.removeFirst(dest.length, dest) : d.removeLast(dest.length, dest);
+                for (int i = 0; i < count; i++) {
+                    if (dest[i] == null)
+                        failure.compareAndSet(null, "null counted at position " + i + " of " + count);
+                    else
+                        seen.incrementAndGet(dest[i]);
+                    if (i > 0 && dest[i] != null && dest[i - 1] != null && dest[i] <= dest[i - 1])
+                        failure.compareAndSet(null, "batch out of deque order: " + dest[i - 1] + ", " + dest[i]);
+                }
+            } while (count > 0);
+        });
+
+        assertNull(failure.get());
+        for (int i = 0; i < total; i++)
+            assertEquals(1, seen.get(i));
+        assertTrue(d.isEmpty());
+    }
+
+    /** Functional interface for a task run by one of the test threads */
+    private interface ThreadTask {
+        void run(int threadIndex);
+    }
+
+    /**
+     * Starts THREADS threads running task at the same time and waits for all of them
+     * @param task ThreadTask, body of each thread, given the index of the thread
+     */
+    private static void runConcurrently(ThreadTask task) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int index = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    task.run(index);
+                } catch (Throwable e) {
+                    error.compareAndSet(null, e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        start.countDown();
+        for (Thread thread : threads)
+            thread.join();
+        assertNull(error.get());
+    }
+}
@@ -0,0 +1,109 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.List;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class TestInstrumentedDeque {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testCounts() {
+        InstrumentedDeque<Integer> deque = new InstrumentedDeque<>(new LinkedListDeque<>(), "counts");
+        for (int i = 0; i < 10; i++)
+            deque.addLast(i);
+        deque.addAllFirst(new Integer[] {-2, -1});
+        assertEquals(Integer.valueOf(-2), deque.removeFirst());
+        assertEquals(Integer.valueOf(9), deque.removeLast());
+        assertEquals(Integer.valueOf(3), deque.get(4));
+        assertEquals(2, deque.removeFirst(2, new Integer[2]));
+
+        assertEquals(12, deque.getAddCount());
+        assertEquals(4, deque.getRemoveCount());
+        assertEquals(1, deque.getGetCount());
+        assertEquals(8, deque.getSize());
+        assertEquals(12, deque.getHighWaterMark());
+        assertEquals(-1, deque.getCapacity());
+        assertEquals(0, deque.getLatencyP99());
+        assertNull(deque.latencies());
+
+        deque.resetStats();
+        assertEquals(0, deque.getAddCount());
+        assertEquals(8, deque.getHighWaterMark());
+    }
+
+    @Test
+    public void testResizes() {
+        ArrayDeque<Integer> array = new ArrayDeque<>();
+        InstrumentedDeque<Integer> deque = new InstrumentedDeque<>(array, "resizes", true);
+        for (int i = 0; i < 100; i++)
+            deque.addLast(i);
+        // 8 -> 16 -> 32 -> 64 -> 128, copying 8 + 16 + 32 + 64 elements
+        assertEquals(4, deque.getResizeCount());
+        assertEquals(120, deque.getCopiedElements());
+        assertTrue(deque.getCopiedBytes() == 480 || deque.getCopiedBytes() == 960);
+        assertEquals(128, deque.getCapacity());
+        assertEquals(28, deque.getWastedSlots());
+        assertEquals(100, deque.latencies().count());
+        assertTrue(deque.getLatencyP50() <= deque.getLatencyMax());
+
+        for (int i = 0; i < 90; i++)
+            deque.removeFirst();
+        assertTrue(deque.getResizeCount() > 4);
+        assertEquals(100, deque.getHighWaterMark());
+
+        array.setResizeListener(null);
+        long resizes = deque.getResizeCount();
+        array.trimToSize();
+        assertEquals(resizes, deque.getResizeCount());
+    }
+
+    @Test
+    public void testJmx() throws JMException {
+        InstrumentedDeque<Integer> deque = new InstrumentedDeque<>(new ArrayDeque<>(), "jmx test");
+        ObjectName name = deque.register();
+        try {
+            deque.addLast(1);
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(1L, server.getAttribute(name, "AddCount"));
+            assertEquals(8, server.getAttribute(name, "Capacity"));
+        } finally {
+            deque.unregister();
+        }
+        // instrumentation is disabled unless -Ddeque.instrumentation=true
+        Deque<Integer> plain = new ArrayDeque<>();
+        assertSame(plain, InstrumentedDeque.instrument(plain, "disabled"));
+    }
+
+    @Test
+    public void testFlightRecorder() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("resizes.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("deque.Resize");
+            recording.start();
+            InstrumentedDeque<Integer> deque = new InstrumentedDeque<>(new ArrayDeque<>(), "recorded");
+            for (int i = 0; i < 9; i++)
+                deque.addLast(i);
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertEquals(1, events.size());
+        assertEquals("recorded", events.get(0).getString("deque"));
+        assertEquals(8, events.get(0).getInt("oldCapacity"));
+        assertEquals(16, events.get(0).getInt("newCapacity"));
+        assertEquals(8, events.get(0).getInt("copiedElements"));
+    }
+}
@@ -0,0 +1,43 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TestLatencyHistogram {
+
+    @Test
+    public void testEmpty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.percentile(99));
+        assertEquals(0, histogram.max());
+        assertEquals(0, histogram.mean(), 0);
+    }
+
+    @Test
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 1000; value++)
+            histogram.record(value);
+        assertEquals(1000, histogram.count());
+        assertEquals(1000, histogram.max());
+        assertEquals(500.5, histogram.mean(), 1e-9);
+        assertEquals(1, histogram.percentile(0));
+        assertEquals(1000, histogram.percentile(100));
+        assertEquals(500, histogram.percentile(50), 500 / 32);
+        assertEquals(990, histogram.percentile(99), 990 / 32);
+
+        histogram.reset();
+        assertEquals(0, histogram.count());
+    }
+
+    @Test
+    public void testRelativeError() {
+        for (long value : new long[] {0, 63, 64, 65, 1000, 123_456_789, Long.MAX_VALUE}) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.record(value);
+            histogram.record(Long.MAX_VALUE);
+            long reported = histogram.percentile(50);
+            assertTrue(reported >= value);
+            assertTrue(reported - value <= value / 32);
+        }
+    }
+}
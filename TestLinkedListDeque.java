@@ -0,0 +1,155 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+public class TestLinkedListDeque {
+
+    private static LinkedListDeque<Integer> deque(int n) {
+        LinkedListDeque<Integer> d = new LinkedListDeque<>();
+        for (int i = 0; i < n; i++)
+            d.addLast(i);
+        return d;
+    }
+
+    @Test
+    public void testAddRemove() {
+        LinkedListDeque<Integer> d = deque(3);
+        d.addFirst(-1);
+        assertEquals(Integer.valueOf(2), d.removeLast());
+        assertEquals(Integer.valueOf(-1), d.removeFirst());
+        assertEquals(Integer.valueOf(1), d.removeLast());
+        assertEquals(Integer.valueOf(0), d.removeLast());
+        assertNull(d.removeLast());
+        d.addFirst(5);
+        assertEquals(Integer.valueOf(5), d.get(0));
+        assertEquals(1, d.size());
+    }
+
+    @Test
+    public void testCopyConstructor() {
+        LinkedListDeque<Integer> d = deque(100);
+        LinkedListDeque<Integer> copy = new LinkedListDeque<>(d);
+        d.removeFirst();
+        assertEquals(100, copy.size());
+        assertArrayEquals(deque(100).toArray(), copy.toArray());
+        assertEquals(Integer.valueOf(99), copy.removeLast());
+        assertEquals(0, new LinkedListDeque<>(new LinkedListDeque<Integer>()).size());
+    }
+
+    @Test
+    public void testGetInAnyOrder() {
+        LinkedListDeque<Integer> d = deque(1000);
+        for (int i = 0; i < 1000; i++)
+            assertEquals(Integer.valueOf(i), d.get(i));
+        for (int i = 999; i >= 0; i -= 7)
+            assertEquals(Integer.valueOf(i), d.get(i));
+        d.removeFirst();
+        assertEquals(Integer.valueOf(501), d.get(500));
+        assertNull(d.get(-1));
+        assertNull(d.get(999));
+    }
+
+    /** Threads reading an unmodified deque share the node remembered by get() */
+    @Test
+    public void testConcurrentReaders() throws InterruptedException {
+        LinkedListDeque<Integer> d = deque(1000);
+        boolean[] failed = new boolean[4];
+        Thread[] readers = new Thread[failed.length];
+        for (int t = 0; t < readers.length; t++) {
+            int reader = t;
+            readers[t] = new Thread(() -> {
+                Random random = new Random(reader);
+                for (int i = 0; i < 200_000; i++) {
+                    int index = random.nextInt(1000);
+                    if (d.get(index) != index)
+                        failed[reader] = true;
+                    if (i % 1000 == 0)
+                        Thread.yield();
+                }
+            });
+            readers[t].start();
+        }
+        for (Thread reader : readers)
+            reader.join();
+        for (boolean f : failed)
+            assertFalse(f);
+    }
+
+    /** getRecursive() no longer uses a stack frame per element */
+    @Test
+    public void testGetRecursiveLargeIndex() {
+        LinkedListDeque<Integer> d = deque(1_000_000);
+        assertEquals(Integer.valueOf(500_000), d.getRecursive(500_000));
+        assertNull(d.getRecursive(1_000_000));
+    }
+
+    @Test
+    public void testCursor() {
+        LinkedListDeque<Integer> d = deque(100);
+        LinkedListDeque<Integer>.ListCursor cursor = d.cursor();
+        assertEquals(-1, cursor.index());
+        assertFalse(cursor.hasPrevious());
+        for (int i = 0; i < 100; i++)
+            assertEquals(Integer.valueOf(i), cursor.next());
+        assertFalse(cursor.hasNext());
+        assertEquals(Integer.valueOf(98), cursor.previous());
+        assertEquals(Integer.valueOf(40), cursor.get(40));
+        assertEquals(Integer.valueOf(41), cursor.next());
+        assertNull(cursor.get(100));
+        assertEquals(41, cursor.index());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testCursorPastTheEnd() {
+        LinkedListDeque<Integer>.ListCursor cursor = deque(1).cursor();
+        cursor.next();
+        cursor.next();
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testCursorInvalidated() {
+        LinkedListDeque<Integer> d = deque(10);
+        LinkedListDeque<Integer>.ListCursor cursor = d.cursor();
+        cursor.get(5);
+        d.removeFirst();
+        cursor.next();
+    }
+
+    @Test
+    public void testIterators() {
+        LinkedListDeque<Integer> d = deque(100);
+        int expected = 0;
+        for (Integer item : d)
+            assertEquals(Integer.valueOf(expected++), item);
+        assertEquals(100, expected);
+        Iterator<Integer> descending = d.descendingIterator();
+        for (int i = 99; i >= 0; i--)
+            assertEquals(Integer.valueOf(i), descending.next());
+        assertFalse(descending.hasNext());
+        assertEquals(4950L, d.parallelStream().mapToLong(Integer::longValue).sum());
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testIteratorFailFast() {
+        LinkedListDeque<Integer> d = deque(10);
+        for (Integer item : d)
+            if (item == 5)
+                d.addFirst(-1);
+    }
+
+    /** Random bulk and single operations on both ends give the same results as java.util.ArrayDeque */
+    @Test
+    public void testBulkOperations() {
+        LinkedListDeque<Integer> d = TestArrayDeque.checkBulkOperations(LinkedListDeque::new);
+        assertArrayEquals(d.toArray(), new LinkedListDeque<>(d).toArray());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRemoveMoreThanArrayLength() {
+        new LinkedListDeque<Integer>().removeFirst(2, new Integer[1]);
+    }
+}
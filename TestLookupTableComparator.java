@@ -0,0 +1,52 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TestLookupTableComparator {
+
+    @Test
+    public void testMatchesSource() {
+        CharacterComparator[] sources = {new OffByOne(), new OffByN(0), new OffByN(5), (x, y) -> (x ^ y) == 32};
+        for (CharacterComparator source : sources) {
+            CharacterComparator table = new LookupTableComparator(source);
+            for (char x = 0; x < 300; x++)
+                for (char y = 0; y < 300; y++)
+                    assertEquals(source.equalChars(x, y), table.equalChars(x, y));
+            assertEquals(source.isEquivalence(), table.isEquivalence());
+        }
+    }
+
+    @Test
+    public void testMatchesMirrored() {
+        CharacterComparator offByOne = new OffByOne();
+        CharacterComparator table = new LookupTableComparator(offByOne);
+        String[] words = {"", "a", "ab", "aa", "flake", "flakes", "xflakey", "\u0100\u0101", "\u0100\u0100"};
+        for (String word : words) {
+            boolean expected = new PalindromicSubstrings().longest(word, offByOne).length() == word.length();
+            assertEquals(expected, offByOne.matchesMirrored(word, 0, word.length()));
+            assertEquals(expected, offByOne.matchesMirrored(word.toCharArray(), 0, word.length()));
+            assertEquals(expected, table.matchesMirrored(word, 0, word.length()));
+            assertEquals(expected, table.matchesMirrored(word.toCharArray(), 0, word.length()));
+        }
+        char[] chars = "zzflakezz".toCharArray();
+        assertTrue(table.matchesMirrored(chars, 2, 7));
+        assertFalse(table.matchesMirrored(chars, 1, 7));
+        assertFalse(new OffByN(5).matchesMirrored("afxa", 1, 3));
+        assertTrue(new OffByN(5).matchesMirrored("xafx", 1, 3));
+    }
+
+    /** A code point source keeps its semantics: surrogate pairs stay whole and ignorable code points are skipped */
+    @Test
+    public void testCodePointSource() {
+        Palindrome palindrome = new Palindrome();
+        CodePointComparator accents = new AccentInsensitiveComparator(true);
+        CharacterComparator table = new LookupTableComparator(accents);
+        String[] words = {"e\u0301te", "Ete\u0301", "\uD83D\uDE00a\uD83D\uDE00", "\uD83D\uDE00a\uDE00\uD83D", "abc"};
+        for (String word : words) {
+            assertEquals(word, palindrome.isPalindrome(word, accents), palindrome.isPalindrome(word, table));
+            assertEquals(word, accents.matchesMirrored(word.toCharArray(), 0, word.length()),
+                    table.matchesMirrored(word.toCharArray(), 0, word.length()));
+        }
+        assertTrue(palindrome.isPalindrome("e\u0301te", table));
+        assertTrue(table.equalChars('E', 'e'));
+    }
+}
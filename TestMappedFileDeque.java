@@ -0,0 +1,94 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+public class TestMappedFileDeque {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    static RecordCodec<Long> longCodec = new RecordCodec<Long>() {
+        @Override
+        public int recordSize() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void write(Long item, ByteBuffer buffer, int offset) {
+            buffer.putLong(offset, item);
+        }
+
+        @Override
+        public Long read(ByteBuffer buffer, int offset) {
+            return buffer.getLong(offset);
+        }
+    };
+
+    @Test
+    public void testGrowthAcrossSegments() throws IOException {
+        Path dir = folder.newFolder().toPath();
+        java.util.ArrayDeque<Long> expected = new java.util.ArrayDeque<>();
+        try (MappedFileDeque<Long> d = new MappedFileDeque<>(dir, longCodec,
+                MappedFileDeque.SyncPolicy.onClose(), 4)) {
+            // wrap the records around before every resize
+            for (long i = 0; i < 100; i++) {
+                d.addFirst(i);
+                expected.addFirst(i);
+                d.addLast(-i);
+                expected.addLast(-i);
+                if (i % 5 == 0)
+                    assertEquals(expected.pollLast(), d.removeLast());
+            }
+            assertEquals(expected.size(), d.size());
+            for (int i = 0; i < expected.size(); i++)
+                assertEquals(new java.util.ArrayList<>(expected).get(i), d.get(i));
+        }
+    }
+
+    @Test
+    public void testItemsSurviveReopening() throws IOException {
+        Path dir = folder.newFolder().toPath();
+        try (MappedFileDeque<Long> d = new MappedFileDeque<>(dir, longCodec,
+                MappedFileDeque.SyncPolicy.everyOperations(10), 8)) {
+            for (long i = 0; i < 50; i++)
+                d.addLast(i);
+            d.removeFirst();
+            d.addFirst(100L);
+        }
+        try (MappedFileDeque<Long> d = new MappedFileDeque<>(dir, longCodec,
+                MappedFileDeque.SyncPolicy.everyOperation())) {
+            assertEquals(50, d.size());
+            assertEquals(Long.valueOf(100L), d.removeFirst());
+            assertEquals(Long.valueOf(1L), d.removeFirst());
+            assertEquals(Long.valueOf(49L), d.removeLast());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testRecordSizeMismatch() throws IOException {
+        Path dir = folder.newFolder().toPath();
+        new MappedFileDeque<>(dir, longCodec, MappedFileDeque.SyncPolicy.onClose()).close();
+        RecordCodec<Integer> intCodec = new RecordCodec<Integer>() {
+            @Override
+            public int recordSize() {
+                return Integer.BYTES;
+            }
+
+            @Override
+            public void write(Integer item, ByteBuffer buffer, int offset) {
+                buffer.putInt(offset, item);
+            }
+
+            @Override
+            public Integer read(ByteBuffer buffer, int offset) {
+                return buffer.getInt(offset);
+            }
+        };
+        new MappedFileDeque<>(dir, intCodec, MappedFileDeque.SyncPolicy.onClose());
+    }
+}
@@ -0,0 +1,79 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+public class TestMonotonicDeque {
+
+    @Test
+    public void testMinimum() {
+        MonotonicDeque deque = MonotonicDeque.minimum();
+        deque.push(5, 0);
+        deque.push(3, 1);
+        deque.push(4, 2);
+        assertEquals(3, deque.peekFirst(), 0);
+        assertEquals(1, deque.peekFirstTimestamp());
+        assertEquals(2, deque.size());
+        assertEquals(1, deque.evictOlderThan(2));
+        assertEquals(4, deque.peekFirst(), 0);
+        deque.push(4, 3);
+        assertEquals(1, deque.size());
+    }
+
+    @Test
+    public void testMaximum() {
+        MonotonicDeque deque = MonotonicDeque.maximum();
+        assertTrue(deque.isMaximum());
+        deque.push(1, 0);
+        deque.push(3, 0);
+        deque.push(2, 1);
+        assertEquals(3, deque.peekFirst(), 0);
+        deque.evictOlderThan(1);
+        assertEquals(2, deque.peekFirst(), 0);
+        deque.clear();
+        assertTrue(deque.isEmpty());
+        deque.push(7, -5);
+        assertEquals(7, deque.peekFirst(), 0);
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testEmpty() {
+        MonotonicDeque.minimum().peekFirst();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOlderTimestamp() {
+        MonotonicDeque deque = MonotonicDeque.minimum();
+        deque.push(1, 10);
+        deque.push(2, 9);
+    }
+
+    @Test
+    public void testWindowMatchesBruteForce() {
+        Random random = new Random(23);
+        for (int length : new int[] {1, 3, 50}) {
+            MinMaxWindow window = new MinMaxWindow(length);
+            double[] values = new double[5000];
+            long[] timestamps = new long[values.length];
+            long time = 0;
+            for (int i = 0; i < values.length; i++) {
+                time += random.nextInt(3);
+                values[i] = random.nextInt(100) / 4.0;
+                timestamps[i] = time;
+                window.push(values[i], time);
+
+                double min = Double.POSITIVE_INFINITY;
+                double max = Double.NEGATIVE_INFINITY;
+                for (int j = i; j >= 0 && timestamps[j] > time - length; j--) {
+                    min = Math.min(min, values[j]);
+                    max = Math.max(max, values[j]);
+                }
+                assertEquals(min, window.min(), 0);
+                assertEquals(max, window.max(), 0);
+            }
+            window.advanceTo(time + length);
+            assertTrue(window.isEmpty());
+        }
+    }
+}
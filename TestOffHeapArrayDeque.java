@@ -0,0 +1,69 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+
+public class TestOffHeapArrayDeque {
+
+    /** Encodes a long as an 8 byte record */
+    static RecordCodec<Long> longCodec = new RecordCodec<Long>() {
+        @Override
+        public int recordSize() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void write(Long item, ByteBuffer buffer, int offset) {
+            buffer.putLong(offset, item);
+        }
+
+        @Override
+        public Long read(ByteBuffer buffer, int offset) {
+            return buffer.getLong(offset);
+        }
+    };
+
+    @Test
+    public void testAddRemoveAcrossResizes() {
+        OffHeapArrayDeque<Long> d = new OffHeapArrayDeque<>(longCodec);
+        java.util.ArrayDeque<Long> expected = new java.util.ArrayDeque<>();
+        for (long i = 0; i < 1000; i++) {
+            if (i % 3 == 0) {
+                d.addFirst(i);
+                expected.addFirst(i);
+            } else {
+                d.addLast(i);
+                expected.addLast(i);
+            }
+        }
+        assertEquals(1000, d.size());
+        assertTrue(d.capacity() >= 1000);
+        assertEquals(expected.peekFirst(), d.get(0));
+        assertEquals(expected.peekLast(), d.get(999));
+        while (!expected.isEmpty()) {
+            assertEquals(expected.pollLast(), d.removeLast());
+            assertEquals(expected.pollFirst(), d.removeFirst());
+        }
+        assertNull(d.removeFirst());
+        assertNull(d.get(0));
+    }
+
+    @Test
+    public void testFieldAccessors() {
+        OffHeapArrayDeque<Long> d = new OffHeapArrayDeque<>(longCodec);
+        d.addLast(1L);
+        d.addLast(2L);
+        assertEquals(2L, d.getLong(1, 0));
+        d.setLong(1, 0, 42L);
+        assertEquals(Long.valueOf(42L), d.get(1));
+        d.setInt(0, 0, 7);
+        assertEquals(7, d.getInt(0, 0));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testFieldOutsideRecord() {
+        OffHeapArrayDeque<Long> d = new OffHeapArrayDeque<>(longCodec);
+        d.addLast(1L);
+        d.getInt(0, 6);
+    }
+}
@@ -54,4 +54,67 @@ public class TestPalindrome {
         assertFalse(palindrome.isPalindrome("car", offByFive));
         assertTrue(palindrome.isPalindrome("cdafih", offByFive));
     }
+
+    @Test
+    public void testCharSequenceIsPalindrome() {
+        assertTrue(palindrome.isPalindrome(new StringBuilder("noon")));
+        assertTrue(palindrome.isPalindrome("\u0100a\u0100"));
+        assertFalse(palindrome.isPalindrome("\u0100a\u0101"));
+    }
+
+    /** Long words are checked iteratively, without running out of stack */
+    @Test
+    public void testLongWordIsPalindrome() {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < 1_000_000; i++)
+            word.append((char) ('a' + i % 26));
+        String half = word.toString();
+        word.reverse();
+        assertTrue(palindrome.isPalindrome(half + word));
+        assertFalse(palindrome.isPalindrome(half + "x" + word, offByOne));
+        assertFalse(palindrome.isPalindrome(half + "x" + half));
+    }
+
+    @Test
+    public void testReusedCharDeque() {
+        CharArrayDeque deque = new CharArrayDeque();
+        assertTrue(palindrome.isPalindrome(palindrome.wordToCharDeque("racecar", deque)));
+        assertFalse(palindrome.isPalindrome(palindrome.wordToCharDeque("lecture", deque)));
+        assertEquals(7, deque.size());
+        assertTrue(palindrome.isPalindrome(palindrome.wordToCharDeque("flake", deque), offByOne));
+        assertTrue(palindrome.isPalindrome(palindrome.wordToCharDeque("", deque), offByFive));
+        assertTrue(palindrome.isPalindrome(palindrome.wordToCharDeque("cdafih", deque), offByFive));
+    }
+
+    @Test
+    public void testCodePointPalindrome() {
+        // U+1F600 and U+1F601, each a surrogate pair
+        String grinning = "\ud83d\ude00";
+        String beaming = "\ud83d\ude01";
+        String word = "a" + grinning + beaming + grinning + "a";
+        assertFalse(palindrome.isPalindrome(word));
+        assertTrue(palindrome.isCodePointPalindrome(word));
+        assertTrue(palindrome.isCodePointPalindrome(grinning));
+        assertTrue(palindrome.isCodePointPalindrome(grinning + grinning));
+        assertFalse(palindrome.isCodePointPalindrome(grinning + beaming));
+        assertTrue(palindrome.isCodePointPalindrome(""));
+        assertTrue(palindrome.isCodePointPalindrome("racecar"));
+        assertFalse(palindrome.isCodePointPalindrome("lecture"));
+    }
+
+    @Test
+    public void testFoldingPalindrome() {
+        CodePointComparator caseInsensitive = new CaseInsensitiveComparator();
+        assertTrue(palindrome.isCodePointPalindrome("RaceCar", caseInsensitive));
+        assertTrue(palindrome.isPalindrome("Noon", caseInsensitive));
+        assertFalse(palindrome.isCodePointPalindrome("Lecture", caseInsensitive));
+
+        CodePointComparator accents = new AccentInsensitiveComparator(true);
+        // "Ete" with accents on both e, precomposed, decomposed into combining accents and mixed
+        assertTrue(palindrome.isCodePointPalindrome("\u00c9t\u00e9", accents));
+        assertTrue(palindrome.isCodePointPalindrome("e\u0301te", accents));
+        assertTrue(palindrome.isCodePointPalindrome("\u00c9te\u0301", accents));
+        assertFalse(palindrome.isCodePointPalindrome("\u00c9t\u00e9", new AccentInsensitiveComparator()));
+        assertFalse(palindrome.isCodePointPalindrome("\u00c9ta", accents));
+    }
 }
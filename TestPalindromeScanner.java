@@ -0,0 +1,98 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class TestPalindromeScanner {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static final List<String> WORDS = List.of("racecar", "lecture", "noon", "flake", "", "a", "ab", "cdafih");
+
+    @Test
+    public void testStream() {
+        PalindromeScanner scanner = new PalindromeScanner();
+        assertEquals(List.of("racecar", "noon", "", "a"), scanner.palindromes(WORDS.stream()).collect(Collectors.toList()));
+        assertEquals(4, scanner.count(WORDS.stream()));
+        assertEquals(4, new PalindromeScanner(new OffByOne()).count(WORDS.stream()));
+        assertEquals(3, new PalindromeScanner(new OffByN(5)).count(WORDS.stream()));
+    }
+
+    @Test
+    public void testMappedFileMatchesLines() throws IOException {
+        Random random = new Random(3);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 20_000; i++) {
+            int length = random.nextInt(6);
+            StringBuilder word = new StringBuilder();
+            for (int j = 0; j < length; j++)
+                word.append((char) ('a' + random.nextInt(2)));
+            text.append(word).append(i % 7 == 0 ? "\r\n" : "\n");
+        }
+        text.append("abba");
+        Path file = folder.newFile("words.txt").toPath();
+        Files.write(file, text.toString().getBytes(StandardCharsets.ISO_8859_1));
+
+        for (CharacterComparator cc : new CharacterComparator[] {null, new OffByOne()}) {
+            ForkJoinPool pool = new ForkJoinPool(4);
+            PalindromeScanner scanner = new PalindromeScanner(cc, pool, 1000);
+            long expected;
+            try (Stream<String> lines = scanner.palindromes(file, StandardCharsets.ISO_8859_1)) {
+                expected = lines.count();
+            }
+            assertTrue(expected > 0);
+            assertEquals(expected, scanner.count(file));
+            Set<String> hits = ConcurrentHashMap.newKeySet();
+            assertEquals(expected, scanner.scan(file, hits::add));
+            for (String hit : hits)
+                assertTrue(scanner.matches(hit));
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        Path file = folder.newFile("empty.txt").toPath();
+        assertEquals(0, new PalindromeScanner().count(file));
+    }
+
+    /** A chunk size beyond what one mapping holds is lowered, so a file over 2 GB is still scanned */
+    @Test
+    public void testChunkSizeFitsOneMapping() {
+        assertEquals(1000, new PalindromeScanner(null, ForkJoinPool.commonPool(), 1000).chunkSize());
+        long clamped = new PalindromeScanner(null, ForkJoinPool.commonPool(), Long.MAX_VALUE).chunkSize();
+        // a chunk runs up to 64 MB past its cut to the end of a line, and must still fit in one mapping
+        assertTrue(clamped + (64L << 20) <= Integer.MAX_VALUE);
+        assertTrue(clamped > Integer.MAX_VALUE / 2);
+    }
+
+    /** Every chunk size, down to one byte, puts the cuts at every position of a small file, next to or inside line breaks */
+    @Test
+    public void testChunkBoundaries() throws IOException {
+        String text = "abba\nx\r\nracecar\n\nab\r\n\r\nlevel\nnoon";
+        Path file = folder.newFile("boundaries.txt").toPath();
+        Files.write(file, text.getBytes(StandardCharsets.ISO_8859_1));
+        ForkJoinPool pool = new ForkJoinPool(2);
+        for (int chunkSize = 1; chunkSize <= text.length() + 1; chunkSize++) {
+            PalindromeScanner scanner = new PalindromeScanner(null, pool, chunkSize);
+            assertEquals("chunk size " + chunkSize, 7, scanner.count(file));
+            Set<String> hits = ConcurrentHashMap.newKeySet();
+            scanner.scan(file, hits::add);
+            assertEquals("chunk size " + chunkSize, Set.of("abba", "x", "racecar", "", "level", "noon"), hits);
+        }
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,78 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class TestPalindromicSubstrings {
+    private static final PalindromicSubstrings substrings = new PalindromicSubstrings();
+    private static final Palindrome palindrome = new Palindrome();
+
+    @Test
+    public void testLongest() {
+        assertEquals("", substrings.longest(""));
+        assertEquals("a", substrings.longest("abc"));
+        assertEquals("racecar", substrings.longest("xracecary"));
+        assertEquals("abba", substrings.longest("cabbad"));
+        assertEquals("aba", substrings.longest("abacdc"));
+        assertEquals("flake", substrings.longest("qflakeq", new OffByOne()));
+    }
+
+    @Test
+    public void testCount() {
+        assertEquals(0, substrings.count(""));
+        assertEquals(6, substrings.count("aaa"));
+        assertEquals(6, substrings.count("abba"));
+        assertEquals(3, substrings.countDistinct("aaa"));
+        assertEquals(4, substrings.countDistinct("abba"));
+    }
+
+    @Test
+    public void testMatchesBruteForce() {
+        Random random = new Random(17);
+        CharacterComparator[] comparators = {new OffByOne(), new OffByN(0), new OffByN(2)};
+        for (int round = 0; round < 300; round++) {
+            char[] chars = new char[random.nextInt(40)];
+            for (int i = 0; i < chars.length; i++)
+                chars[i] = (char) ('a' + random.nextInt(1 + round % 4));
+            String text = new String(chars);
+
+            assertEquals(bruteLongest(text, null), substrings.longest(text));
+            assertEquals(bruteCount(text, null), substrings.count(text));
+            for (CharacterComparator cc : comparators) {
+                assertEquals(bruteLongest(text, cc), substrings.longest(text, cc));
+                assertEquals(bruteCount(text, cc), substrings.count(text, cc));
+            }
+
+            Set<String> distinct = new HashSet<>();
+            for (int i = 0; i < text.length(); i++)
+                for (int j = i + 1; j <= text.length(); j++)
+                    if (palindrome.isPalindrome(text.substring(i, j)))
+                        distinct.add(text.substring(i, j));
+            assertEquals(distinct.size(), substrings.countDistinct(text));
+        }
+    }
+
+    private static boolean isPalindrome(String word, CharacterComparator cc) {
+        return cc == null ? palindrome.isPalindrome(word) : palindrome.isPalindrome(word, cc);
+    }
+
+    private static String bruteLongest(String text, CharacterComparator cc) {
+        String longest = "";
+        for (int i = 0; i < text.length(); i++)
+            for (int j = i + longest.length() + 1; j <= text.length(); j++)
+                if (isPalindrome(text.substring(i, j), cc))
+                    longest = text.substring(i, j);
+        return longest;
+    }
+
+    private static long bruteCount(String text, CharacterComparator cc) {
+        long count = 0;
+        for (int i = 0; i < text.length(); i++)
+            for (int j = i + 1; j <= text.length(); j++)
+                if (isPalindrome(text.substring(i, j), cc))
+                    count++;
+        return count;
+    }
+}
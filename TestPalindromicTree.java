@@ -0,0 +1,46 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+public class TestPalindromicTree {
+
+    @Test
+    public void testEmpty() {
+        PalindromicTree tree = new PalindromicTree();
+        assertEquals(0, tree.length());
+        assertEquals(0, tree.distinct());
+        assertEquals(0, tree.count());
+        assertEquals("", tree.longest());
+    }
+
+    @Test
+    public void testAdd() {
+        PalindromicTree tree = new PalindromicTree(0);
+        tree.addAll("eertree");
+        assertEquals(7, tree.length());
+        // e, ee, r, t, rtr, ertre, eertree
+        assertEquals(7, tree.distinct());
+        assertEquals("eertree", tree.longest());
+        tree.add('x');
+        assertEquals(8, tree.distinct());
+        assertEquals("eertree", tree.longest());
+    }
+
+    @Test
+    public void testMatchesManacher() {
+        PalindromicSubstrings substrings = new PalindromicSubstrings();
+        Random random = new Random(5);
+        StringBuilder text = new StringBuilder();
+        PalindromicTree tree = new PalindromicTree(1);
+        for (int i = 0; i < 2000; i++) {
+            char c = (char) ('a' + random.nextInt(i < 1000 ? 2 : 5));
+            text.append(c);
+            tree.add(c);
+            if (i % 97 == 0) {
+                assertEquals(substrings.count(text), tree.count());
+                assertEquals(substrings.longest(text), tree.longest());
+            }
+        }
+    }
+}
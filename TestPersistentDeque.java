@@ -0,0 +1,133 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+public class TestPersistentDeque {
+
+    @Test
+    public void testVersions() {
+        PersistentDeque<Integer> empty = PersistentDeque.empty();
+        PersistentDeque<Integer> one = empty.addLast(1);
+        PersistentDeque<Integer> two = one.addFirst(0);
+        PersistentDeque<Integer> three = two.addLast(2);
+        assertTrue(empty.isEmpty());
+        assertEquals(1, one.size());
+        assertArrayEquals(new Object[] {0, 1, 2}, three.toArray());
+        assertArrayEquals(new Object[] {0, 1}, two.toArray());
+
+        PersistentDeque<Integer> rest = three.removeFirst();
+        assertArrayEquals(new Object[] {1, 2}, rest.toArray());
+        assertArrayEquals(new Object[] {0, 1, 2}, three.toArray());
+        assertEquals(Integer.valueOf(0), three.peekFirst());
+        assertEquals(Integer.valueOf(2), three.peekLast());
+        assertEquals(Integer.valueOf(1), three.get(1));
+        assertNull(three.get(3));
+        assertNull(empty.peekFirst());
+        assertEquals(List.of(0, 1, 2), three.stream().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testRebalance() {
+        PersistentDeque<Integer> deque = PersistentDeque.empty();
+        for (int i = 0; i < 10; i++)
+            deque = deque.addLast(i);
+        // removing from the same version twice gives equal results
+        assertArrayEquals(deque.removeFirst().toArray(), deque.removeFirst().toArray());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(Integer.valueOf(i), deque.peekFirst());
+            deque = deque.removeFirst();
+        }
+        assertTrue(deque.isEmpty());
+    }
+
+    /**
+     * A writer adds at the back and a reader peeks at both ends of every version. The invariant
+     * keeps both lists non-empty, so this takes linear time overall instead of quadratic.
+     */
+    @Test
+    public void testPeekEveryVersion() {
+        PersistentDeque<Integer> deque = PersistentDeque.empty();
+        for (int i = 0; i < 200_000; i++) {
+            deque = deque.addLast(i);
+            assertEquals(Integer.valueOf(0), deque.peekFirst());
+            assertEquals(Integer.valueOf(i), deque.peekLast());
+        }
+        for (int i = 0; i < 200_000; i++) {
+            assertEquals(Integer.valueOf(i), deque.peekFirst());
+            deque = deque.removeFirst();
+            if (!deque.isEmpty())
+                assertEquals(Integer.valueOf(199_999), deque.peekLast());
+        }
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testRemoveFromEmpty() {
+        PersistentDeque.empty().removeLast();
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNull() {
+        PersistentDeque.empty().addFirst(null);
+    }
+
+    @Test
+    public void testCopyOf() {
+        ArrayDeque<Integer> source = new ArrayDeque<>();
+        for (int i = 0; i < 5; i++)
+            source.addLast(i);
+        PersistentDeque<Integer> copy = PersistentDeque.copyOf(source);
+        source.removeFirst();
+        assertArrayEquals(new Object[] {0, 1, 2, 3, 4}, copy.toArray());
+        assertEquals(Integer.valueOf(4), copy.removeFirst().peekLast());
+    }
+
+    @Test
+    public void testMatchesModel() {
+        Random random = new Random(29);
+        List<PersistentDeque<Integer>> versions = new ArrayList<>();
+        List<Object[]> contents = new ArrayList<>();
+        versions.add(PersistentDeque.empty());
+        contents.add(new Object[0]);
+        for (int i = 0; i < 3000; i++) {
+            int from = random.nextInt(versions.size());
+            PersistentDeque<Integer> version = versions.get(from);
+            java.util.ArrayDeque<Object> model = new java.util.ArrayDeque<>(List.of(contents.get(from)));
+            PersistentDeque<Integer> next;
+            switch (random.nextInt(4)) {
+                case 0:
+                    next = version.addFirst(i);
+                    model.addFirst(i);
+                    break;
+                case 1:
+                    next = version.addLast(i);
+                    model.addLast(i);
+                    break;
+                case 2:
+                    if (model.isEmpty())
+                        continue;
+                    assertEquals(model.peekFirst(), version.peekFirst());
+                    next = version.removeFirst();
+                    model.removeFirst();
+                    break;
+                default:
+                    if (model.isEmpty())
+                        continue;
+                    assertEquals(model.peekLast(), version.peekLast());
+                    next = version.removeLast();
+                    model.removeLast();
+                    break;
+            }
+            assertArrayEquals(model.toArray(), next.toArray());
+            versions.add(next);
+            contents.add(model.toArray());
+        }
+        for (int v = 0; v < versions.size(); v++)
+            assertArrayEquals(contents.get(v), versions.get(v).toArray());
+    }
+}
@@ -0,0 +1,178 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/** Runs the same cases against IntArrayDeque, LongArrayDeque and CharArrayDeque */
+public class TestPrimitiveArrayDeques {
+
+    /** A class representing one of the primitive deques, holding values from 0 to 65535 as int */
+    private interface PrimitiveDeque {
+        void addFirst(int value);
+        void addLast(int value);
+        int removeFirst();
+        int removeLast();
+        int get(int index);
+        int size();
+        void clear();
+    }
+
+    private static final List<Supplier<PrimitiveDeque>> DEQUES = List.of(
+            () -> {
+                IntArrayDeque d = new IntArrayDeque();
+                return new PrimitiveDeque() {
+                    @Override public void addFirst(int value) { d.addFirst(value); }
+                    @Override public void addLast(int value) { d.addLast(value); }
+                    @Override public int removeFirst() { return d.removeFirst(); }
+                    @Override public int removeLast() { return d.removeLast(); }
+                    @Override public int get(int index) { return d.get(index); }
+                    @Override public int size() { return d.size(); }
+                    @Override public void clear() { d.clear(); }
+                    @Override public String toString() { return "IntArrayDeque"; }
+                };
+            },
+            () -> {
+                LongArrayDeque d = new LongArrayDeque();
+                return new PrimitiveDeque() {
+                    @Override public void addFirst(int value) { d.addFirst(value); }
+                    @Override public void addLast(int value) { d.addLast(value); }
+                    @Override public int removeFirst() { return (int) d.removeFirst(); }
+                    @Override public int removeLast() { return (int) d.removeLast(); }
+                    @Override public int get(int index) { return (int) d.get(index); }
+                    @Override public int size() { return d.size(); }
+                    @Override public void clear() { d.clear(); }
+                    @Override public String toString() { return "LongArrayDeque"; }
+                };
+            },
+            () -> {
+                CharArrayDeque d = new CharArrayDeque();
+                return new PrimitiveDeque() {
+                    @Override public void addFirst(int value) { d.addFirst((char) value); }
+                    @Override public void addLast(int value) { d.addLast((char) value); }
+                    @Override public int removeFirst() { return d.removeFirst(); }
+                    @Override public int removeLast() { return d.removeLast(); }
+                    @Override public int get(int index) { return d.get(index); }
+                    @Override public int size() { return d.size(); }
+                    @Override public void clear() { d.clear(); }
+                    @Override public String toString() { return "CharArrayDeque"; }
+                };
+            });
+
+    /** Fills the starting array from both ends, so the values wrap around its end, and cycles through it */
+    @Test
+    public void testBothEndsWrapAround() {
+        for (Supplier<PrimitiveDeque> factory : DEQUES) {
+            PrimitiveDeque d = factory.get();
+            for (int i = 105; i >= 100; i--)
+                d.addFirst(i);
+            d.addLast(106);
+            d.addLast(107);
+            assertEquals(d.toString(), 8, d.size());
+            for (int i = 0; i < 8; i++)
+                assertEquals(d.toString(), 100 + i, d.get(i));
+            assertEquals(d.toString(), 100, d.removeFirst());
+            assertEquals(d.toString(), 107, d.removeLast());
+            assertEquals(d.toString(), 101, d.removeFirst());
+            assertEquals(d.toString(), 106, d.removeLast());
+            for (int i = 0; i < 100; i++) {
+                d.addLast(200 + i);
+                assertEquals(d.toString(), i < 4 ? 102 + i : 196 + i, d.removeFirst());
+            }
+            for (int i = 0; i < 4; i++)
+                assertEquals(d.toString(), 296 + i, d.get(i));
+        }
+    }
+
+    /** Random operations grow the array far beyond its starting length and shrink it back */
+    @Test
+    public void testGrowAndShrink() {
+        for (Supplier<PrimitiveDeque> factory : DEQUES) {
+            PrimitiveDeque d = factory.get();
+            java.util.ArrayDeque<Integer> expected = new java.util.ArrayDeque<>();
+            Random random = new Random(2);
+            for (int round = 0; round < 20_000; round++) {
+                // grow in the first half of every 5000 rounds, shrink in the second
+                boolean growing = round % 5000 < 2500;
+                int operation = random.nextInt(10);
+                int value = round % 65536;
+                if (operation < (growing ? 4 : 1)) {
+                    d.addFirst(value);
+                    expected.addFirst(value);
+                } else if (operation < (growing ? 8 : 2)) {
+                    d.addLast(value);
+                    expected.addLast(value);
+                } else if (expected.isEmpty()) {
+                    continue;
+                } else if (operation % 2 == 0) {
+                    assertEquals(d.toString(), (int) expected.pollFirst(), d.removeFirst());
+                } else {
+                    assertEquals(d.toString(), (int) expected.pollLast(), d.removeLast());
+                }
+                assertEquals(d.toString(), expected.size(), d.size());
+            }
+            int i = 0;
+            for (int value : expected)
+                assertEquals(d.toString(), value, d.get(i++));
+            d.clear();
+            assertEquals(d.toString(), 0, d.size());
+            for (int value = 0; value < 20; value++)
+                d.addFirst(value);
+            assertEquals(d.toString(), 0, d.removeLast());
+            assertEquals(d.toString(), 19, d.removeFirst());
+        }
+    }
+
+    @Test
+    public void testRemoveFromEmpty() {
+        for (Supplier<PrimitiveDeque> factory : DEQUES) {
+            PrimitiveDeque d = factory.get();
+            d.addLast(1);
+            d.addFirst(0);
+            d.removeFirst();
+            d.removeLast();
+            try {
+                d.removeFirst();
+                fail(d.toString());
+            } catch (NoSuchElementException e) {
+                // empty
+            }
+            try {
+                d.removeLast();
+                fail(d.toString());
+            } catch (NoSuchElementException e) {
+                // empty
+            }
+            assertEquals(d.toString(), 0, d.size());
+        }
+    }
+
+    @Test
+    public void testGetBounds() {
+        for (Supplier<PrimitiveDeque> factory : DEQUES) {
+            PrimitiveDeque d = factory.get();
+            for (int index : new int[] {-1, 0}) {
+                try {
+                    d.get(index);
+                    fail(d.toString() + " get(" + index + ") of an empty deque");
+                } catch (IndexOutOfBoundsException e) {
+                    // no such value
+                }
+            }
+            for (int i = 0; i < 8; i++)
+                d.addFirst(i);
+            assertEquals(d.toString(), 7, d.get(0));
+            assertEquals(d.toString(), 0, d.get(7));
+            for (int index : new int[] {-1, 8, Integer.MAX_VALUE, Integer.MIN_VALUE}) {
+                try {
+                    d.get(index);
+                    fail(d.toString() + " get(" + index + ")");
+                } catch (IndexOutOfBoundsException e) {
+                    // no such value
+                }
+            }
+        }
+    }
+}
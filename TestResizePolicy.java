@@ -0,0 +1,112 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TestResizePolicy {
+
+    /** Fills a deque to n elements and then removes down to m elements, alternating both ends */
+    private static ArrayDeque<Integer> fillAndDrain(ArrayDeque<Integer> d, int n, int m) {
+        for (int i = 0; d.size() < n; i++)
+            if (i % 2 == 0)
+                d.addLast(i);
+            else
+                d.addFirst(i);
+        for (int i = 0; d.size() > m; i++)
+            if (i % 2 == 0)
+                d.removeFirst();
+            else
+                d.removeLast();
+        return d;
+    }
+
+    @Test
+    public void testDoubling() {
+        ArrayDeque<Integer> d = new ArrayDeque<>();
+        fillAndDrain(d, 100, 100);
+        assertEquals(128, d.capacity());
+        fillAndDrain(d, 100, 32);
+        assertEquals(128, d.capacity());
+        d.removeLast();
+        assertEquals(64, d.capacity());
+        fillAndDrain(d, 31, 0);
+        assertEquals(16, d.capacity());
+    }
+
+    @Test
+    public void testNeverShrink() {
+        ArrayDeque<Integer> d = fillAndDrain(new ArrayDeque<>(ResizePolicy.neverShrink()), 1000, 0);
+        assertEquals(1024, d.capacity());
+        assertNull(d.removeFirst());
+    }
+
+    @Test
+    public void testHysteresis() {
+        ArrayDeque<Integer> d = fillAndDrain(new ArrayDeque<>(ResizePolicy.hysteresis(256)), 1000, 200);
+        assertEquals(1024, d.capacity());
+        fillAndDrain(d, 200, 100);
+        assertEquals(512, d.capacity());
+        fillAndDrain(d, 100, 0);
+        assertEquals(256, d.capacity());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFixed() {
+        ArrayDeque<Integer> d = new ArrayDeque<>(20, ResizePolicy.fixed());
+        assertEquals(32, d.capacity());
+        fillAndDrain(d, 33, 33);
+    }
+
+    @Test
+    public void testCopyKeepsFixedCapacity() {
+        ArrayDeque<Integer> d = new ArrayDeque<>(64, ResizePolicy.fixed());
+        for (int i = 0; i < 3; i++)
+            d.addLast(i);
+        ArrayDeque<Integer> copy = new ArrayDeque<>(d);
+        assertEquals(64, copy.capacity());
+        for (int i = 3; i < 64; i++)
+            copy.addLast(i);
+        assertEquals(64, copy.size());
+        for (int i = 0; i < 64; i++)
+            assertEquals(Integer.valueOf(i), copy.get(i));
+        assertEquals(3, d.size());
+    }
+
+    @Test
+    public void testEnsureCapacityAndTrimToSize() {
+        ArrayDeque<Integer> d = fillAndDrain(new ArrayDeque<>(ResizePolicy.fixed()), 6, 6);
+        d.ensureCapacity(100);
+        assertEquals(128, d.capacity());
+        fillAndDrain(d, 100, 40);
+        d.trimToSize();
+        assertEquals(64, d.capacity());
+        ArrayDeque<Integer> copy = new ArrayDeque<>(d);
+        assertEquals(64, copy.capacity());
+        for (int i = 0; i < d.size(); i++)
+            assertEquals(d.get(i), copy.get(i));
+    }
+
+    /** Resizing keeps the order of elements wrapped around the end of the array */
+    @Test
+    public void testResizeKeepsOrder() {
+        java.util.ArrayDeque<Integer> expected = new java.util.ArrayDeque<>();
+        ArrayDeque<Integer> d = new ArrayDeque<>(ResizePolicy.hysteresis(8));
+        java.util.Random random = new java.util.Random(7);
+        for (int i = 0; i < 200_000; i++) {
+            int op = random.nextInt(i / 1000 % 2 == 0 ? 5 : 3);
+            if (op == 0) {
+                d.addFirst(i);
+                expected.addFirst(i);
+            } else if (op == 1) {
+                d.addLast(i);
+                expected.addLast(i);
+            } else if (op == 2 || op == 3) {
+                assertEquals(expected.pollFirst(), d.removeFirst());
+            } else {
+                assertEquals(expected.pollLast(), d.removeLast());
+            }
+            assertEquals(expected.size(), d.size());
+        }
+        int i = 0;
+        for (Integer item : expected)
+            assertEquals(item, d.get(i++));
+    }
+}
@@ -0,0 +1,107 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Random;
+
+public class TestRingBufferDeque {
+
+    @Test
+    public void testOverwrite() {
+        RingBufferDeque<Integer> deque = new RingBufferDeque<>(3);
+        for (int i = 0; i < 5; i++)
+            deque.addLast(i);
+        assertTrue(deque.isFull());
+        assertEquals(3, deque.size());
+        assertArrayEquals(new Object[] {2, 3, 4}, deque.toArray());
+        assertEquals(Integer.valueOf(4), deque.getNewest(0));
+        assertEquals(Integer.valueOf(2), deque.getNewest(2));
+        assertNull(deque.getNewest(3));
+
+        // adding to the front overwrites the newest item
+        deque.addFirst(1);
+        assertArrayEquals(new Object[] {1, 2, 3}, deque.toArray());
+        assertEquals(Integer.valueOf(3), deque.removeLast());
+        assertEquals(Integer.valueOf(1), deque.removeFirst());
+        assertEquals(Integer.valueOf(2), deque.removeFirst());
+        assertNull(deque.removeFirst());
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    public void testReject() {
+        RingBufferDeque<Integer> deque = new RingBufferDeque<>(2, RingBufferDeque.Overflow.REJECT);
+        deque.addLast(1);
+        deque.addFirst(0);
+        try {
+            deque.addLast(2);
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        try {
+            deque.addAllLast(new Integer[] {2});
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertArrayEquals(new Object[] {0, 1}, deque.toArray());
+        deque.removeFirst();
+        deque.addLast(2);
+        assertArrayEquals(new Object[] {1, 2}, deque.toArray());
+    }
+
+    @Test
+    public void testAddAllLast() {
+        RingBufferDeque<Integer> deque = new RingBufferDeque<>(4);
+        deque.addAllLast(new Integer[] {0, 1, 2});
+        deque.addAllLast(new Integer[] {3, 4});
+        assertArrayEquals(new Object[] {1, 2, 3, 4}, deque.toArray());
+        deque.addAllLast(new Integer[] {5, 6, 7, 8, 9, 10});
+        assertArrayEquals(new Object[] {7, 8, 9, 10}, deque.toArray());
+        assertEquals(Integer.valueOf(7), deque.get(0));
+    }
+
+    @Test
+    public void testMatchesModel() {
+        Random random = new Random(11);
+        for (int capacity = 1; capacity <= 6; capacity++) {
+            RingBufferDeque<Integer> deque = new RingBufferDeque<>(capacity);
+            java.util.ArrayDeque<Integer> model = new java.util.ArrayDeque<>();
+            for (int i = 0; i < 2000; i++) {
+                int op = random.nextInt(5);
+                if (op == 0) {
+                    deque.addFirst(i);
+                    if (model.size() == capacity)
+                        model.removeLast();
+                    model.addFirst(i);
+                } else if (op == 1 || op == 2) {
+                    deque.addLast(i);
+                    if (model.size() == capacity)
+                        model.removeFirst();
+                    model.addLast(i);
+                } else if (op == 3) {
+                    assertEquals(model.pollFirst(), deque.removeFirst());
+                } else {
+                    assertEquals(model.pollLast(), deque.removeLast());
+                }
+                assertArrayEquals(model.toArray(), deque.toArray());
+                Iterator<Integer> expected = model.descendingIterator();
+                Iterator<Integer> actual = deque.descendingIterator();
+                while (expected.hasNext())
+                    assertEquals(expected.next(), actual.next());
+                assertFalse(actual.hasNext());
+            }
+        }
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testFailFast() {
+        RingBufferDeque<Integer> deque = new RingBufferDeque<>(4);
+        deque.addLast(1);
+        deque.addLast(2);
+        for (Integer item : deque)
+            deque.addLast(item);
+    }
+}
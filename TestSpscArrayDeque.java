@@ -0,0 +1,99 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TestSpscArrayDeque {
+
+    @Test
+    public void testOfferPoll() {
+        SpscArrayDeque<Integer> deque = new SpscArrayDeque<>(3);
+        assertEquals(4, deque.capacity());
+        for (int i = 0; i < 4; i++)
+            assertTrue(deque.offer(i));
+        assertFalse(deque.offer(4));
+        assertEquals(4, deque.size());
+        assertEquals(Integer.valueOf(2), deque.get(2));
+        assertEquals(Integer.valueOf(0), deque.poll());
+        deque.addLast(4);
+        for (int i = 1; i <= 4; i++)
+            assertEquals(Integer.valueOf(i), deque.removeFirst());
+        assertNull(deque.poll());
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    public void testBatches() {
+        SpscArrayDeque<Integer> deque = new SpscArrayDeque<>(8);
+        Integer[] batch = {0, 1, 2, 3, 4, 5};
+        assertEquals(6, deque.offer(batch, 0, 6));
+        assertEquals(2, deque.offer(batch, 0, 6));
+        Integer[] dest = new Integer[10];
+        assertEquals(5, deque.poll(dest, 0, 5));
+        assertArrayEquals(new Integer[] {0, 1, 2, 3, 4}, java.util.Arrays.copyOf(dest, 5));
+        // wraps around the end of the array
+        deque.addAllLast(new Integer[] {6, 7, 8, 9, 10});
+        assertEquals(8, deque.removeFirst(10, dest));
+        assertArrayEquals(new Integer[] {5, 0, 1, 6, 7, 8, 9, 10}, java.util.Arrays.copyOf(dest, 8));
+        assertEquals(0, deque.poll(dest, 0, 10));
+        try {
+            deque.addAllLast(new Integer[9]);
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(deque.isEmpty());
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAddFirst() {
+        new SpscArrayDeque<Integer>(4).addFirst(1);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNull() {
+        new SpscArrayDeque<Integer>(4).offer(null);
+    }
+
+    @Test
+    public void testProducerConsumer() throws InterruptedException {
+        SpscArrayDeque<Integer> deque = new SpscArrayDeque<>(64);
+        int count = 200_000;
+        Thread producer = new Thread(() -> {
+            Integer[] batch = new Integer[7];
+            int next = 0;
+            while (next < count) {
+                if (next % 3 == 0) {
+                    int n = Math.min(batch.length, count - next);
+                    for (int i = 0; i < n; i++)
+                        batch[i] = next + i;
+                    int added = deque.offer(batch, 0, n);
+                    next += added;
+                    if (added == 0)
+                        Thread.yield();
+                } else if (deque.offer(next)) {
+                    next++;
+                } else {
+                    Thread.yield();
+                }
+            }
+        });
+        producer.start();
+        Integer[] batch = new Integer[5];
+        int expected = 0;
+        while (expected < count) {
+            if (expected % 2 == 0) {
+                int n = deque.poll(batch, 0, batch.length);
+                for (int i = 0; i < n; i++)
+                    assertEquals(expected++, (int) batch[i]);
+                if (n == 0)
+                    Thread.yield();
+            } else {
+                Integer item = deque.poll();
+                if (item != null)
+                    assertEquals(expected++, (int) item);
+                else
+                    Thread.yield();
+            }
+        }
+        producer.join();
+        assertNull(deque.poll());
+    }
+}
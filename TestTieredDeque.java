@@ -0,0 +1,215 @@
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ConcurrentModificationException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+public class TestTieredDeque {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSpillsMiddleAndReadsItBack() throws IOException {
+        File dir = folder.newFolder();
+        try (TieredDeque<Long> d = new TieredDeque<>(dir.toPath(), TestMappedFileDeque.longCodec, 8, 4)) {
+            for (long i = 0; i < 100; i++)
+                d.addLast(i);
+            assertEquals(100, d.size());
+            assertEquals(100, d.longSize());
+            assertEquals(92, d.spilledSize());
+            assertEquals(d.segmentCount(), dir.list().length);
+            for (int i = 0; i < 100; i++)
+                assertEquals(Long.valueOf(i), d.get(i));
+            for (long i = 0; i < 100; i++)
+                assertEquals(Long.valueOf(i), d.removeFirst());
+            assertTrue(d.isEmpty());
+            assertEquals(0, d.spilledSize());
+            assertEquals(0, dir.list().length);
+            assertNull(d.removeFirst());
+            assertNull(d.removeLast());
+        }
+    }
+
+    @Test
+    public void testSpillsFromTheFront() throws IOException {
+        try (TieredDeque<Long> d = new TieredDeque<>(folder.newFolder().toPath(), TestMappedFileDeque.longCodec, 8, 4)) {
+            for (long i = 0; i < 50; i++)
+                d.addFirst(i);
+            assertTrue(d.spilledSize() > 0);
+            for (long i = 0; i < 50; i++)
+                assertEquals(Long.valueOf(i), d.removeLast());
+            assertNull(d.removeLast());
+        }
+    }
+
+    @Test
+    public void testRandomOperationsMatchArrayDeque() throws IOException {
+        Random random = new Random(25);
+        java.util.ArrayDeque<Long> expected = new java.util.ArrayDeque<>();
+        try (TieredDeque<Long> d = new TieredDeque<>(folder.newFolder().toPath(), TestMappedFileDeque.longCodec, 16, 3)) {
+            for (long i = 0; i < 5000; i++) {
+                int operation = random.nextInt(10);
+                if (operation < 3) {
+                    d.addFirst(i);
+                    expected.addFirst(i);
+                } else if (operation < 6) {
+                    d.addLast(i);
+                    expected.addLast(i);
+                } else if (operation < 8) {
+                    assertEquals(expected.pollFirst(), d.removeFirst());
+                } else {
+                    assertEquals(expected.pollLast(), d.removeLast());
+                }
+                assertEquals(expected.size(), d.size());
+                assertTrue(d.size() - d.spilledSize() <= 16);
+            }
+            List<Long> items = new ArrayList<>(expected);
+            for (int i = 0; i < items.size(); i++)
+                assertEquals(items.get(i), d.get(i));
+            assertArrayEquals(items.toArray(), d.toArray());
+        }
+    }
+
+    @Test
+    public void testIterators() throws IOException {
+        try (TieredDeque<Long> d = new TieredDeque<>(folder.newFolder().toPath(), TestMappedFileDeque.longCodec, 4, 2)) {
+            for (long i = 0; i < 10; i++)
+                d.addLast(i);
+            for (long i = -1; i > -10; i--)
+                d.addFirst(i);
+            assertTrue(d.segmentCount() > 1);
+            long expected = -9;
+            for (long item : d)
+                assertEquals(expected++, item);
+            assertEquals(10, expected);
+            Iterator<Long> descending = d.descendingIterator();
+            for (long i = 9; i >= -9; i--)
+                assertEquals(Long.valueOf(i), descending.next());
+            assertFalse(descending.hasNext());
+            assertEquals(0, d.stream().mapToLong(Long::longValue).sum());
+        }
+    }
+
+    @Test
+    public void testClearAndCloseDeleteSegments() throws IOException {
+        File dir = folder.newFolder();
+        TieredDeque<Long> d = new TieredDeque<>(dir.toPath(), TestMappedFileDeque.longCodec, 4, 2);
+        for (long i = 0; i < 20; i++)
+            d.addLast(i);
+        assertTrue(dir.list().length > 0);
+        d.clear();
+        assertEquals(0, d.size());
+        assertEquals(0, dir.list().length);
+        for (long i = 0; i < 20; i++)
+            d.addLast(i);
+        d.close();
+        assertEquals(0, dir.list().length);
+        try {
+            d.addLast(1L);
+            fail();
+        } catch (IllegalStateException e) {
+            // closed
+        }
+    }
+
+    @Test
+    public void testRejectsNullsAndSmallBudgets() throws IOException {
+        Path dir = folder.newFolder().toPath();
+        try {
+            new TieredDeque<>(dir, TestMappedFileDeque.longCodec, 5, 3);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // budget must hold two chunks
+        }
+        try (TieredDeque<Long> d = new TieredDeque<>(dir, TestMappedFileDeque.longCodec, 1024)) {
+            assertEquals(1024, d.memoryBudget());
+            d.addLast(null);
+            fail();
+        } catch (NullPointerException e) {
+            // nulls are rejected
+        }
+    }
+
+    /** Stale segment files of a crashed run and a second deque in the same directory are left alone */
+    @Test
+    public void testReusedDirectory() throws IOException {
+        Path dir = folder.newFolder().toPath();
+        Files.write(dir.resolve("tier-0"), new byte[] {1, 2, 3});
+        Files.write(dir.resolve("tier-1.seg"), new byte[] {4, 5, 6});
+        try (TieredDeque<Long> first = new TieredDeque<>(dir, TestMappedFileDeque.longCodec, 4, 2);
+             TieredDeque<Long> second = new TieredDeque<>(dir, TestMappedFileDeque.longCodec, 4, 2)) {
+            for (long i = 0; i < 30; i++) {
+                first.addLast(i);
+                second.addFirst(i);
+            }
+            assertTrue(first.segmentCount() > 0 && second.segmentCount() > 0);
+            for (long i = 0; i < 30; i++) {
+                assertEquals(Long.valueOf(i), first.removeFirst());
+                assertEquals(Long.valueOf(i), second.removeLast());
+            }
+        }
+        String[] left = dir.toFile().list();
+        Arrays.sort(left);
+        assertArrayEquals(new String[] {"tier-0", "tier-1.seg"}, left);
+        assertArrayEquals(new byte[] {1, 2, 3}, Files.readAllBytes(dir.resolve("tier-0")));
+    }
+
+    @Test
+    public void testIteratorIsFailFast() throws IOException {
+        try (TieredDeque<Long> d = new TieredDeque<>(folder.newFolder().toPath(), TestMappedFileDeque.longCodec, 4, 2)) {
+            for (long i = 0; i < 20; i++)
+                d.addLast(i);
+            Iterator<Long> iterator = d.iterator();
+            iterator.next();
+            d.removeFirst();
+            try {
+                iterator.next();
+                fail();
+            } catch (ConcurrentModificationException e) {
+                // the removal loaded a segment into the head
+            }
+            Iterator<Long> descending = d.descendingIterator();
+            descending.next();
+            d.addLast(20L);
+            try {
+                descending.next();
+                fail();
+            } catch (ConcurrentModificationException e) {
+                // the addition spilled the tail
+            }
+        }
+    }
+
+    /** get() finds items in segments spilled from both ends, in any order */
+    @Test
+    public void testGetAcrossSegments() throws IOException {
+        try (TieredDeque<Long> d = new TieredDeque<>(folder.newFolder().toPath(), TestMappedFileDeque.longCodec, 6, 3)) {
+            for (long i = 0; i < 50; i++) {
+                d.addLast(i);
+                d.addFirst(-1 - i);
+            }
+            assertTrue(d.segmentCount() > 10);
+            Random random = new Random(7);
+            for (int i = 0; i < 1000; i++) {
+                int index = random.nextInt(100);
+                assertEquals(Long.valueOf(index - 50), d.get(index));
+            }
+            d.removeFirst();
+            d.removeLast();
+            for (int i = 0; i < 98; i++)
+                assertEquals(Long.valueOf(i - 49), d.get(i));
+            assertNull(d.get(98));
+        }
+    }
+}
@@ -0,0 +1,131 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Random;
+
+public class TestUnrolledLinkedListDeque {
+
+    @Test
+    public void testAcrossBlocks() {
+        UnrolledLinkedListDeque<Integer> d = new UnrolledLinkedListDeque<>(4, 2);
+        assertTrue(d.isEmpty());
+        assertNull(d.removeFirst());
+        assertNull(d.removeLast());
+        for (int i = 0; i < 10; i++) {
+            d.addLast(i);
+            d.addFirst(-i - 1);
+        }
+        assertEquals(20, d.size());
+        for (int i = 0; i < 20; i++)
+            assertEquals(Integer.valueOf(i - 10), d.get(i));
+        assertNull(d.get(-1));
+        assertNull(d.get(20));
+        assertEquals(Integer.valueOf(-10), d.removeFirst());
+        assertEquals(Integer.valueOf(9), d.removeLast());
+        for (int i = 0; i < 18; i++)
+            assertEquals(Integer.valueOf(i - 9), d.removeFirst());
+        assertTrue(d.isEmpty());
+        assertNull(d.removeLast());
+    }
+
+    @Test
+    public void testCopy() {
+        UnrolledLinkedListDeque<String> d = new UnrolledLinkedListDeque<>();
+        for (int i = 0; i < 200; i++)
+            d.addLast("item" + i);
+        UnrolledLinkedListDeque<String> copy = new UnrolledLinkedListDeque<>(d);
+        d.removeFirst();
+        assertEquals(200, copy.size());
+        for (int i = 0; i < 200; i++)
+            assertEquals("item" + i, copy.get(i));
+    }
+
+    @Test
+    public void testCopyKeepsBlockLayout() {
+        UnrolledLinkedListDeque<Integer> d = new UnrolledLinkedListDeque<>(4, 0);
+        for (int i = 0; i < 11; i++)
+            d.addLast(i);
+        for (int i = -1; i >= -7; i--)
+            d.addFirst(i);
+        UnrolledLinkedListDeque<Integer> copy = new UnrolledLinkedListDeque<>(d);
+        assertArrayEquals(d.toArray(), copy.toArray());
+        Iterator<Integer> descending = copy.descendingIterator();
+        for (int i = 10; i >= -7; i--)
+            assertEquals(Integer.valueOf(i), descending.next());
+        // the copy shares no blocks with the original
+        while (!d.isEmpty())
+            d.removeLast();
+        copy.addFirst(-8);
+        copy.addLast(11);
+        assertEquals(20, copy.size());
+        for (int i = 0; i < 20; i++)
+            assertEquals(Integer.valueOf(i - 8), copy.removeFirst());
+        assertTrue(copy.isEmpty());
+        assertEquals(0, new UnrolledLinkedListDeque<>(copy).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBlockSizeNotPowerOfTwo() {
+        new UnrolledLinkedListDeque<Integer>(48, 4);
+    }
+
+    /** Random operations on both ends give the same results as java.util.ArrayDeque */
+    @Test
+    public void testRandomOperations() {
+        for (int pooled : new int[] {0, 4}) {
+            UnrolledLinkedListDeque<Integer> d = new UnrolledLinkedListDeque<>(8, pooled);
+            java.util.ArrayDeque<Integer> expected = new java.util.ArrayDeque<>();
+            Random random = new Random(pooled);
+            for (int i = 0; i < 100_000; i++) {
+                int op = random.nextInt(i / 5000 % 2 == 0 ? 6 : 3);
+                if (op == 0) {
+                    d.addFirst(i);
+                    expected.addFirst(i);
+                } else if (op == 1) {
+                    d.addLast(i);
+                    expected.addLast(i);
+                } else if (op == 2 || op == 4) {
+                    assertEquals(expected.pollFirst(), d.removeFirst());
+                } else {
+                    assertEquals(expected.pollLast(), d.removeLast());
+                }
+                assertEquals(expected.size(), d.size());
+                if (i % 1000 == 0) {
+                    int index = 0;
+                    for (Integer item : expected)
+                        assertEquals(item, d.get(index++));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testIterators() {
+        UnrolledLinkedListDeque<Integer> d = new UnrolledLinkedListDeque<>(4, 0);
+        for (int i = 0; i < 50; i++)
+            d.addLast(i);
+        for (int i = -1; i >= -50; i--)
+            d.addFirst(i);
+        int expected = -50;
+        for (Integer item : d)
+            assertEquals(Integer.valueOf(expected++), item);
+        assertEquals(50, expected);
+        Iterator<Integer> descending = d.descendingIterator();
+        for (int i = 49; i >= -50; i--)
+            assertEquals(Integer.valueOf(i), descending.next());
+        assertFalse(descending.hasNext());
+        assertEquals(-50L, d.parallelStream().mapToLong(Integer::longValue).sum());
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testIteratorFailFast() {
+        UnrolledLinkedListDeque<Integer> d = new UnrolledLinkedListDeque<>();
+        for (int i = 0; i < 10; i++)
+            d.addLast(i);
+        for (Integer item : d)
+            if (item == 5)
+                d.removeFirst();
+    }
+}
@@ -0,0 +1,67 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class TestWorkStealingArrayDeque {
+
+    @Test
+    public void testOwnerOperations() {
+        WorkStealingArrayDeque<Integer> d = new WorkStealingArrayDeque<>();
+        assertNull(d.removeLast());
+        assertNull(d.steal());
+        for (int i = 0; i < 100; i++)
+            d.addLast(i);
+        assertEquals(100, d.size());
+        assertEquals(Integer.valueOf(37), d.get(37));
+        assertEquals(Integer.valueOf(99), d.removeLast());
+        assertEquals(Integer.valueOf(0), d.steal());
+        assertEquals(Integer.valueOf(1), d.removeFirst());
+        assertEquals(97, d.size());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAddFirstUnsupported() {
+        new WorkStealingArrayDeque<Integer>().addFirst(1);
+    }
+
+    /** Items added by the owner are taken exactly once, either by the owner or by one of the thieves */
+    @Test
+    public void testNoItemLostOrDuplicated() throws InterruptedException {
+        WorkStealingArrayDeque<Integer> d = new WorkStealingArrayDeque<>();
+        int total = 1_000_000;
+        AtomicIntegerArray taken = new AtomicIntegerArray(total);
+        AtomicBoolean done = new AtomicBoolean();
+
+        List<Thread> thieves = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thief = new Thread(() -> {
+                while (!done.get() || !d.isEmpty()) {
+                    Integer item = d.steal();
+                    if (item != null)
+                        taken.incrementAndGet(item);
+                }
+            });
+            thieves.add(thief);
+            thief.start();
+        }
+
+        for (int i = 0; i < total; i++) {
+            d.addLast(i);
+            if (i % 3 == 0) {
+                Integer item = d.removeLast();
+                if (item != null)
+                    taken.incrementAndGet(item);
+            }
+        }
+        done.set(true);
+        for (Thread thief : thieves)
+            thief.join();
+
+        for (int i = 0; i < total; i++)
+            assertEquals("item " + i, 1, taken.get(i));
+    }
+}
@@ -0,0 +1,577 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A class representing a double-ended queue which keeps its hot ends in memory and spills its cold
+ * middle to segment files on local disk, for backlogs which may outgrow the heap. The items form
+ * three tiers: a head and a tail, each an in-memory ArrayDeque, and between them a run of segment
+ * files in a given directory, each holding up to chunkSize items encoded by a RecordCodec.
+ * At most memoryBudget items are kept in memory. When an add goes over the budget, up to chunkSize
+ * items are spilled from the larger end, the ones nearest to the middle: the front of the tail
+ * becomes a new last segment, the back of the head a new first segment. So a backlog growing
+ * at the back keeps its newest items in the tail and its oldest ones in the head, and everything
+ * in between is written once, sequentially, with a FileChannel.
+ * When removeFirst() empties the head, the first segment is read back sequentially into it and its
+ * file deleted, and removeLast() does the same with the last segment and the tail. Loading a chunk
+ * may go over the budget, then the other end spills, which never spills the loaded chunk back since
+ * the budget holds at least two chunks. Memory use therefore never grows past the budget plus one
+ * chunk and a buffer of one chunk of records, however many items are stored.
+ * Every segment remembers the position of its first item, so get() finds the segment holding an index
+ * by binary search and reads the record with a positional read, on a channel kept open for the segment
+ * read last. Iterators read whole segments as they reach them and are fail-fast.
+ * The segment files are temporary and get unique names, so stale files of a crashed run and other
+ * deques sharing the directory are left alone; close() deletes them.
+ * size() stops at Integer.MAX_VALUE, longSize() counts a larger backlog.
+ * Null items are not permitted. The deque is not thread-safe.
+ * @param <T> generic type of stored data
+ */
+public class TieredDeque<T> implements Deque<T>, Closeable {
+    private static final String SEGMENT_PREFIX = "tier-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    /**
+     * A class representing a segment file holding a run of items of the middle tier, in deque order.
+     * Positions of items grow from the front to the back of the middle tier and do not change
+     * when segments are added or removed at either end
+     */
+    private static final class Segment {
+        final Path path;
+        final long start;
+        final int count;
+
+        private Segment(Path path, long start, int count) {
+            this.path = path;
+            this.start = start;
+            this.count = count;
+        }
+    }
+
+    private final Path directory;
+    private final RecordCodec<T> codec;
+    private final int recordSize;
+    private final int memoryBudget;
+    private final int chunkSize;
+    private final ByteBuffer buffer;
+    private final ByteBuffer record;
+    private final ArrayDeque<T> head = new ArrayDeque<>();
+    private final ArrayDeque<T> tail = new ArrayDeque<>();
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+    private long spilled;
+    private FileChannel readChannel;
+    private Segment readChannelSegment;
+    private int modCount;
+    private boolean closed;
+
+    /**
+     * Constructor creating an empty TieredDeque spilling chunks of a quarter of the memory budget
+     * @param directory Path, directory the segment files are written to, created if needed
+     * @param codec RecordCodec, encoder and decoder of the spilled items
+     * @param memoryBudget int, maximum number of items kept in memory, at least 2
+     * @throws IOException if the directory cannot be created
+     */
+    public TieredDeque(Path directory, RecordCodec<T> codec, int memoryBudget) throws IOException {
+        this(directory, codec, memoryBudget, Math.max(1, memoryBudget / 4));
+    }
+
+    /**
+     * Constructor creating an empty TieredDeque
+     * @param directory Path, directory the segment files are written to, created if needed
+     * @param codec RecordCodec, encoder and decoder of the spilled items
+     * @param memoryBudget int, maximum number of items kept in memory, at least twice chunkSize
+     * @param chunkSize int, maximum number of items of a segment file, at least 1
+     * @throws IOException if the directory cannot be created
+     */
+    public TieredDeque(Path directory, RecordCodec<T> codec, int memoryBudget, int chunkSize) throws IOException {
+        recordSize = codec.recordSize();
+        if (recordSize <= 0)
+            throw new IllegalArgumentException("Record size must be positive: " + recordSize);
+        if (chunkSize < 1 || (long) chunkSize * recordSize > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Invalid chunk size: " + chunkSize);
+        if (memoryBudget < 2L * chunkSize)
+            throw new IllegalArgumentException("Memory budget " + memoryBudget + " must hold two chunks of " + chunkSize);
+        this.directory = directory;
+        this.codec = codec;
+        this.memoryBudget = memoryBudget;
+        this.chunkSize = chunkSize;
+        buffer = ByteBuffer.allocateDirect(chunkSize * recordSize).order(ByteOrder.LITTLE_ENDIAN);
+        record = ByteBuffer.allocateDirect(recordSize).order(ByteOrder.LITTLE_ENDIAN);
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Returns the maximum number of items kept in memory
+     * @return int, memory budget in items
+     */
+    public int memoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Returns the number of items currently stored in segment files
+     * @return long, number of spilled items
+     */
+    public long spilledSize() {
+        return spilled;
+    }
+
+    /**
+     * Returns the number of segment files currently on disk
+     * @return int, number of segments of the middle tier
+     */
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Spills chunks from the larger in-memory end until the items in memory fit in the budget
+     */
+    private void spillIfOverBudget() {
+        while (head.size() + tail.size() > memoryBudget) {
+            if (tail.size() >= head.size())
+                spillTail();
+            else
+                spillHead();
+        }
+    }
+
+    /**
+     * Writes the first items of the tail to a new last segment. The items leave the tail
+     * only once the file is written, so a failed write loses nothing
+     */
+    private void spillTail() {
+        int count = Math.min(chunkSize, tail.size());
+        buffer.clear();
+        for (int i = 0; i < count; i++)
+            codec.write(tail.get(i), buffer, i * recordSize);
+        Segment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        segments.addLast(writeSegment(count, last == null ? 0 : last.start + last.count));
+        for (int i = 0; i < count; i++)
+            tail.removeFirst();
+    }
+
+    /**
+     * Writes the last items of the head to a new first segment. The items leave the head
+     * only once the file is written, so a failed write loses nothing
+     */
+    private void spillHead() {
+        int count = Math.min(chunkSize, head.size());
+        int from = head.size() - count;
+        buffer.clear();
+        for (int i = 0; i < count; i++)
+            codec.write(head.get(from + i), buffer, i * recordSize);
+        Segment first = segments.isEmpty() ? null : segments.get(0);
+        segments.addFirst(writeSegment(count, first == null ? 0 : first.start - count));
+        for (int i = 0; i < count; i++)
+            head.removeLast();
+    }
+
+    /**
+     * Writes the records encoded at the start of the buffer to a new segment file with a unique name.
+     * A file left by a failed write is deleted
+     * @param count int, number of records in the buffer
+     * @param start long, position of the first record in the middle tier
+     * @return Segment, the written file
+     */
+    private Segment writeSegment(int count, long start) {
+        buffer.position(0).limit(count * recordSize);
+        Path path = null;
+        try {
+            path = Files.createTempFile(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining())
+                    channel.write(buffer);
+            }
+        } catch (IOException e) {
+            UncheckedIOException failure = new UncheckedIOException("Cannot spill TieredDeque to " + directory, e);
+            if (path != null) {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException suppressed) {
+                    failure.addSuppressed(suppressed);
+                }
+            }
+            throw failure;
+        }
+        spilled += count;
+        return new Segment(path, start, count);
+    }
+
+    /**
+     * Reads a whole segment file into the start of the buffer
+     * @param segment Segment, the file to read
+     */
+    private void readSegment(Segment segment) {
+        buffer.clear().limit(segment.count * recordSize);
+        try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining())
+                if (channel.read(buffer) < 0)
+                    throw new IOException("Segment file truncated: " + segment.path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read TieredDeque segment " + segment.path, e);
+        }
+    }
+
+    /**
+     * Deletes the file of a segment removed from the middle tier
+     * @param segment Segment, the removed segment
+     */
+    private void deleteSegment(Segment segment) {
+        try {
+            if (segment == readChannelSegment)
+                closeReadChannel();
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot delete TieredDeque segment " + segment.path, e);
+        }
+        spilled -= segment.count;
+    }
+
+    /**
+     * Reads the first segment back into the empty head, then spills the tail if needed
+     */
+    private void loadFirstSegment() {
+        Segment segment = segments.removeFirst();
+        readSegment(segment);
+        for (int i = 0; i < segment.count; i++)
+            head.addLast(codec.read(buffer, i * recordSize));
+        deleteSegment(segment);
+        spillIfOverBudget();
+    }
+
+    /**
+     * Reads the last segment back into the empty tail, then spills the head if needed
+     */
+    private void loadLastSegment() {
+        Segment segment = segments.removeLast();
+        readSegment(segment);
+        for (int i = 0; i < segment.count; i++)
+            tail.addLast(codec.read(buffer, i * recordSize));
+        deleteSegment(segment);
+        spillIfOverBudget();
+    }
+
+    /**
+     * {@inheritDoc}
+     * May spill the back of the head to disk.
+     * @param item an item of type T added to the front of the deque
+     */
+    @Override
+    public void addFirst(T item) {
+        ensureOpen();
+        checkNotNull(item);
+        head.addFirst(item);
+        modCount++;
+        spillIfOverBudget();
+    }
+
+    /**
+     * {@inheritDoc}
+     * May spill the front of the tail to disk.
+     * @param item an item of type T added to the end of the deque
+     */
+    @Override
+    public void addLast(T item) {
+        ensureOpen();
+        checkNotNull(item);
+        tail.addLast(item);
+        modCount++;
+        spillIfOverBudget();
+    }
+
+    /**
+     * {@inheritDoc}
+     * A backlog of more than Integer.MAX_VALUE items reports Integer.MAX_VALUE, see longSize().
+     * @return int, number of items in memory and on disk, at most Integer.MAX_VALUE
+     */
+    @Override
+    public int size() {
+        return (int) Math.min(longSize(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the number of items in the deque, which may exceed Integer.MAX_VALUE
+     * @return long, number of items in memory and on disk
+     */
+    public long longSize() {
+        return head.size() + spilled + tail.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void printDeque() {
+        for (T item : this)
+            System.out.print(item + " ");
+        System.out.println();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Reads the first segment back from disk when the head is empty.
+     * @return removed element of a given generic type, null if no such item exists
+     */
+    @Override
+    public T removeFirst() {
+        ensureOpen();
+        if (longSize() == 0)
+            return null;
+        modCount++;
+        if (head.isEmpty()) {
+            if (segments.isEmpty())
+                return tail.removeFirst();
+            loadFirstSegment();
+        }
+        return head.removeFirst();
+    }
+
+    /**
+     * {@inheritDoc}
+     * Reads the last segment back from disk when the tail is empty.
+     * @return removed element of a given generic type, null if no such item exists
+     */
+    @Override
+    public T removeLast() {
+        ensureOpen();
+        if (longSize() == 0)
+            return null;
+        modCount++;
+        if (tail.isEmpty()) {
+            if (segments.isEmpty())
+                return head.removeLast();
+            loadLastSegment();
+        }
+        return tail.removeLast();
+    }
+
+    /**
+     * {@inheritDoc}
+     * The segment holding an item on disk is found by binary search over the positions of the segments,
+     * and the record is read with a single positional read.
+     * @param index int, a required index of the deque
+     * @return element of a generic type found at the required index in the deque
+     */
+    @Override
+    public T get(int index) {
+        ensureOpen();
+        if (index < 0 || index >= size())
+            return null;
+        if (index < head.size())
+            return head.get(index);
+        long middleIndex = (long) index - head.size();
+        if (middleIndex >= spilled)
+            return tail.get((int) (middleIndex - spilled));
+        long position = segments.get(0).start + middleIndex;
+        int low = 0;
+        int high = segments.size() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (segments.get(middle).start <= position)
+                low = middle;
+            else
+                high = middle - 1;
+        }
+        Segment segment = segments.get(low);
+        return readRecord(segment, (int) (position - segment.start));
+    }
+
+    /**
+     * Reads a single record of a segment file, reusing the channel opened for the previous read
+     * if it was of the same segment
+     * @param segment Segment, the file holding the record
+     * @param position int, index of the record in the segment
+     * @return decoded item of type T
+     */
+    private T readRecord(Segment segment, int position) {
+        record.clear();
+        try {
+            if (segment != readChannelSegment) {
+                closeReadChannel();
+                readChannel = FileChannel.open(segment.path, StandardOpenOption.READ);
+                readChannelSegment = segment;
+            }
+            long offset = (long) position * recordSize;
+            while (record.hasRemaining())
+                if (readChannel.read(record, offset + record.position()) < 0)
+                    throw new IOException("Segment file truncated: " + segment.path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read TieredDeque segment " + segment.path, e);
+        }
+        return codec.read(record, 0);
+    }
+
+    /**
+     * Closes the channel kept open by get(), if any
+     * @throws IOException if the channel cannot be closed
+     */
+    private void closeReadChannel() throws IOException {
+        FileChannel channel = readChannel;
+        readChannel = null;
+        readChannelSegment = null;
+        if (channel != null)
+            channel.close();
+    }
+
+    /**
+     * Removes all items and deletes the segment files
+     */
+    public void clear() {
+        ensureOpen();
+        while (!segments.isEmpty())
+            deleteSegment(segments.removeFirst());
+        while (!head.isEmpty())
+            head.removeFirst();
+        while (!tail.isEmpty())
+            tail.removeFirst();
+        modCount++;
+    }
+
+    /**
+     * Deletes the segment files. The deque cannot be used afterwards.
+     * @throws IOException if a segment file cannot be deleted
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+        closeReadChannel();
+        while (!segments.isEmpty())
+            Files.deleteIfExists(segments.removeFirst().path);
+        spilled = 0;
+    }
+
+    /**
+     * Throws an exception if the deque has been closed
+     */
+    private void ensureOpen() {
+        if (closed)
+            throw new IllegalStateException("TieredDeque in " + directory + " is closed");
+    }
+
+    /**
+     * {@inheritDoc}
+     * Segments are read whole, one at a time, as the iterator reaches them. The iterator is fail-fast.
+     * @return Iterator over the deque, from the front to the back
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new TieredIterator(false);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Segments are read whole, one at a time, as the iterator reaches them. The iterator is fail-fast.
+     * @return Iterator over the deque, from the back to the front
+     */
+    @Override
+    public Iterator<T> descendingIterator() {
+        return new TieredIterator(true);
+    }
+
+    /**
+     * A class representing a fail-fast iterator walking the head, the segments and the tail in turn
+     * from either end, decoding each segment into an array when it is reached. Any change of the deque,
+     * including the spills and loads it causes, moves items between tiers, so it invalidates the iterator
+     */
+    private final class TieredIterator implements Iterator<T> {
+        private final boolean descending;
+        private final int expectedModCount = modCount;
+        // tier 0 is the head, 1 to segments.size() the segments, the last one the tail
+        private int tier;
+        private int index;
+        private Object[] chunk;
+
+        private TieredIterator(boolean descending) {
+            this.descending = descending;
+            tier = descending ? segments.size() + 1 : 0;
+            enterTier();
+        }
+
+        /**
+         * Positions the iterator at the first item of the current tier, in iteration order
+         */
+        private void enterTier() {
+            int length = tierSize();
+            index = descending ? length - 1 : 0;
+            chunk = null;
+        }
+
+        /**
+         * Returns the number of items of the current tier
+         * @return int, size of the head, a segment or the tail
+         */
+        private int tierSize() {
+            if (tier == 0)
+                return head.size();
+            if (tier == segments.size() + 1)
+                return tail.size();
+            return segments.get(tier - 1).count;
+        }
+
+        /**
+         * Throws ConcurrentModificationException if the deque changed since the iterator was created
+         */
+        private void checkForComodification() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+        }
+
+        @Override
+        public boolean hasNext() {
+            checkForComodification();
+            while (descending ? index < 0 : index >= tierSize()) {
+                if (descending ? tier == 0 : tier == segments.size() + 1)
+                    return false;
+                tier += descending ? -1 : 1;
+                enterTier();
+            }
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            ensureOpen();
+            if (!hasNext())
+                throw new NoSuchElementException();
+            T item;
+            if (tier == 0) {
+                item = head.get(index);
+            } else if (tier == segments.size() + 1) {
+                item = tail.get(index);
+            } else {
+                if (chunk == null) {
+                    Segment segment = segments.get(tier - 1);
+                    readSegment(segment);
+                    chunk = new Object[segment.count];
+                    for (int i = 0; i < chunk.length; i++)
+                        chunk[i] = codec.read(buffer, i * recordSize);
+                }
+                item = (T) chunk[index];
+            }
+            index += descending ? -1 : 1;
+            return item;
+        }
+    }
+
+    /**
+     * Rejects null items, which would be indistinguishable from the null returned
+     * by removeFirst() and removeLast() of an empty deque
+     * @param item an item of type T
+     */
+    private static void checkNotNull(Object item) {
+        if (item == null)
+            throw new NullPointerException("TieredDeque does not permit null items");
+    }
+}
@@ -0,0 +1,343 @@
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A class representing an unrolled linked list implementation of double-ended queue.
+ * Instead of one node per element the list is made of blocks, each holding an array of
+ * up to 64 consecutive elements, so adding an element allocates nothing until a block fills up
+ * and neighbouring elements share cache lines. Only the first and the last block can be
+ * partially filled: the first one holds its elements at the end of its array, the last one
+ * at the start, every block in between is full. A block emptied by removeFirst() or removeLast()
+ * is unlinked and kept in a small free list, from which the next new block is taken, so a deque
+ * oscillating around a block boundary does not allocate at all.
+ * Iterators walk the arrays of the blocks and are fail-fast.
+ * @param <T> generic type of stored data
+ */
+public class UnrolledLinkedListDeque<T> implements Deque<T> {
+
+    /** A class representing a single block of consecutive elements in the deque data structure */
+    private static final class Block<T> {
+        final T[] items;
+        Block<T> previous;
+        Block<T> next;
+
+        @SuppressWarnings("unchecked")
+        private Block(int blockSize) {
+            items = (T[]) new Object[blockSize];
+        }
+    }
+
+    private static final int DEFAULT_BLOCK_SIZE = 64;
+    private static final int DEFAULT_POOLED_BLOCKS = 4;
+
+    private final int blockSize;
+    private final int shift;
+    private final int maxPooledBlocks;
+    private Block<T> head;
+    private Block<T> tail;
+    private int first;
+    private int last;
+    private int blocks;
+    private int size;
+    private int modCount;
+    private Block<T> pool;
+    private int pooledBlocks;
+
+    /**
+     * Constructor creating an empty UnrolledLinkedListDeque with blocks of 64 elements,
+     * keeping up to 4 emptied blocks for reuse
+     */
+    public UnrolledLinkedListDeque() {
+        this(DEFAULT_BLOCK_SIZE, DEFAULT_POOLED_BLOCKS);
+    }
+
+    /**
+     * Constructor creating an empty UnrolledLinkedListDeque
+     * @param blockSize int, number of elements held by a block, a power of two not smaller than 2
+     * @param maxPooledBlocks int, number of emptied blocks kept for reuse, 0 disables the pool
+     */
+    public UnrolledLinkedListDeque(int blockSize, int maxPooledBlocks) {
+        if (blockSize < 2 || Integer.bitCount(blockSize) != 1)
+            throw new IllegalArgumentException("Block size must be a power of two not smaller than 2: " + blockSize);
+        if (maxPooledBlocks < 0)
+            throw new IllegalArgumentException("Number of pooled blocks must not be negative: " + maxPooledBlocks);
+        this.blockSize = blockSize;
+        this.maxPooledBlocks = maxPooledBlocks;
+        shift = Integer.numberOfTrailingZeros(blockSize);
+        head = new Block<>(blockSize);
+        tail = head;
+        blocks = 1;
+        first = blockSize / 2;
+        last = first;
+    }
+
+    /**
+     * Takes a block from the free list, or allocates a new one if the free list is empty
+     * @return Block, empty and unlinked block
+     */
+    private Block<T> newBlock() {
+        if (pool == null)
+            return new Block<>(blockSize);
+        Block<T> block = pool;
+        pool = block.next;
+        block.next = null;
+        pooledBlocks--;
+        return block;
+    }
+
+    /**
+     * Unlinks an emptied block from its neighbours and puts it on the free list if the free list
+     * is not full, otherwise leaves it to the garbage collector. All its elements have already
+     * been cleared by the removing methods.
+     * @param block Block, emptied block
+     */
+    private void releaseBlock(Block<T> block) {
+        block.previous = null;
+        block.next = null;
+        blocks--;
+        if (pooledBlocks < maxPooledBlocks) {
+            block.next = pool;
+            pool = block;
+            pooledBlocks++;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param item an item of type T added to the front of the deque
+     */
+    @Override
+    public void addFirst(T item) {
+        // the first block is full at the front, link a new one before it
+        if (first == 0) {
+            Block<T> block = newBlock();
+            block.next = head;
+            head.previous = block;
+            head = block;
+            blocks++;
+            first = blockSize;
+        }
+        head.items[--first] = item;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @param item an item of type T added to the end of the deque
+     */
+    @Override
+    public void addLast(T item) {
+        // the last block is full at the back, link a new one after it
+        if (last == blockSize) {
+            Block<T> block = newBlock();
+            block.previous = tail;
+            tail.next = block;
+            tail = block;
+            blocks++;
+            last = 0;
+        }
+        tail.items[last++] = item;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return int, cached size of the deque stored in the instance variable "size"
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void printDeque() {
+        Block<T> block = head;
+        int index = first;
+        for (int i = 0; i < size; i++) {
+            if (index == blockSize) {
+                block = block.next;
+                index = 0;
+            }
+            System.out.print(block.items[index++] + " ");
+        }
+        System.out.println();
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return removed element of a given generic type, null if no such item exists
+     */
+    @Override
+    public T removeFirst() {
+        if (size == 0)
+            return null;
+
+        // copy removed value into placeholder and free the space at removed index
+        T valuePlaceholder = head.items[first];
+        head.items[first++] = null;
+        size--;
+        modCount++;
+
+        if (size == 0) {
+            // the only block is empty, start filling it from the middle again
+            first = blockSize / 2;
+            last = first;
+        } else if (first == blockSize) {
+            Block<T> emptied = head;
+            head = head.next;
+            releaseBlock(emptied);
+            head.previous = null;
+            first = 0;
+        }
+        return valuePlaceholder;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return removed element of a given generic type, null if no such item exists
+     */
+    @Override
+    public T removeLast() {
+        if (size == 0)
+            return null;
+
+        // copy removed value into placeholder and free the space at removed index
+        T valuePlaceholder = tail.items[--last];
+        tail.items[last] = null;
+        size--;
+        modCount++;
+
+        if (size == 0) {
+            // the only block is empty, start filling it from the middle again
+            first = blockSize / 2;
+            last = first;
+        } else if (last == 0) {
+            Block<T> emptied = tail;
+            tail = tail.previous;
+            releaseBlock(emptied);
+            tail.next = null;
+            last = blockSize;
+        }
+        return valuePlaceholder;
+    }
+
+    /**
+     * {@inheritDoc}
+     * Skips whole blocks, starting from the end of the deque closer to the index,
+     * so at most blocks / 2 links are followed.
+     * @param index int, a required index of the deque
+     * @return element of a generic type found at the required index in the deque
+     */
+    @Override
+    public T get(int index) {
+        if (index < 0 || index > size - 1)
+            return null;
+        int position = first + index;
+        int blockNumber = position >>> shift;
+        Block<T> block;
+        if (blockNumber < blocks / 2) {
+            block = head;
+            for (int i = 0; i < blockNumber; i++)
+                block = block.next;
+        } else {
+            block = tail;
+            for (int i = blocks - 1; i > blockNumber; i--)
+                block = block.previous;
+        }
+        return block.items[position & (blockSize - 1)];
+    }
+
+    /**
+     * {@inheritDoc}
+     * The iterator is fail-fast.
+     * @return Iterator over the deque, from the front to the back
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new BlockIterator(false);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The iterator is fail-fast.
+     * @return Iterator over the deque, from the back to the front
+     */
+    @Override
+    public Iterator<T> descendingIterator() {
+        return new BlockIterator(true);
+    }
+
+    /**
+     * A class representing a fail-fast iterator walking the array of each block, then moving to the next block
+     */
+    private final class BlockIterator implements Iterator<T> {
+        private final boolean descending;
+        private Block<T> block;
+        private int index;
+        private int remaining = size;
+        private final int expectedModCount = modCount;
+
+        private BlockIterator(boolean descending) {
+            this.descending = descending;
+            block = descending ? tail : head;
+            index = descending ? last - 1 : first;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public T next() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (remaining == 0)
+                throw new NoSuchElementException();
+            if (index == blockSize) {
+                block = block.next;
+                index = 0;
+            } else if (index < 0) {
+                block = block.previous;
+                index = blockSize - 1;
+            }
+            remaining--;
+            return descending ? block.items[index--] : block.items[index++];
+        }
+    }
+
+    /**
+     * Creates a deep copy of other, with the same block size and free list limit. Walks the blocks
+     * of other once, copying the used range of each array with System.arraycopy() into a new block
+     * at the same positions, so the copy has the same layout as other
+     * @param other object to be copied
+     */
+    public UnrolledLinkedListDeque(UnrolledLinkedListDeque<? extends T> other) {
+        this(other.blockSize, other.maxPooledBlocks);
+        Block<? extends T> source = other.head;
+        Block<T> block = head;
+        while (true) {
+            int from = source == other.head ? other.first : 0;
+            int to = source == other.tail ? other.last : blockSize;
+            System.arraycopy(source.items, from, block.items, from, to - from);
+            if (source == other.tail)
+                break;
+            source = source.next;
+            Block<T> next = new Block<>(blockSize);
+            next.previous = block;
+            block.next = next;
+            block = next;
+        }
+        tail = block;
+        blocks = other.blocks;
+        first = other.first;
+        last = other.last;
+        size = other.size;
+    }
+}
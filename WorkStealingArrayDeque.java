@@ -0,0 +1,198 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A class representing a circular array implementation of double-ended queue used as a task
+ * queue of a work-stealing scheduler (D. Chase, Y. Lev, "Dynamic Circular Work-Stealing Deque", 2005).
+ * The deque has one owner thread, which adds and removes items at the back with addLast() and
+ * removeLast(), while any other thread may take items from the front with steal() (or removeFirst()).
+ * Instead of nextFirst and nextLast pointers the deque keeps two ever-increasing counters:
+ * top, the index of the first item, advanced only by compare-and-set, and bottom, the index
+ * after the last item, written only by the owner. An index maps to position index & (length - 1)
+ * of an array whose length is a power of two, doubled by the owner when it runs out of space.
+ * The owner's operations use no compare-and-set, except when removeLast() races with steal()
+ * for the last remaining item.
+ * Null items are not permitted, addFirst() is not supported. size(), get() and printDeque()
+ * may be called by any thread and are weakly consistent. Stolen items stay referenced by the array
+ * until their position is reused, since a thief cannot clear it without racing the owner.
+ * @param <T> generic type of stored data
+ */
+public class WorkStealingArrayDeque<T> implements Deque<T> {
+    private static final int STARTING_SIZE = 32;
+    private static final VarHandle TOP;
+    private static final VarHandle BOTTOM;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            TOP = lookup.findVarHandle(WorkStealingArrayDeque.class, "top", long.class);
+            BOTTOM = lookup.findVarHandle(WorkStealingArrayDeque.class, "bottom", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile Object[] items;
+    private volatile long top;
+    private volatile long bottom;
+
+    /**
+     * Constructor creating an empty WorkStealingArrayDeque
+     */
+    public WorkStealingArrayDeque() {
+        items = new Object[STARTING_SIZE];
+    }
+
+    /**
+     * Not supported, items can be added only by the owner at the back of the deque
+     * @param item an item of type T
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void addFirst(T item) {
+        throw new UnsupportedOperationException("WorkStealingArrayDeque supports addLast() only");
+    }
+
+    /**
+     * {@inheritDoc}
+     * May be called only by the owner thread.
+     * @param item an item of type T added to the end of the deque
+     * @throws NullPointerException if item is null
+     */
+    @Override
+    public void addLast(T item) {
+        if (item == null)
+            throw new NullPointerException("WorkStealingArrayDeque does not permit null items");
+        long b = (long) BOTTOM.getOpaque(this);
+        long t = (long) TOP.getAcquire(this);
+        Object[] a = items;
+        if (b - t > a.length - 1)
+            a = expandArray(a, t, b);
+        a[(int) b & (a.length - 1)] = item;
+        // publishes the item to thieves reading bottom with acquire semantics
+        BOTTOM.setRelease(this, b + 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @return int, number of items in the deque at some point during the call
+     */
+    @Override
+    public int size() {
+        long b = (long) BOTTOM.getAcquire(this);
+        long t = (long) TOP.getAcquire(this);
+        return (int) Math.max(0, b - t);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void printDeque() {
+        int size = size();
+        for (int i = 0; i < size; i++) {
+            T item = get(i);
+            if (item == null)
+                break;
+            System.out.print(item + " ");
+        }
+        System.out.println();
+    }
+
+    /**
+     * Removes and returns the item at the front of the deque, same as steal()
+     * @return removed element of a given generic type, null if no such item exists
+     * @see #steal()
+     */
+    @Override
+    public T removeFirst() {
+        return steal();
+    }
+
+    /**
+     * {@inheritDoc}
+     * May be called only by the owner thread.
+     * @return removed element of a given generic type, null if no such item exists
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T removeLast() {
+        long b = (long) BOTTOM.getOpaque(this) - 1;
+        Object[] a = items;
+        BOTTOM.setOpaque(this, b);
+        // orders the write of bottom before the read of top, so that the owner and a thief
+        // cannot both take the last item
+        VarHandle.fullFence();
+        long t = (long) TOP.getOpaque(this);
+
+        if (t > b) {
+            // the deque was empty
+            BOTTOM.setOpaque(this, b + 1);
+            return null;
+        }
+        int index = (int) b & (a.length - 1);
+        T item = (T) a[index];
+        if (t == b) {
+            // the last item, race the thieves for it
+            boolean won = TOP.compareAndSet(this, t, t + 1);
+            BOTTOM.setOpaque(this, b + 1);
+            if (!won)
+                return null;
+        }
+        a[index] = null;
+        return item;
+    }
+
+    /**
+     * Removes and returns the item at the front of the deque. May be called by any thread,
+     * retries until it either takes an item or finds the deque empty.
+     * @return removed element of a given generic type, null if no such item exists
+     */
+    @SuppressWarnings("unchecked")
+    public T steal() {
+        while (true) {
+            long t = (long) TOP.getAcquire(this);
+            VarHandle.fullFence();
+            long b = (long) BOTTOM.getAcquire(this);
+            if (t >= b)
+                return null;
+            Object[] a = items;
+            T item = (T) a[(int) t & (a.length - 1)];
+            if (TOP.compareAndSet(this, t, t + 1))
+                return item;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The item may be removed by another thread while it is being read.
+     * @param index int, a required index of the deque
+     * @return element of a generic type found at the required index in the deque
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        long t = (long) TOP.getAcquire(this);
+        long b = (long) BOTTOM.getAcquire(this);
+        if (index < 0 || index >= b - t)
+            return null;
+        Object[] a = items;
+        return (T) a[(int) (t + index) & (a.length - 1)];
+    }
+
+    /**
+     * Doubles the length of the array. Items keep their indices, only their positions in the
+     * array change. Thieves still reading the old array find the same items at the same positions.
+     * @param a Object[], current array
+     * @param t long, index of the first item
+     * @param b long, index after the last item
+     * @return the new array
+     */
+    private Object[] expandArray(Object[] a, long t, long b) {
+        Object[] newArray = new Object[a.length * 2];
+        for (long i = t; i < b; i++)
+            newArray[(int) i & (newArray.length - 1)] = a[(int) i & (a.length - 1)];
+        items = newArray;
+        return newArray;
+    }
+}
@@ -0,0 +1,237 @@
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A minimal fork/join style scheduler demonstrating a deque per worker thread used as a task queue.
+ * A worker runs tasks from the back of its own deque and, when it runs out of them, steals
+ * from the front of a randomly chosen other worker's deque. Tasks split work by calling fork()
+ * from inside run(), which adds the new task to the back of the current worker's deque.
+ * Any deque can be used as long as removeFirst() is safe to call from thieves,
+ * e.g. WorkStealingArrayDeque or a synchronized ArrayDeque.
+ */
+public class WorkStealingScheduler {
+    private final int workers;
+    private final Supplier<? extends Deque<Runnable>> dequeFactory;
+
+    /**
+     * Constructor creating a scheduler with a given number of workers
+     * @param workers int, number of worker threads, at least 1
+     * @param dequeFactory supplier creating the task deque of each worker
+     */
+    public WorkStealingScheduler(int workers, Supplier<? extends Deque<Runnable>> dequeFactory) {
+        if (workers < 1)
+            throw new IllegalArgumentException("At least one worker is required: " + workers);
+        this.workers = workers;
+        this.dequeFactory = dequeFactory;
+    }
+
+    /**
+     * Runs a task and all tasks forked from it on fresh worker threads, and waits until they finish
+     * @param root Runnable, the first task, run by the first worker
+     * @throws InterruptedException if the calling thread is interrupted while waiting
+     * @throws RuntimeException wrapping the first exception thrown by a task
+     */
+    public void run(Runnable root) throws InterruptedException {
+        Run run = new Run(root);
+        for (Worker worker : run.workers)
+            worker.start();
+        for (Worker worker : run.workers)
+            worker.join();
+        if (run.failure.get() != null)
+            throw new RuntimeException("Task failed", run.failure.get());
+    }
+
+    /**
+     * Adds a task to the back of the current worker's deque. May be called only from
+     * a task run by this scheduler.
+     * @param task Runnable, task to be run by this or another worker
+     * @throws IllegalStateException if called outside of a worker thread
+     */
+    public static void fork(Runnable task) {
+        if (!(Thread.currentThread() instanceof Worker))
+            throw new IllegalStateException("fork() called outside of a WorkStealingScheduler task");
+        Worker worker = (Worker) Thread.currentThread();
+        worker.run.pending.incrementAndGet();
+        worker.tasks.addLast(task);
+    }
+
+    /** State of a single run(): the workers and the number of tasks not yet completed */
+    private final class Run {
+        final Worker[] workers;
+        final AtomicLong pending = new AtomicLong(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        private Run(Runnable root) {
+            workers = new Worker[WorkStealingScheduler.this.workers];
+            for (int i = 0; i < workers.length; i++)
+                workers[i] = new Worker(this, i, i == 0 ? root : null);
+        }
+    }
+
+    /** A worker thread owning one task deque */
+    private final class Worker extends Thread {
+        final Run run;
+        final int index;
+        final Deque<Runnable> tasks;
+        private Runnable first;
+
+        private Worker(Run run, int index, Runnable first) {
+            super("work-stealing-worker-" + index);
+            this.run = run;
+            this.index = index;
+            this.first = first;
+            tasks = dequeFactory.get();
+        }
+
+        @Override
+        public void run() {
+            // the owner is the only thread allowed to add to its deque, so the root task
+            // is added here rather than by the thread calling WorkStealingScheduler.run()
+            if (first != null) {
+                tasks.addLast(first);
+                first = null;
+            }
+            while (run.pending.get() > 0) {
+                Runnable task = tasks.removeLast();
+                if (task == null)
+                    task = steal();
+                if (task == null) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                try {
+                    task.run();
+                } catch (Throwable e) {
+                    run.failure.compareAndSet(null, e);
+                }
+                run.pending.decrementAndGet();
+            }
+        }
+
+        /**
+         * Tries to take a task from the front of every other worker's deque once,
+         * starting at a random one
+         * @return stolen task, null if all other deques were empty
+         */
+        private Runnable steal() {
+            int count = run.workers.length;
+            int start = ThreadLocalRandom.current().nextInt(count);
+            for (int i = 0; i < count; i++) {
+                Worker victim = run.workers[(start + i) % count];
+                if (victim == this)
+                    continue;
+                Runnable task = victim.tasks.removeFirst();
+                if (task != null)
+                    return task;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Sums a long array by recursively splitting it into halves until the parts
+     * are small enough, once with WorkStealingArrayDeque task queues and once with
+     * synchronized ArrayDeque ones.
+     * @param args optional number of workers, the number of processors by default
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int workers = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        long[] numbers = new long[10_000_000];
+        for (int i = 0; i < numbers.length; i++)
+            numbers[i] = i;
+
+        demo("WorkStealingArrayDeque", new WorkStealingScheduler(workers, WorkStealingArrayDeque::new), numbers);
+        demo("synchronized ArrayDeque", new WorkStealingScheduler(workers, () -> new SynchronizedArrayDeque<>()), numbers);
+    }
+
+    /**
+     * Runs the summing demo with a given scheduler and prints the result and the time it took
+     * @param name String, name of the deque printed with the result
+     * @param scheduler WorkStealingScheduler, scheduler running the tasks
+     * @param numbers long[], numbers to be summed
+     */
+    private static void demo(String name, WorkStealingScheduler scheduler, long[] numbers) throws InterruptedException {
+        LongAdder sum = new LongAdder();
+        long start = System.nanoTime();
+        scheduler.run(new SumTask(numbers, 0, numbers.length, sum));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        System.out.println(name + ": sum " + sum.sum() + " in " + millis + " ms");
+    }
+
+    /** A task summing a range of an array, forking a task for one half while the range is large */
+    public static final class SumTask implements Runnable {
+        private static final int THRESHOLD = 1 << 12;
+        private final long[] numbers;
+        private final int from;
+        private final int to;
+        private final LongAdder sum;
+
+        /**
+         * Constructor creating a task summing numbers[from] to numbers[to - 1] into sum
+         * @param numbers long[], numbers to be summed
+         * @param from int, index of the first number, inclusive
+         * @param to int, index of the last number, exclusive
+         * @param sum LongAdder, accumulator of the partial sums
+         */
+        public SumTask(long[] numbers, int from, int to, LongAdder sum) {
+            this.numbers = numbers;
+            this.from = from;
+            this.to = to;
+            this.sum = sum;
+        }
+
+        @Override
+        public void run() {
+            int low = from;
+            int high = to;
+            while (high - low > THRESHOLD) {
+                int middle = (low + high) >>> 1;
+                fork(new SumTask(numbers, middle, high, sum));
+                high = middle;
+            }
+            long partial = 0;
+            for (int i = low; i < high; i++)
+                partial += numbers[i];
+            sum.add(partial);
+        }
+    }
+
+    /**
+     * ArrayDeque with every operation synchronized on the deque, the way it has to be shared between threads
+     * @param <T> generic type of stored data
+     */
+    static final class SynchronizedArrayDeque<T> extends ArrayDeque<T> {
+        @Override
+        public synchronized void addFirst(T item) {
+            super.addFirst(item);
+        }
+
+        @Override
+        public synchronized void addLast(T item) {
+            super.addLast(item);
+        }
+
+        @Override
+        public synchronized int size() {
+            return super.size();
+        }
+
+        @Override
+        public synchronized T removeFirst() {
+            return super.removeFirst();
+        }
+
+        @Override
+        public synchronized T removeLast() {
+            return super.removeLast();
+        }
+
+        @Override
+        public synchronized T get(int index) {
+            return super.get(index);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+import java.util.Iterator;
+import java.util.Spliterator;
+
+/**
+ * Factory for the deque implementations compared by the benchmarks. Implementation names are used
+ * as JMH @Param values, so every benchmark reports its results under the same labels.
+ */
+public final class BenchmarkDeques {
+
+    /** Array-based implementation from this repository */
+    public static final String ARRAY = "ArrayDeque";
+    /** Linked list-based implementation from this repository */
+    public static final String LINKED_LIST = "LinkedListDeque";
+    /** Unrolled linked list-based implementation from this repository, 64 elements per node */
+    public static final String UNROLLED_LINKED_LIST = "UnrolledLinkedListDeque";
+    /** java.util.ArrayDeque wrapped in the Deque interface, used as a baseline */
+    public static final String JDK_ARRAY = "java.util.ArrayDeque";
+    /** Lock-free implementation from this repository */
+    public static final String CONCURRENT_LINKED_LIST = "ConcurrentLinkedListDeque";
+    /** ArrayDeque with every operation synchronized on the deque, the usual way of sharing it */
+    public static final String SYNCHRONIZED_ARRAY = "synchronized ArrayDeque";
+    /** Chase-Lev work-stealing implementation from this repository, supports addLast() only */
+    public static final String WORK_STEALING_ARRAY = "WorkStealingArrayDeque";
+    /** java.util.concurrent.ConcurrentLinkedDeque wrapped in the Deque interface, used as a baseline */
+    public static final String JDK_CONCURRENT_LINKED = "java.util.concurrent.ConcurrentLinkedDeque";
+
+    private BenchmarkDeques() {
+    }
+
+    /**
+     * Creates an empty deque of a given implementation
+     * @param impl String, one of the implementation names defined in this class
+     * @param <T> generic type of stored data
+     * @return empty deque of the requested implementation
+     */
+    public static <T> Deque<T> newDeque(String impl) {
+        switch (impl) {
+            case ARRAY:
+                return new ArrayDeque<>();
+            case LINKED_LIST:
+                return new LinkedListDeque<>();
+            case UNROLLED_LINKED_LIST:
+                return new UnrolledLinkedListDeque<>();
+            case JDK_ARRAY:
+                return new JdkDeque<>(new java.util.ArrayDeque<>());
+            case CONCURRENT_LINKED_LIST:
+                return new ConcurrentLinkedListDeque<>();
+            case SYNCHRONIZED_ARRAY:
+                return new SynchronizedDeque<>(new ArrayDeque<>());
+            case WORK_STEALING_ARRAY:
+                return new WorkStealingArrayDeque<>();
+            case JDK_CONCURRENT_LINKED:
+                return new JdkDeque<>(new java.util.concurrent.ConcurrentLinkedDeque<>());
+            default:
+                throw new IllegalArgumentException("Unknown deque implementation: " + impl);
+        }
+    }
+
+    /**
+     * Creates a deque of a given implementation filled with size copies of item
+     * @param impl String, one of the implementation names defined in this class
+     * @param size int, number of elements to add
+     * @param item item added to the back of the deque size times
+     * @param <T> generic type of stored data
+     * @return deque of the requested implementation holding size elements
+     */
+    public static <T> Deque<T> filledDeque(String impl, int size, T item) {
+        Deque<T> deque = newDeque(impl);
+        for (int i = 0; i < size; i++)
+            deque.addLast(item);
+        return deque;
+    }
+
+    /**
+     * Adapter exposing a java.util.Deque through the Deque interface of this repository.
+     * Indexed access is not supported by the JDK classes and is emulated by iteration.
+     * @param <T> generic type of stored data
+     */
+    private static final class JdkDeque<T> implements Deque<T> {
+        private final java.util.Deque<T> items;
+
+        private JdkDeque(java.util.Deque<T> items) {
+            this.items = items;
+        }
+
+        @Override
+        public void addFirst(T item) {
+            items.addFirst(item);
+        }
+
+        @Override
+        public void addLast(T item) {
+            items.addLast(item);
+        }
+
+        @Override
+        public int size() {
+            return items.size();
+        }
+
+        @Override
+        public void printDeque() {
+            for (T item : items)
+                System.out.print(item + " ");
+            System.out.println();
+        }
+
+        @Override
+        public T removeFirst() {
+            return items.pollFirst();
+        }
+
+        @Override
+        public T removeLast() {
+            return items.pollLast();
+        }
+
+        @Override
+        public T get(int index) {
+            if (index < 0 || index >= items.size())
+                return null;
+            Iterator<T> iterator = items.iterator();
+            for (int i = 0; i < index; i++)
+                iterator.next();
+            return iterator.next();
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return items.iterator();
+        }
+
+        @Override
+        public Iterator<T> descendingIterator() {
+            return items.descendingIterator();
+        }
+
+        @Override
+        public Spliterator<T> spliterator() {
+            return items.spliterator();
+        }
+    }
+
+    /**
+     * Decorator synchronizing every operation of a deque on the decorator itself
+     * @param <T> generic type of stored data
+     */
+    private static final class SynchronizedDeque<T> implements Deque<T> {
+        private final Deque<T> deque;
+
+        private SynchronizedDeque(Deque<T> deque) {
+            this.deque = deque;
+        }
+
+        @Override
+        public synchronized void addFirst(T item) {
+            deque.addFirst(item);
+        }
+
+        @Override
+        public synchronized void addLast(T item) {
+            deque.addLast(item);
+        }
+
+        @Override
+        public synchronized int size() {
+            return deque.size();
+        }
+
+        @Override
+        public synchronized void printDeque() {
+            deque.printDeque();
+        }
+
+        @Override
+        public synchronized T removeFirst() {
+            return deque.removeFirst();
+        }
+
+        @Override
+        public synchronized T removeLast() {
+            return deque.removeLast();
+        }
+
+        @Override
+        public synchronized T get(int index) {
+            return deque.get(index);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures moving a batch of items into a deque and back out:
+ * 1. singleItems - addLast() and removeFirst() once per item
+ * 2. bulk - one addAllLast() and one removeFirst(int, T[]) per batch
+ * The deque starts empty for every invocation, so every batch grows and shrinks the array.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class BulkOperationsBenchmark {
+
+    @Param({BenchmarkDeques.ARRAY, BenchmarkDeques.LINKED_LIST})
+    public String impl;
+
+    @Param({"64", "4096", "262144"})
+    public int batch;
+
+    private Integer[] items;
+    private Integer[] dest;
+    private Deque<Integer> deque;
+
+    @Setup
+    public void setUp() {
+        items = new Integer[batch];
+        for (int i = 0; i < batch; i++)
+            items[i] = i;
+        dest = new Integer[batch];
+        deque = BenchmarkDeques.newDeque(impl);
+    }
+
+    @Benchmark
+    public Integer[] singleItems() {
+        for (Integer item : items)
+            deque.addLast(item);
+        for (int i = 0; i < batch; i++)
+            dest[i] = deque.removeFirst();
+        return dest;
+    }
+
+    @Benchmark
+    public Integer[] bulk() {
+        deque.addAllLast(items);
+        deque.removeFirst(batch, dest);
+        return dest;
+    }
+}
@@ -0,0 +1,85 @@
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures checking a batch of off-by-one palindromes of 64 characters with each comparator:
+ * 1. perPair - one equalChars() call per pair of characters, as Palindrome used to do
+ * 2. mirrored - one matchesMirrored() call per word
+ * With megamorphic=true every comparator goes through both call sites during setup, as in
+ * an application using several comparators, so the JIT can no longer inline equalChars().
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ComparatorBenchmark {
+    private static final int WORDS = 1024;
+    private static final int LENGTH = 64;
+
+    @Param({"OFF_BY_ONE", "OFF_BY_N", "LOOKUP_TABLE"})
+    public String comparator;
+
+    @Param({"false", "true"})
+    public boolean megamorphic;
+
+    private CharacterComparator cc;
+    private char[][] words;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        words = new char[WORDS][LENGTH];
+        for (char[] word : words)
+            for (int i = 0; i < LENGTH / 2; i++) {
+                word[i] = (char) ('b' + random.nextInt(24));
+                word[LENGTH - 1 - i] = (char) (word[i] + (random.nextBoolean() ? 1 : -1));
+            }
+        CharacterComparator[] all = {new OffByOne(), new OffByN(1), new LookupTableComparator(new OffByOne())};
+        if (megamorphic)
+            for (int round = 0; round < 20_000; round++)
+                for (CharacterComparator c : all) {
+                    perPair(c, words[round % WORDS]);
+                    c.matchesMirrored(words[round % WORDS], 0, LENGTH);
+                }
+        cc = all[comparator.equals("OFF_BY_ONE") ? 0 : comparator.equals("OFF_BY_N") ? 1 : 2];
+    }
+
+    private static boolean perPair(CharacterComparator cc, char[] word) {
+        for (int i = 0, j = word.length - 1; i < j; i++, j--)
+            if (!cc.equalChars(word[i], word[j]))
+                return false;
+        return true;
+    }
+
+    @Benchmark
+    public int perPair() {
+        int found = 0;
+        for (char[] word : words)
+            if (perPair(cc, word))
+                found++;
+        return found;
+    }
+
+    @Benchmark
+    public int mirrored() {
+        int found = 0;
+        for (char[] word : words)
+            if (cc.matchesMirrored(word, 0, word.length))
+                found++;
+        return found;
+    }
+}
@@ -0,0 +1,57 @@
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the throughput of a single deque shared by all benchmark threads:
+ * 1. queue - addLast() followed by removeFirst(), so threads contend on both ends
+ * 2. stack - addFirst() followed by removeFirst(), so threads contend on one end
+ * Run with -t, or with -Ddeque.bench.threads=1,2,4,8,16,32 through DequeBenchmarks,
+ * to see how throughput scales with the number of threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ConcurrentDequeBenchmark {
+
+    @Param({BenchmarkDeques.CONCURRENT_LINKED_LIST, BenchmarkDeques.SYNCHRONIZED_ARRAY,
+            BenchmarkDeques.JDK_CONCURRENT_LINKED})
+    public String impl;
+
+    @Param({"1024"})
+    public int size;
+
+    private final Integer item = 42;
+    private Deque<Integer> deque;
+
+    @Setup
+    public void setUp() {
+        deque = BenchmarkDeques.filledDeque(impl, size, item);
+    }
+
+    @Benchmark
+    public void queue(Blackhole bh) {
+        deque.addLast(item);
+        bh.consume(deque.removeFirst());
+    }
+
+    @Benchmark
+    public void stack(Blackhole bh) {
+        deque.addFirst(item);
+        bh.consume(deque.removeFirst());
+    }
+}
@@ -0,0 +1,56 @@
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point running the deque benchmarks. Accepts the regular JMH command line options
+ * (e.g. a regular expression selecting benchmarks, or -p size=1024), always attaches the GC
+ * profiler so allocation rates are reported next to the scores, and writes the results
+ * as JSON to the file given by the system property "deque.bench.result" (jmh-result.json by default).
+ * If the system property "deque.bench.threads" holds a comma separated list of thread counts,
+ * the selected benchmarks are run once per thread count, each run writing its own result file
+ * with the thread count appended to the name (e.g. jmh-result-t8.json).
+ */
+public final class DequeBenchmarks {
+
+    private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    private DequeBenchmarks() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options commandLine = new CommandLineOptions(args);
+        String resultFile = System.getProperty("deque.bench.result", DEFAULT_RESULT_FILE);
+        String threadCounts = System.getProperty("deque.bench.threads");
+
+        if (threadCounts == null) {
+            new Runner(options(commandLine, resultFile).build()).run();
+            return;
+        }
+        for (String count : threadCounts.split(",")) {
+            int threads = Integer.parseInt(count.trim());
+            String threadsResultFile = resultFile.replaceFirst("(\\.json)?$", "-t" + threads + "$1");
+            new Runner(options(commandLine, threadsResultFile).threads(threads).build()).run();
+        }
+    }
+
+    /**
+     * Creates options shared by all runs: command line options, GC profiler and JSON output
+     * @param commandLine Options, options parsed from the command line
+     * @param resultFile String, name of the JSON result file
+     * @return builder of the options, open for further settings
+     */
+    private static ChainedOptionsBuilder options(Options commandLine, String resultFile) {
+        return new OptionsBuilder()
+                .parent(commandLine)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(resultFile);
+    }
+}
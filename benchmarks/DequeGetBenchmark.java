@@ -0,0 +1,61 @@
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures get(int) at uniformly random indices of a deque filled with addFirst() and addLast()
+ * alternately, so that the array implementation's elements wrap around the end of the array.
+ * java.util.ArrayDeque has no indexed access and is not part of this comparison.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class DequeGetBenchmark {
+
+    private static final int INDEX_COUNT = 1 << 12;
+
+    @Param({BenchmarkDeques.ARRAY, BenchmarkDeques.LINKED_LIST, BenchmarkDeques.UNROLLED_LINKED_LIST})
+    public String impl;
+
+    @Param({"8", "64", "1024", "65536", "1048576", "10000000"})
+    public int size;
+
+    private Deque<Integer> deque;
+    private int[] indices;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        deque = BenchmarkDeques.newDeque(impl);
+        for (int i = 0; i < size; i++) {
+            if (i % 2 == 0)
+                deque.addLast(i);
+            else
+                deque.addFirst(i);
+        }
+        Random random = new Random(42);
+        indices = new int[INDEX_COUNT];
+        for (int i = 0; i < INDEX_COUNT; i++)
+            indices[i] = random.nextInt(size);
+    }
+
+    @Benchmark
+    public Integer get() {
+        next = (next + 1) & (INDEX_COUNT - 1);
+        return deque.get(indices[next]);
+    }
+}
@@ -0,0 +1,67 @@
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures filling an empty deque up to a given size with addFirst()/addLast() and draining it
+ * again with removeFirst()/removeLast(). Every run walks through all resizes of the array
+ * implementation, so the scores include the cost of expandArray() and shrinkArray().
+ * Scores are reported per whole fill (or fill and drain), not per element.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class DequeOperationsBenchmark {
+
+    @Param({BenchmarkDeques.ARRAY, BenchmarkDeques.LINKED_LIST, BenchmarkDeques.UNROLLED_LINKED_LIST,
+            BenchmarkDeques.JDK_ARRAY})
+    public String impl;
+
+    @Param({"8", "64", "1024", "65536", "1048576", "10000000"})
+    public int size;
+
+    private final Integer item = 42;
+
+    @Benchmark
+    public Deque<Integer> addFirst() {
+        Deque<Integer> deque = BenchmarkDeques.newDeque(impl);
+        for (int i = 0; i < size; i++)
+            deque.addFirst(item);
+        return deque;
+    }
+
+    @Benchmark
+    public Deque<Integer> addLast() {
+        Deque<Integer> deque = BenchmarkDeques.newDeque(impl);
+        for (int i = 0; i < size; i++)
+            deque.addLast(item);
+        return deque;
+    }
+
+    @Benchmark
+    public void addLastRemoveFirst(Blackhole bh) {
+        Deque<Integer> deque = addLast();
+        for (int i = 0; i < size; i++)
+            bh.consume(deque.removeFirst());
+    }
+
+    @Benchmark
+    public void addLastRemoveLast(Blackhole bh) {
+        Deque<Integer> deque = addLast();
+        for (int i = 0; i < size; i++)
+            bh.consume(deque.removeLast());
+    }
+}
@@ -0,0 +1,77 @@
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a sum over every element of a deque, computed in four ways:
+ * 1. indexed - get(i) for consecutive indices, the only way before deques became Iterable
+ * 2. iterator - a for-each loop
+ * 3. stream - a sequential stream
+ * 4. parallelStream - a parallel stream on the common fork/join pool
+ * The deque is filled with addFirst() and addLast() alternately, so that the array
+ * implementation's elements wrap around the end of the array.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class DequeStreamBenchmark {
+
+    @Param({BenchmarkDeques.ARRAY, BenchmarkDeques.LINKED_LIST, BenchmarkDeques.UNROLLED_LINKED_LIST,
+            BenchmarkDeques.JDK_ARRAY})
+    public String impl;
+
+    @Param({"1024", "1048576", "10000000"})
+    public int size;
+
+    private Deque<Integer> deque;
+
+    @Setup
+    public void setUp() {
+        deque = BenchmarkDeques.newDeque(impl);
+        for (int i = 0; i < size; i++) {
+            if (i % 2 == 0)
+                deque.addLast(i);
+            else
+                deque.addFirst(i);
+        }
+    }
+
+    @Benchmark
+    public long indexed() {
+        long sum = 0;
+        for (int i = 0; i < deque.size(); i++)
+            sum += deque.get(i);
+        return sum;
+    }
+
+    @Benchmark
+    public long iterator() {
+        long sum = 0;
+        for (Integer item : deque)
+            sum += item;
+        return sum;
+    }
+
+    @Benchmark
+    public long stream() {
+        return deque.stream().mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public long parallelStream() {
+        return deque.parallelStream().mapToLong(Integer::longValue).sum();
+    }
+}
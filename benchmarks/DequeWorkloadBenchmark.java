@@ -0,0 +1,65 @@
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures mixed workloads on a deque kept at a steady size, so no resizing takes place:
+ * 1. fifo - addLast() followed by removeFirst(), a queue
+ * 2. lifo - addLast() followed by removeLast(), a stack
+ * 3. steal - the owner pushes two items and pops one at the back, a thief removes one
+ *    at the front, the way a work-stealing task queue is used
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class DequeWorkloadBenchmark {
+
+    @Param({BenchmarkDeques.ARRAY, BenchmarkDeques.LINKED_LIST, BenchmarkDeques.UNROLLED_LINKED_LIST,
+            BenchmarkDeques.JDK_ARRAY})
+    public String impl;
+
+    @Param({"8", "1024", "1048576"})
+    public int size;
+
+    private final Integer item = 42;
+    private Deque<Integer> deque;
+
+    @Setup
+    public void setUp() {
+        deque = BenchmarkDeques.filledDeque(impl, size, item);
+    }
+
+    @Benchmark
+    public Integer fifo() {
+        deque.addLast(item);
+        return deque.removeFirst();
+    }
+
+    @Benchmark
+    public Integer lifo() {
+        deque.addLast(item);
+        return deque.removeLast();
+    }
+
+    @Benchmark
+    public void steal(Blackhole bh) {
+        deque.addLast(item);
+        deque.addLast(item);
+        bh.consume(deque.removeLast());
+        bh.consume(deque.removeFirst());
+    }
+}
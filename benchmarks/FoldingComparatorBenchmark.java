@@ -0,0 +1,75 @@
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures checking a batch of accented, mixed-case palindromes of 32 letters regardless of case and accents:
+ * 1. copying - every word is lower-cased, decomposed with Normalizer and stripped of combining marks,
+ *    then checked by Palindrome.isPalindrome()
+ * 2. folding - every word is checked by Palindrome.isCodePointPalindrome() with AccentInsensitiveComparator,
+ *    folding each pair of letters while comparing
+ * Run with -prof gc to see the allocation per check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FoldingComparatorBenchmark {
+    private static final int WORDS = 1024;
+    private static final int LENGTH = 32;
+    private static final String LETTERS = "aeiouAEIOU\u00e0\u00e9\u00ee\u00f6\u00fc\u00c0\u00c9\u00ce\u00d6\u00dc";
+
+    private final Palindrome palindrome = new Palindrome();
+    private final CodePointComparator accents = new AccentInsensitiveComparator(true);
+    private String[] words;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        words = new String[WORDS];
+        for (int w = 0; w < WORDS; w++) {
+            char[] word = new char[LENGTH];
+            for (int i = 0; i < LENGTH / 2; i++) {
+                int letter = random.nextInt(5);
+                word[i] = LETTERS.charAt(letter + 5 * random.nextInt(4));
+                word[LENGTH - 1 - i] = LETTERS.charAt(letter + 5 * random.nextInt(4));
+            }
+            words[w] = new String(word);
+        }
+    }
+
+    @Benchmark
+    public int copying() {
+        int found = 0;
+        for (String word : words) {
+            String folded = Normalizer.normalize(word.toLowerCase(Locale.ROOT), Normalizer.Form.NFD)
+                    .replaceAll("\\p{M}", "");
+            if (palindrome.isPalindrome(folded))
+                found++;
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int folding() {
+        int found = 0;
+        for (String word : words)
+            if (palindrome.isCodePointPalindrome(word, accents))
+                found++;
+        return found;
+    }
+}
@@ -0,0 +1,52 @@
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of instrumentation on an addLast()/removeFirst() pair of an ArrayDeque of 1024 elements:
+ * 1. plain - the deque itself, as returned by InstrumentedDeque.instrument() when instrumentation is disabled
+ * 2. counted - decorated by InstrumentedDeque, counting operations
+ * 3. timed - decorated by InstrumentedDeque, counting operations and recording their latencies
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InstrumentationBenchmark {
+    private static final int SIZE = 1024;
+
+    @Param({"plain", "counted", "timed"})
+    public String instrumentation;
+
+    private Deque<Integer> deque;
+    private final Integer item = 42;
+
+    @Setup
+    public void setUp() {
+        Deque<Integer> array = new ArrayDeque<>();
+        if (instrumentation.equals("plain"))
+            deque = InstrumentedDeque.instrument(array, "benchmark");
+        else
+            deque = new InstrumentedDeque<>(array, "benchmark", instrumentation.equals("timed"));
+        for (int i = 0; i < SIZE; i++)
+            deque.addLast(item);
+    }
+
+    @Benchmark
+    public Integer addLastRemoveFirst() {
+        deque.addLast(item);
+        return deque.removeFirst();
+    }
+}
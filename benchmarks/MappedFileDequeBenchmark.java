@@ -0,0 +1,114 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures addLast() followed by removeFirst() of 8 byte records on a MappedFileDeque
+ * kept at a steady size, for each sync policy, against the in-memory ArrayDeque.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MappedFileDequeBenchmark {
+
+    private static final int SIZE = 1 << 16;
+
+    /** Encodes a long as an 8 byte record */
+    private static final RecordCodec<Long> LONG_CODEC = new RecordCodec<Long>() {
+        @Override
+        public int recordSize() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void write(Long item, ByteBuffer buffer, int offset) {
+            buffer.putLong(offset, item);
+        }
+
+        @Override
+        public Long read(ByteBuffer buffer, int offset) {
+            return buffer.getLong(offset);
+        }
+    };
+
+    @State(Scope.Thread)
+    public static class MappedState {
+        @Param({"onClose", "every1000", "everyOperation"})
+        public String sync;
+
+        Path directory;
+        MappedFileDeque<Long> deque;
+
+        @Setup
+        public void setUp() throws IOException {
+            directory = Files.createTempDirectory("mapped-deque-bench");
+            MappedFileDeque.SyncPolicy policy;
+            switch (sync) {
+                case "every1000":
+                    policy = MappedFileDeque.SyncPolicy.everyOperations(1000);
+                    break;
+                case "everyOperation":
+                    policy = MappedFileDeque.SyncPolicy.everyOperation();
+                    break;
+                default:
+                    policy = MappedFileDeque.SyncPolicy.onClose();
+            }
+            deque = new MappedFileDeque<>(directory, LONG_CODEC, policy);
+            for (long i = 0; i < SIZE; i++)
+                deque.addLast(i);
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            deque.close();
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class InMemoryState {
+        Deque<Long> deque;
+
+        @Setup
+        public void setUp() {
+            deque = new ArrayDeque<>();
+            for (long i = 0; i < SIZE; i++)
+                deque.addLast(i);
+        }
+    }
+
+    private final Long item = 42L;
+
+    @Benchmark
+    public Long mappedFileDeque(MappedState state) {
+        state.deque.addLast(item);
+        return state.deque.removeFirst();
+    }
+
+    @Benchmark
+    public Long arrayDeque(InMemoryState state) {
+        state.deque.addLast(item);
+        return state.deque.removeFirst();
+    }
+}
@@ -0,0 +1,90 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures counting the palindromes in a generated word list with PalindromeScanner,
+ * with 1 to 16 threads, to show how scanning scales with the number of cores:
+ * 1. mappedFile - the file is memory-mapped and scanned in chunks by fork/join tasks
+ * 2. lines - the file is read by Files.lines() as a parallel stream of Strings
+ * The corpus is generated once per trial, 1 GB by default; a multi-GB corpus is generated
+ * with -p corpusMegabytes=4096. One in eight words is a palindrome.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PalindromeScanBenchmark {
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int threads;
+
+    @Param({"1024"})
+    public int corpusMegabytes;
+
+    private Path corpus;
+    private ForkJoinPool pool;
+    private PalindromeScanner scanner;
+
+    @Setup
+    public void setUp() throws IOException {
+        corpus = Files.createTempFile("palindrome-corpus", ".txt");
+        long bytes = (long) corpusMegabytes << 20;
+        Random random = new Random(42);
+        byte[] word = new byte[32];
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(corpus), 1 << 20)) {
+            long written = 0;
+            while (written < bytes) {
+                int length = 3 + random.nextInt(20);
+                boolean palindrome = random.nextInt(8) == 0;
+                for (int i = 0; i < length; i++)
+                    word[i] = palindrome && i >= length / 2 ? word[length - 1 - i] : (byte) ('a' + random.nextInt(26));
+                word[length] = '\n';
+                out.write(word, 0, length + 1);
+                written += length + 1;
+            }
+        }
+        pool = new ForkJoinPool(threads);
+        scanner = new PalindromeScanner(null, pool, 16L << 20);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pool.shutdown();
+        Files.deleteIfExists(corpus);
+    }
+
+    @Benchmark
+    public long mappedFile() throws IOException {
+        return scanner.count(corpus);
+    }
+
+    @Benchmark
+    public long lines() throws IOException {
+        try (Stream<String> lines = Files.lines(corpus, StandardCharsets.ISO_8859_1)) {
+            return scanner.count(lines);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+import java.nio.CharBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures finding the longest palindromic substring of a random text:
+ * 1. manacher - PalindromicSubstrings, linear time
+ * 2. eertree - PalindromicTree built over the whole text, linear time
+ * 3. offByOne - PalindromicSubstrings with OffByOne, expanding around every center
+ * 4. bruteForce - Palindrome.isPalindrome() on every substring, longer than the longest found so far
+ * The linear algorithms run on texts of up to 1M characters. The brute force takes quadratic time
+ * even on random text, so it only gets texts of up to 10K characters; at 1M it would not finish.
+ * An alphabet of 2 letters makes long palindromes common, 26 letters makes them rare.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class PalindromicSubstringsBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class LinearState {
+        @Param({"1000", "10000", "1000000"})
+        public int length;
+
+        @Param({"2", "26"})
+        public int alphabet;
+
+        String text;
+
+        @Setup
+        public void setUp() {
+            text = randomText(length, alphabet);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class BruteForceState {
+        @Param({"1000", "10000"})
+        public int length;
+
+        @Param({"2", "26"})
+        public int alphabet;
+
+        String text;
+
+        @Setup
+        public void setUp() {
+            text = randomText(length, alphabet);
+        }
+    }
+
+    private static String randomText(int length, int alphabet) {
+        Random random = new Random(42);
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++)
+            chars[i] = (char) ('a' + random.nextInt(alphabet));
+        return new String(chars);
+    }
+
+    private final PalindromicSubstrings substrings = new PalindromicSubstrings();
+    private final Palindrome palindrome = new Palindrome();
+    private final CharacterComparator offByOne = new OffByOne();
+
+    @Benchmark
+    public String manacher(LinearState state) {
+        return substrings.longest(state.text);
+    }
+
+    @Benchmark
+    public String eertree(LinearState state) {
+        PalindromicTree tree = new PalindromicTree(state.text.length());
+        tree.addAll(state.text);
+        return tree.longest();
+    }
+
+    @Benchmark
+    public String offByOne(LinearState state) {
+        return substrings.longest(state.text, offByOne);
+    }
+
+    @Benchmark
+    public CharSequence bruteForce(BruteForceState state) {
+        String text = state.text;
+        CharSequence longest = "";
+        for (int i = 0; i < text.length(); i++) {
+            for (int j = i + longest.length() + 1; j <= text.length(); j++) {
+                CharSequence candidate = CharBuffer.wrap(text, i, j);
+                if (palindrome.isPalindrome(candidate))
+                    longest = candidate;
+            }
+        }
+        return longest;
+    }
+}
@@ -0,0 +1,68 @@
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures handing a deque of a given size to a reader after adding one element, so the writer
+ * can go on changing its deque while the reader works on an unchanging version:
+ * 1. arrayDequeCopy - addLast() and a defensive copy with the ArrayDeque(ArrayDeque) constructor
+ * 2. persistentVersion - addLast() on a PersistentDeque, returning a new version sharing all other nodes
+ * 3. persistentQueue - addLast() and removeFirst() on a PersistentDeque, including the rebalancing
+ * With -prof gc, gc.alloc.rate.norm shows the bytes allocated per handoff: the whole array for a copy,
+ * one node and one deque object for a persistent version.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersistentDequeBenchmark {
+
+    @Param({"16", "1024", "65536", "1048576"})
+    public int size;
+
+    private ArrayDeque<Integer> arrayDeque;
+    private PersistentDeque<Integer> persistent;
+    private PersistentDeque<Integer> queue;
+    private final Integer item = 42;
+
+    @Setup
+    public void setUp() {
+        arrayDeque = new ArrayDeque<>();
+        persistent = PersistentDeque.empty();
+        for (int i = 0; i < size; i++) {
+            arrayDeque.addLast(item);
+            persistent = persistent.addLast(item);
+        }
+        queue = persistent;
+    }
+
+    @Benchmark
+    public ArrayDeque<Integer> arrayDequeCopy() {
+        arrayDeque.addLast(item);
+        arrayDeque.removeFirst();
+        return new ArrayDeque<>(arrayDeque);
+    }
+
+    @Benchmark
+    public PersistentDeque<Integer> persistentVersion() {
+        return persistent.addLast(item);
+    }
+
+    @Benchmark
+    public PersistentDeque<Integer> persistentQueue() {
+        queue = queue.addLast(item).removeFirst();
+        return queue;
+    }
+}
@@ -0,0 +1,60 @@
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the single operation that crosses a resize boundary of ArrayDeque:
+ * 1. expand - addLast() on a full array of length capacity, which calls expandArray()
+ * 2. shrink - removeLast() that drops the usage ratio of an array of length capacity
+ *    below 0.25, which calls shrinkArray()
+ * The deque is rebuilt before every invocation, so only the crossing operation is timed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ResizeBoundaryBenchmark {
+
+    @Param({"64", "1024", "65536", "1048576"})
+    public int capacity;
+
+    private final Integer item = 42;
+    private Deque<Integer> full;
+    private Deque<Integer> quarterFull;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        full = BenchmarkDeques.filledDeque(BenchmarkDeques.ARRAY, capacity, item);
+
+        // filling past capacity / 2 grows the array to capacity, removing down to
+        // capacity / 4 stops exactly at the shrink threshold
+        quarterFull = BenchmarkDeques.filledDeque(BenchmarkDeques.ARRAY, capacity / 2 + 1, item);
+        while (quarterFull.size() > capacity / 4)
+            quarterFull.removeLast();
+    }
+
+    @Benchmark
+    public Deque<Integer> expand() {
+        full.addLast(item);
+        return full;
+    }
+
+    @Benchmark
+    public Deque<Integer> shrink() {
+        quarterFull.removeLast();
+        return quarterFull;
+    }
+}
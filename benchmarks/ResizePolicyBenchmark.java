@@ -0,0 +1,79 @@
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how ArrayDeque resize policies cope with a deque whose size keeps oscillating:
+ * 1. drainAndRefill - the deque is emptied and filled back to size, crossing every shrink
+ *    and expand threshold on the way
+ * 2. sawtooth - the deque is drained to an eighth of size and filled back, the pattern
+ *    that makes the default policy shrink and expand the array on every cycle
+ * The same deque is reused across invocations, so the cost of the resizes left in
+ * a steady state is what is measured; run with -prof gc to compare the allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ResizePolicyBenchmark {
+
+    @Param({"doubling", "neverShrink", "hysteresis"})
+    public String policy;
+
+    @Param({"1024", "65536", "1048576"})
+    public int size;
+
+    private final Integer item = 42;
+    private ArrayDeque<Integer> deque;
+
+    @Setup
+    public void setUp() {
+        deque = new ArrayDeque<>(policy(policy));
+        for (int i = 0; i < size; i++)
+            deque.addLast(item);
+    }
+
+    private static ResizePolicy policy(String name) {
+        switch (name) {
+            case "doubling":
+                return ResizePolicy.doubling();
+            case "neverShrink":
+                return ResizePolicy.neverShrink();
+            case "hysteresis":
+                return ResizePolicy.hysteresis(64);
+            default:
+                throw new IllegalArgumentException("Unknown resize policy: " + name);
+        }
+    }
+
+    @Benchmark
+    public ArrayDeque<Integer> drainAndRefill() {
+        while (!deque.isEmpty())
+            deque.removeFirst();
+        for (int i = 0; i < size; i++)
+            deque.addLast(item);
+        return deque;
+    }
+
+    @Benchmark
+    public ArrayDeque<Integer> sawtooth() {
+        int low = size / 8;
+        while (deque.size() > low)
+            deque.removeFirst();
+        while (deque.size() < size)
+            deque.addLast(item);
+        return deque;
+    }
+}
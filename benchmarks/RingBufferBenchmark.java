@@ -0,0 +1,58 @@
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a sliding window of the last N items, adding one item and reading the one N - 1 places before it:
+ * 1. arrayDeque - ArrayDeque, removeFirst() after every addLast() once the window is full
+ * 2. ringBuffer - RingBufferDeque, addLast() overwriting the oldest item
+ * Run with -prof gc to see that neither allocates in the steady state.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RingBufferBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    public int window;
+
+    private ArrayDeque<Integer> arrayDeque;
+    private RingBufferDeque<Integer> ringBuffer;
+    private final Integer item = 42;
+
+    @Setup
+    public void setUp() {
+        arrayDeque = new ArrayDeque<>();
+        ringBuffer = new RingBufferDeque<>(window);
+        for (int i = 0; i < window; i++) {
+            arrayDeque.addLast(item);
+            ringBuffer.addLast(item);
+        }
+    }
+
+    @Benchmark
+    public Integer arrayDeque() {
+        arrayDeque.addLast(item);
+        arrayDeque.removeFirst();
+        return arrayDeque.get(0);
+    }
+
+    @Benchmark
+    public Integer ringBuffer() {
+        ringBuffer.addLast(item);
+        return ringBuffer.getNewest(window - 1);
+    }
+}
@@ -0,0 +1,86 @@
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures pushing one value of a random walk into a sliding window of the last N values and reading
+ * its minimum and maximum:
+ * 1. boxedDeques - two ArrayDeques of boxed values and timestamps, kept monotonic by hand with removeLast()
+ * 2. minMaxWindow - MinMaxWindow, two MonotonicDeques over primitive arrays
+ * Run with -prof gc to see the allocation of the boxed values.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlidingWindowBenchmark {
+    private static final int VALUES = 1 << 16;
+
+    @Param({"16", "1024"})
+    public int window;
+
+    private double[] walk;
+    private int next;
+    private long time;
+    private MinMaxWindow minMaxWindow;
+    private ArrayDeque<double[]> minimum;
+    private ArrayDeque<double[]> maximum;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        walk = new double[VALUES];
+        double price = 100;
+        for (int i = 0; i < VALUES; i++) {
+            price += random.nextGaussian();
+            walk[i] = price;
+        }
+        minMaxWindow = new MinMaxWindow(window);
+        minimum = new ArrayDeque<>();
+        maximum = new ArrayDeque<>();
+    }
+
+    private double nextValue() {
+        time++;
+        return walk[next++ & (VALUES - 1)];
+    }
+
+    private void push(ArrayDeque<double[]> deque, double value, boolean max) {
+        while (!deque.isEmpty()) {
+            double last = deque.get(deque.size() - 1)[0];
+            if (max ? last > value : last < value)
+                break;
+            deque.removeLast();
+        }
+        deque.addLast(new double[] {value, time});
+        while (deque.get(0)[1] <= time - window)
+            deque.removeFirst();
+    }
+
+    @Benchmark
+    public double boxedDeques() {
+        double value = nextValue();
+        push(minimum, value, false);
+        push(maximum, value, true);
+        return minimum.get(0)[0] + maximum.get(0)[0];
+    }
+
+    @Benchmark
+    public double minMaxWindow() {
+        minMaxWindow.push(nextValue(), time);
+        return minMaxWindow.min() + minMaxWindow.max();
+    }
+}
@@ -0,0 +1,131 @@
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of handing items from one producer thread to one consumer thread:
+ * 1. spsc - SpscArrayDeque, one offer() and one poll() per item
+ * 2. spscBatch - SpscArrayDeque, offer(T[], int, int) and poll(T[], int, int) of batch items at a time
+ * 3. synchronizedArray - ArrayDeque with addLast() and removeFirst() synchronized on the deque
+ * Each group runs the producer and the consumer on a thread of its own. Failed offers and polls
+ * are not counted: the offered and polled counters report the items actually handed over,
+ * in operations per microsecond. For stable numbers pin the two threads to two cores of one socket,
+ * e.g. with taskset, and run on an otherwise idle machine.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SpscBenchmark {
+    private static final Integer ITEM = 42;
+
+    @Param({"1024", "65536"})
+    public int capacity;
+
+    @Param({"64"})
+    public int batch;
+
+    private SpscArrayDeque<Integer> spsc;
+    private ArrayDeque<Integer> array;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        spsc = new SpscArrayDeque<>(capacity);
+        array = new ArrayDeque<>(capacity, ResizePolicy.neverShrink());
+    }
+
+    @AuxCounters
+    @State(Scope.Thread)
+    public static class OfferCounters {
+        public long offered;
+        Integer[] items;
+
+        @Setup(Level.Iteration)
+        public void setUp(SpscBenchmark benchmark) {
+            offered = 0;
+            items = new Integer[benchmark.batch];
+            java.util.Arrays.fill(items, ITEM);
+        }
+    }
+
+    @AuxCounters
+    @State(Scope.Thread)
+    public static class PollCounters {
+        public long polled;
+        Integer[] items;
+
+        @Setup(Level.Iteration)
+        public void setUp(SpscBenchmark benchmark) {
+            polled = 0;
+            items = new Integer[benchmark.batch];
+        }
+    }
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public void spscOffer(OfferCounters counters) {
+        if (spsc.offer(ITEM))
+            counters.offered++;
+    }
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public void spscPoll(PollCounters counters) {
+        if (spsc.poll() != null)
+            counters.polled++;
+    }
+
+    @Benchmark
+    @Group("spscBatch")
+    @GroupThreads(1)
+    public void spscBatchOffer(OfferCounters counters) {
+        counters.offered += spsc.offer(counters.items, 0, counters.items.length);
+    }
+
+    @Benchmark
+    @Group("spscBatch")
+    @GroupThreads(1)
+    public void spscBatchPoll(PollCounters counters) {
+        counters.polled += spsc.poll(counters.items, 0, counters.items.length);
+    }
+
+    @Benchmark
+    @Group("synchronizedArray")
+    @GroupThreads(1)
+    public void synchronizedAddLast(OfferCounters counters) {
+        synchronized (array) {
+            if (array.size() < capacity) {
+                array.addLast(ITEM);
+                counters.offered++;
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("synchronizedArray")
+    @GroupThreads(1)
+    public void synchronizedRemoveFirst(PollCounters counters) {
+        synchronized (array) {
+            if (array.removeFirst() != null)
+                counters.polled++;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a backlog surge: a given number of 8 byte records added with addLast() and then drained
+ * with removeFirst(), in an ArrayDeque holding them all on the heap and in a TieredDeque keeping
+ * at most memoryBudget of them in memory and spilling the rest to disk. Each invocation
+ * fills and drains the deque once. With -prof gc, the heap used by ArrayDeque grows with the backlog
+ * while the TieredDeque stays within its budget, paying for a sequential write and read of every
+ * spilled record.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TieredDequeBenchmark {
+
+    /** Encodes a long as an 8 byte record */
+    private static final RecordCodec<Long> LONG_CODEC = new RecordCodec<Long>() {
+        @Override
+        public int recordSize() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void write(Long item, ByteBuffer buffer, int offset) {
+            buffer.putLong(offset, item);
+        }
+
+        @Override
+        public Long read(ByteBuffer buffer, int offset) {
+            return buffer.getLong(offset);
+        }
+    };
+
+    @Param({"1000000", "10000000"})
+    public int backlog;
+
+    @Param({"65536", "1048576"})
+    public int memoryBudget;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("tiered-deque-bench");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Adds backlog items at the back of a deque, then removes them all from the front
+     * @param deque Deque to fill and drain
+     * @return long, sum of the removed items
+     */
+    private long fillAndDrain(Deque<Long> deque) {
+        for (long i = 0; i < backlog; i++)
+            deque.addLast(i);
+        long sum = 0;
+        Long item;
+        while ((item = deque.removeFirst()) != null)
+            sum += item;
+        return sum;
+    }
+
+    @Benchmark
+    public long arrayDeque() {
+        return fillAndDrain(new ArrayDeque<>());
+    }
+
+    @Benchmark
+    public long tieredDeque() throws IOException {
+        try (TieredDeque<Long> deque = new TieredDeque<>(directory, LONG_CODEC, memoryBudget)) {
+            return fillAndDrain(deque);
+        }
+    }
+}
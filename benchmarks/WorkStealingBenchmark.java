@@ -0,0 +1,55 @@
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a recursive parallel sum run by WorkStealingScheduler with 1 to 64 workers,
+ * using either WorkStealingArrayDeque or a synchronized ArrayDeque as the task queue of every worker.
+ * The leaf tasks are small, so the score is dominated by pushing, popping and stealing tasks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class WorkStealingBenchmark {
+
+    @Param({BenchmarkDeques.WORK_STEALING_ARRAY, BenchmarkDeques.SYNCHRONIZED_ARRAY})
+    public String impl;
+
+    @Param({"1", "2", "4", "8", "16", "32", "64"})
+    public int workers;
+
+    @Param({"4000000"})
+    public int length;
+
+    private long[] numbers;
+    private WorkStealingScheduler scheduler;
+
+    @Setup
+    public void setUp() {
+        numbers = new long[length];
+        for (int i = 0; i < length; i++)
+            numbers[i] = i;
+        scheduler = new WorkStealingScheduler(workers, () -> BenchmarkDeques.<Runnable>newDeque(impl));
+    }
+
+    @Benchmark
+    public long sum() throws InterruptedException {
+        LongAdder sum = new LongAdder();
+        scheduler.run(new WorkStealingScheduler.SumTask(numbers, 0, numbers.length, sum));
+        return sum.sum();
+    }
+}